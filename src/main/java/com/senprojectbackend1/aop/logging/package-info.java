@@ -1,4 +0,0 @@
-/**
- * Logging aspect.
- */
-package com.senprojectbackend1.aop.logging;
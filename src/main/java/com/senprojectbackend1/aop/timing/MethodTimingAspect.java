@@ -0,0 +1,242 @@
+package com.senprojectbackend1.aop.timing;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import reactor.core.observability.DefaultSignalListener;
+import reactor.core.observability.SignalListener;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Mesure la durée des méthodes des services et des repositories, sous forme d'une {@link Observation}
+ * {@value #OBSERVATION_NAME} (un timer avec histogramme une fois passée par le {@code MeterRegistry}).
+ * <p>
+ * Pour un {@link Mono} ou un {@link Flux}, la mesure va de l'abonnement au signal terminal (complétion, erreur ou
+ * annulation), via {@code tap} : c'est l'exécution réelle, et non l'assemblage du publisher qui est mesuré. Les autres
+ * méthodes sont mesurées autour de leur appel.
+ * <p>
+ * Seule une part {@code application.method-timing.sample-rate} des appels est mesurée, les autres ne coûtent qu'un
+ * tirage aléatoire. Les tags sont bornés : la classe et la méthode (au plus {@code max-tagged-methods} couples, les
+ * suivants étant regroupés sous {@value #OTHER}) et l'issue. La classe est celle du bean appelé, et non celle qui déclare
+ * la méthode : l'interface du repository pour un proxy Spring Data, dont les méthodes héritées (ex. {@code findById})
+ * ont ainsi un timer par repository. Les arguments ne sont jamais lus, sauf avec
+ * {@code log-arguments} et le niveau DEBUG.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    public static final String OBSERVATION_NAME = "application.method";
+
+    static final String OTHER = "other";
+
+    private static final KeyValues OTHER_METHOD = KeyValues.of("class", OTHER, "method", OTHER);
+
+    private final ObservationRegistry observationRegistry;
+    private final double sampleRate;
+    private final int maxTaggedMethods;
+    private final boolean logArguments;
+
+    private final Map<TimedMethod, KeyValues> methodKeyValues = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(ObservationRegistry observationRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.MethodTiming properties = applicationProperties.getMethodTiming();
+        this.observationRegistry = observationRegistry;
+        this.sampleRate = properties.getSampleRate();
+        this.maxTaggedMethods = properties.getMaxTaggedMethods();
+        this.logArguments = properties.isLogArguments();
+    }
+
+    /**
+     * Pointcut qui correspond aux services et repositories de l'application
+     */
+    @Pointcut(
+        "(within(com.senprojectbackend1.repository..*) || within(com.senprojectbackend1.service..*))" +
+        " && (within(@org.springframework.stereotype.Repository *) || within(@org.springframework.stereotype.Service *))"
+    )
+    public void serviceAndRepositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    @Around("serviceAndRepositoryPointcut()")
+    public Object timeAroundServicesAndRepositories(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!sampled()) {
+            return joinPoint.proceed();
+        }
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Logger log = LoggerFactory.getLogger(signature.getDeclaringType());
+        if (logArguments && log.isDebugEnabled()) {
+            log.debug("Enter: {}() with argument[s] = {}", signature.getName(), Arrays.toString(joinPoint.getArgs()));
+        }
+        KeyValues keyValues = keyValues(joinPoint, signature);
+        if (Publisher.class.isAssignableFrom(signature.getReturnType())) {
+            Object result = joinPoint.proceed();
+            if (result instanceof Mono<?> mono) {
+                return mono.tap(new TimingListenerFactory<>(keyValues, log, signature.getName(), true));
+            }
+            if (result instanceof Flux<?> flux) {
+                return flux.tap(new TimingListenerFactory<>(keyValues, log, signature.getName(), false));
+            }
+            return result;
+        }
+        Timing timing = new Timing(keyValues, log, signature.getName());
+        try {
+            Object result = joinPoint.proceed();
+            timing.stop(Outcome.SUCCESS, null);
+            return result;
+        } catch (Throwable e) {
+            timing.stop(Outcome.ERROR, e);
+            throw e;
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private KeyValues keyValues(ProceedingJoinPoint joinPoint, MethodSignature signature) {
+        // la classe du proxy identifie le bean : une méthode héritée a une entrée par bean qui l'appelle
+        Object proxy = joinPoint.getThis();
+        TimedMethod timedMethod = new TimedMethod(proxy != null ? proxy.getClass() : signature.getDeclaringType(), signature.getMethod());
+        KeyValues keyValues = methodKeyValues.get(timedMethod);
+        if (keyValues != null) {
+            return keyValues;
+        }
+        // au-delà de la limite, les méthodes suivantes partagent un même timer
+        if (methodKeyValues.size() >= maxTaggedMethods) {
+            return OTHER_METHOD;
+        }
+        return methodKeyValues.computeIfAbsent(timedMethod, m ->
+            KeyValues.of("class", timedClass(joinPoint, signature).getSimpleName(), "method", signature.getName())
+        );
+    }
+
+    private static Class<?> timedClass(ProceedingJoinPoint joinPoint, MethodSignature signature) {
+        Object proxy = joinPoint.getThis();
+        // un repository Spring Data est un proxy JDK de son interface, sa cible étant l'implémentation commune
+        if (proxy != null && Proxy.isProxyClass(proxy.getClass())) {
+            return AopProxyUtils.proxiedUserInterfaces(proxy)[0];
+        }
+        Object target = joinPoint.getTarget();
+        return target != null ? AopUtils.getTargetClass(target) : signature.getDeclaringType();
+    }
+
+    private record TimedMethod(Class<?> beanClass, Method method) {}
+
+    private enum Outcome {
+        SUCCESS,
+        ERROR,
+        CANCELLED;
+
+        private final String value = name().toLowerCase();
+    }
+
+    /**
+     * Une mesure en cours : arrêtée une seule fois, au premier signal terminal.
+     */
+    private final class Timing {
+
+        private final AtomicReference<Observation> observation;
+        private final Logger log;
+        private final String methodName;
+        private final long start = System.nanoTime();
+
+        private Timing(KeyValues keyValues, Logger log, String methodName) {
+            this.observation = new AtomicReference<>(
+                Observation.createNotStarted(OBSERVATION_NAME, observationRegistry).lowCardinalityKeyValues(keyValues).start()
+            );
+            this.log = log;
+            this.methodName = methodName;
+        }
+
+        private void stop(Outcome outcome, Throwable error) {
+            Observation current = observation.getAndSet(null);
+            if (current == null) {
+                return;
+            }
+            current.lowCardinalityKeyValue("outcome", outcome.value);
+            if (error != null) {
+                current.error(error);
+            }
+            current.stop();
+            if (log.isDebugEnabled()) {
+                log.debug("Exit: {}() {} - {}ms", methodName, outcome.value, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    private final class TimingListenerFactory<T> implements SignalListenerFactory<T, Void> {
+
+        private final KeyValues keyValues;
+        private final Logger log;
+        private final String methodName;
+        private final boolean mono;
+
+        private TimingListenerFactory(KeyValues keyValues, Logger log, String methodName, boolean mono) {
+            this.keyValues = keyValues;
+            this.log = log;
+            this.methodName = methodName;
+            this.mono = mono;
+        }
+
+        @Override
+        public Void initializePublisherState(Publisher<? extends T> source) {
+            return null;
+        }
+
+        @Override
+        public SignalListener<T> createListener(Publisher<? extends T> source, ContextView listenerContext, Void publisherContext) {
+            return new DefaultSignalListener<>() {
+                private Timing timing;
+
+                @Override
+                public void doFirst() {
+                    timing = new Timing(keyValues, log, methodName);
+                }
+
+                // la valeur d'un Mono est son résultat : l'abonné peut la recevoir avant le signal de complétion
+                @Override
+                public void doOnNext(T value) {
+                    if (mono) {
+                        timing.stop(Outcome.SUCCESS, null);
+                    }
+                }
+
+                @Override
+                public void doOnComplete() {
+                    timing.stop(Outcome.SUCCESS, null);
+                }
+
+                @Override
+                public void doOnError(Throwable error) {
+                    timing.stop(Outcome.ERROR, error);
+                }
+
+                @Override
+                public void doOnCancel() {
+                    timing.stop(Outcome.CANCELLED, null);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Method timing aspect.
+ */
+package com.senprojectbackend1.aop.timing;
@@ -2,6 +2,7 @@ package com.senprojectbackend1.broker;
 
 import com.senprojectbackend1.broker.dto.NotificationMessage;
 import com.senprojectbackend1.domain.Notification;
+import java.util.List;
 import reactor.core.publisher.Flux;
 
 /**
@@ -18,24 +19,27 @@ public interface NotificationBrokerService {
     boolean sendNotification(Notification notification);
 
     /**
-     * Envoie un message de notification directement via le broker.
+     * Envoie un lot de notifications via le broker, par exemple celles d'une équipe.
      *
-     * @param message Le message de notification à envoyer
-     * @return true si l'envoi a réussi, false sinon
+     * @param notifications Les notifications à envoyer
+     * @return le nombre de notifications envoyées
      */
-    boolean sendNotificationMessage(NotificationMessage message);
+    int sendNotifications(List<Notification> notifications);
 
     /**
-     * Récupère le flux de notifications.
+     * Envoie un message de notification directement via le broker.
      *
-     * @return Le flux de notifications
+     * @param message Le message de notification à envoyer
+     * @return true si l'envoi a réussi, false sinon
      */
-    Flux<Notification> getNotificationFlux();
+    boolean sendNotificationMessage(NotificationMessage message);
 
     /**
-     * Récupère le flux de messages de notification.
+     * Ouvre le flux des notifications d'un utilisateur.
      *
-     * @return Le flux de messages de notification
+     * @param userId L'identifiant de l'utilisateur
+     * @param missed Les notifications manquées à remettre d'abord, par identifiant croissant
+     * @return Le flux des notifications de l'utilisateur et des messages diffusés à tous
      */
-    Flux<NotificationMessage> getNotificationMessageFlux();
+    Flux<NotificationMessage> subscribe(String userId, Flux<NotificationMessage> missed);
 }
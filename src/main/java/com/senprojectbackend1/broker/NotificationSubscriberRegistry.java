@@ -0,0 +1,169 @@
+package com.senprojectbackend1.broker;
+
+import com.senprojectbackend1.broker.dto.NotificationMessage;
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Registre des connexions ouvertes au flux de notifications, par utilisateur.
+ * <p>
+ * Une notification n'est remise qu'aux connexions de son destinataire ; seuls les messages diffusés à tous
+ * (sans destinataire) parcourent toutes les connexions. Chaque connexion garde au plus
+ * {@code application.notification-stream.buffer-size} événements non encore écrits : au-delà, les plus anciens sont
+ * abandonnés, le client les retrouvant en se reconnectant avec {@code Last-Event-ID}.
+ */
+@Component
+public class NotificationSubscriberRegistry {
+
+    private final Map<String, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final int bufferSize;
+
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Timer deliveryLag;
+
+    public NotificationSubscriberRegistry(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.bufferSize = applicationProperties.getNotificationStream().getBufferSize();
+        this.delivered = Counter.builder("notifications.stream.delivered")
+            .description("Notifications written to the live streams")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("notifications.stream.dropped")
+            .description("Notifications dropped because a live stream was too slow")
+            .register(meterRegistry);
+        this.deliveryLag = Timer.builder("notifications.stream.delivery.lag")
+            .description("Time between the publication of a notification and its delivery to a live stream")
+            .register(meterRegistry);
+        Gauge.builder("notifications.stream.connections", connections, AtomicInteger::get)
+            .description("Open live notification streams")
+            .register(meterRegistry);
+        Gauge.builder("notifications.stream.users", subscribersByUser, Map::size)
+            .description("Users with at least one open live notification stream")
+            .register(meterRegistry);
+        Gauge.builder("notifications.stream.pending", this, NotificationSubscriberRegistry::pending)
+            .description("Notifications waiting to be written to the live streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre une connexion pour un utilisateur. Elle est enregistrée dès l'abonnement, avant la lecture des
+     * notifications manquées : celles publiées pendant cette lecture sont gardées, et remises une seule fois.
+     *
+     * @param userId l'identifiant de l'utilisateur.
+     * @param missed les notifications publiées pendant la déconnexion, par identifiant croissant.
+     * @return les notifications manquées, puis celles publiées pour l'utilisateur tant que la connexion est ouverte.
+     */
+    public Flux<NotificationMessage> subscribe(String userId, Flux<NotificationMessage> missed) {
+        return Flux.defer(() -> {
+            Subscriber subscriber = new Subscriber();
+            subscribersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            connections.incrementAndGet();
+            AtomicLong lastMissedId = new AtomicLong(Long.MIN_VALUE);
+            Flux<NotificationMessage> live = subscriber.sink
+                .asFlux()
+                .onBackpressureBuffer(
+                    bufferSize,
+                    event -> {
+                        subscriber.pending.decrementAndGet();
+                        dropped.increment();
+                    },
+                    BufferOverflowStrategy.DROP_OLDEST
+                )
+                .doOnNext(event -> {
+                    subscriber.pending.decrementAndGet();
+                    delivered.increment();
+                    deliveryLag.record(Duration.ofNanos(System.nanoTime() - event.publishedAt()));
+                })
+                .map(Event::message)
+                .filter(message -> message.getId() == null || message.getId() > lastMissedId.get());
+            return missed
+                .doOnNext(message -> lastMissedId.accumulateAndGet(message.getId(), Math::max))
+                .concatWith(live)
+                .doFinally(signal -> unregister(userId, subscriber));
+        });
+    }
+
+    /**
+     * Remet un message aux connexions de son destinataire, ou à toutes s'il n'en a pas.
+     *
+     * @param message le message à remettre.
+     * @return le nombre de connexions auxquelles il a été remis.
+     */
+    public int publish(NotificationMessage message) {
+        Event event = new Event(message, System.nanoTime());
+        if (message.getUserId() == null) {
+            int count = 0;
+            for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+                count += emit(subscribers, event);
+            }
+            return count;
+        }
+        Set<Subscriber> subscribers = subscribersByUser.get(message.getUserId());
+        return subscribers == null ? 0 : emit(subscribers, event);
+    }
+
+    /**
+     * @return le nombre de connexions ouvertes.
+     */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    private static int emit(Set<Subscriber> subscribers, Event event) {
+        int count = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.emit(event)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void unregister(String userId, Subscriber subscriber) {
+        subscribersByUser.computeIfPresent(userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        connections.decrementAndGet();
+    }
+
+    private double pending() {
+        long pending = 0;
+        for (Set<Subscriber> subscribers : subscribersByUser.values()) {
+            for (Subscriber subscriber : subscribers) {
+                pending += subscriber.pending.get();
+            }
+        }
+        return pending;
+    }
+
+    private record Event(NotificationMessage message, long publishedAt) {}
+
+    private static final class Subscriber {
+
+        private final Sinks.Many<Event> sink = Sinks.many().unicast().onBackpressureBuffer();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // un sink unicast n'accepte pas d'émissions concurrentes
+        synchronized boolean emit(Event event) {
+            if (sink.tryEmitNext(event).isSuccess()) {
+                pending.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
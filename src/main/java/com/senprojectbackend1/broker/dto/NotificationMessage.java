@@ -20,6 +20,7 @@ public class NotificationMessage implements Serializable {
     private NotificationType type;
     private String entityId;
     private String action;
+    // null pour une diffusion à tous les utilisateurs
     private String userId;
 
     // Constructeur par défaut nécessaire pour la désérialisation
@@ -1,5 +1,6 @@
 package com.senprojectbackend1.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -10,9 +11,529 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
     // jhipster-needle-application-properties-property
+    private final EngagementCounters engagementCounters = new EngagementCounters();
+    private final NotificationBroadcast notificationBroadcast = new NotificationBroadcast();
+    private final NotificationStream notificationStream = new NotificationStream();
+    private final NotificationRetention notificationRetention = new NotificationRetention();
+    private final Uploads uploads = new Uploads();
+    private final Media media = new Media();
+    private final Images images = new Images();
+    private final Tags tags = new Tags();
+    private final MethodTiming methodTiming = new MethodTiming();
 
     // jhipster-needle-application-properties-property-getter
+    public EngagementCounters getEngagementCounters() {
+        return engagementCounters;
+    }
+
+    public NotificationBroadcast getNotificationBroadcast() {
+        return notificationBroadcast;
+    }
+
+    public NotificationStream getNotificationStream() {
+        return notificationStream;
+    }
+
+    public NotificationRetention getNotificationRetention() {
+        return notificationRetention;
+    }
+
+    public Uploads getUploads() {
+        return uploads;
+    }
+
+    public Media getMedia() {
+        return media;
+    }
+
+    public Images getImages() {
+        return images;
+    }
+
+    public Tags getTags() {
+        return tags;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
 
     // jhipster-needle-application-properties-property-class
+    /**
+     * Write-behind buffering of the project view, like, share and favorite counters.
+     * <p>
+     * Increments are kept in memory and written in batches. A graceful shutdown flushes them; on a crash,
+     * at most the increments of one {@code flushInterval}, and never more than {@code maxPendingEvents}, are lost.
+     */
+    public static class EngagementCounters {
+
+        /** When false, every increment is written immediately. */
+        private boolean writeBehind = true;
+
+        /** Delay between two flushes: the upper bound, in time, of the increments lost on a crash. */
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        /** Number of buffered increments that triggers a flush before the interval elapses. */
+        private long maxPendingEvents = 10_000;
+
+        /** Whether project reads add the increments not yet flushed to the stored counters. */
+        private boolean mergePendingOnRead = true;
+
+        public boolean isWriteBehind() {
+            return writeBehind;
+        }
+
+        public void setWriteBehind(boolean writeBehind) {
+            this.writeBehind = writeBehind;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public long getMaxPendingEvents() {
+            return maxPendingEvents;
+        }
+
+        public void setMaxPendingEvents(long maxPendingEvents) {
+            this.maxPendingEvents = maxPendingEvents;
+        }
+
+        public boolean isMergePendingOnRead() {
+            return mergePendingOnRead;
+        }
+
+        public void setMergePendingOnRead(boolean mergePendingOnRead) {
+            this.mergePendingOnRead = mergePendingOnRead;
+        }
+    }
+
+    /**
+     * Notifications sent to every user, inserted by a background job in chunks of users.
+     */
+    public static class NotificationBroadcast {
+
+        /** Number of users notified by each INSERT ... SELECT statement. */
+        private int chunkSize = 1_000;
+
+        /** How long the progress of a finished broadcast stays available. */
+        private Duration jobRetention = Duration.ofHours(1);
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public Duration getJobRetention() {
+            return jobRetention;
+        }
+
+        public void setJobRetention(Duration jobRetention) {
+            this.jobRetention = jobRetention;
+        }
+    }
+
+    /**
+     * Live notifications pushed to the connected users over Server-Sent Events.
+     */
+    public static class NotificationStream {
+
+        /** Interval of the comments keeping idle connections open through proxies. */
+        private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+        /** Notifications kept per connection while the client reads slowly; the oldest are dropped beyond. */
+        private int bufferSize = 256;
+
+        /** Notifications replayed at most to a client reconnecting with {@code Last-Event-ID}. */
+        private int replayLimit = 100;
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getReplayLimit() {
+            return replayLimit;
+        }
+
+        public void setReplayLimit(int replayLimit) {
+            this.replayLimit = replayLimit;
+        }
+    }
+
+    /**
+     * Purge of the read notifications older than {@code maxAge}, by a scheduled job deleting them in small batches,
+     * optionally after writing them to compressed archives on the local disk. The job also creates the monthly
+     * partitions of the coming months, and drops the past ones once empty.
+     */
+    public static class NotificationRetention {
+
+        private boolean enabled = true;
+
+        /** Read notifications created longer ago are deleted; unread ones are kept whatever their age. */
+        private Duration maxAge = Duration.ofDays(90);
+
+        /** Notifications deleted by one statement, in its own transaction. */
+        private int batchSize = 1_000;
+
+        /** Batches run at most by one run of the job; the rest waits for the next run. */
+        private int maxBatchesPerRun = 100;
+
+        /** Delay between two runs of the job. */
+        private Duration runInterval = Duration.ofHours(1);
+
+        /** Monthly partitions created in advance, after the current month. */
+        private int partitionsAhead = 3;
+
+        /** Writes the deleted notifications to gzip-compressed JSON lines files in {@code archiveDirectory}. */
+        private boolean archiveEnabled = false;
+
+        private String archiveDirectory = "archive/notifications";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+
+        public Duration getRunInterval() {
+            return runInterval;
+        }
+
+        public void setRunInterval(Duration runInterval) {
+            this.runInterval = runInterval;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+
+        public boolean isArchiveEnabled() {
+            return archiveEnabled;
+        }
+
+        public void setArchiveEnabled(boolean archiveEnabled) {
+            this.archiveEnabled = archiveEnabled;
+        }
+
+        public String getArchiveDirectory() {
+            return archiveDirectory;
+        }
+
+        public void setArchiveDirectory(String archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+        }
+    }
+
+    /**
+     * Image uploads to Cloudinary, whose client blocks: they run on a dedicated bounded scheduler, never on the event loop.
+     */
+    public static class Uploads {
+
+        /** Uploads running at the same time, across all requests: the threads of the upload scheduler. */
+        private int maxConcurrent = 8;
+
+        /** Uploads running or waiting for a thread; beyond, new uploads are rejected at once. */
+        private int maxPending = 100;
+
+        /** Uploads running at the same time for one request, e.g. the gallery of a project. */
+        private int maxConcurrentPerRequest = 3;
+
+        /** Time allowed to one upload, waiting included. */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getMaxConcurrentPerRequest() {
+            return maxConcurrentPerRequest;
+        }
+
+        public void setMaxConcurrentPerRequest(int maxConcurrentPerRequest) {
+            this.maxConcurrentPerRequest = maxConcurrentPerRequest;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Storage of the uploaded media.
+     */
+    public static class Media {
+
+        /** {@code cloudinary}, or {@code local} to keep media on disk and serve them from /api/media/files. */
+        private String storage = "cloudinary";
+
+        /** Directory of the local storage; files are named after the SHA-256 of their content. */
+        private String localDirectory = "uploads";
+
+        /** URL under which the local storage is served, ending with /api/media/files/; required with the local storage. */
+        private String publicUrl;
+
+        /** Cache lifetime sent with local media: their content never changes for a given URL. */
+        private Duration cacheMaxAge = Duration.ofDays(365);
+
+        public String getStorage() {
+            return storage;
+        }
+
+        public void setStorage(String storage) {
+            this.storage = storage;
+        }
+
+        public String getLocalDirectory() {
+            return localDirectory;
+        }
+
+        public void setLocalDirectory(String localDirectory) {
+            this.localDirectory = localDirectory;
+        }
+
+        public String getPublicUrl() {
+            return publicUrl;
+        }
+
+        public void setPublicUrl(String publicUrl) {
+            this.publicUrl = publicUrl;
+        }
+
+        public Duration getCacheMaxAge() {
+            return cacheMaxAge;
+        }
+
+        public void setCacheMaxAge(Duration cacheMaxAge) {
+            this.cacheMaxAge = cacheMaxAge;
+        }
+    }
+
+    /**
+     * Thumbnail, card and full-size derivatives of the uploaded images, scaled with ImageIO on a dedicated bounded pool.
+     */
+    public static class Images {
+
+        /** Images decoded and scaled at the same time: the threads of the derivative pool. */
+        private int workerThreads = 2;
+
+        /** Images waiting for a thread; beyond, images are kept without derivatives. */
+        private int maxQueued = 50;
+
+        /** Larger side of the thumbnails, in pixels. */
+        private int thumbnailSize = 320;
+
+        /** Larger side of the images of the project cards, in pixels. */
+        private int cardSize = 800;
+
+        /** Larger side of the full-size images, in pixels. */
+        private int fullSize = 1920;
+
+        /** Images with more pixels are not decoded, and kept without derivatives. */
+        private long maxPixels = 50_000_000;
+
+        /** JPEG quality of the derivatives, between 0 and 1. */
+        private float jpegQuality = 0.85f;
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public int getThumbnailSize() {
+            return thumbnailSize;
+        }
+
+        public void setThumbnailSize(int thumbnailSize) {
+            this.thumbnailSize = thumbnailSize;
+        }
+
+        public int getCardSize() {
+            return cardSize;
+        }
+
+        public void setCardSize(int cardSize) {
+            this.cardSize = cardSize;
+        }
+
+        public int getFullSize() {
+            return fullSize;
+        }
+
+        public void setFullSize(int fullSize) {
+            this.fullSize = fullSize;
+        }
+
+        public long getMaxPixels() {
+            return maxPixels;
+        }
+
+        public void setMaxPixels(long maxPixels) {
+            this.maxPixels = maxPixels;
+        }
+
+        public float getJpegQuality() {
+            return jpegQuality;
+        }
+
+        public void setJpegQuality(float jpegQuality) {
+            this.jpegQuality = jpegQuality;
+        }
+    }
+
+    /**
+     * Tag autocompletion, served from memory: the index is updated when tags are created, forbidden or deleted,
+     * and reloaded from the database every {@code autocompleteRefreshInterval} to follow the project counts.
+     */
+    public static class Tags {
+
+        /** Delay between two reloads of the autocompletion index. */
+        private Duration autocompleteRefreshInterval = Duration.ofMinutes(5);
+
+        /** Suggestions returned for one search. */
+        private int autocompleteMaxResults = 20;
+
+        public Duration getAutocompleteRefreshInterval() {
+            return autocompleteRefreshInterval;
+        }
+
+        public void setAutocompleteRefreshInterval(Duration autocompleteRefreshInterval) {
+            this.autocompleteRefreshInterval = autocompleteRefreshInterval;
+        }
+
+        public int getAutocompleteMaxResults() {
+            return autocompleteMaxResults;
+        }
+
+        public void setAutocompleteMaxResults(int autocompleteMaxResults) {
+            this.autocompleteMaxResults = autocompleteMaxResults;
+        }
+    }
+
+    /**
+     * Timing of the service and repository methods, from subscription to termination for the {@code Mono} and
+     * {@code Flux} they return.
+     */
+    public static class MethodTiming {
+
+        private boolean enabled = true;
+
+        /** Share of the calls timed, between 0 and 1; the counts of the timers are those of the sample. */
+        private double sampleRate = 0.1;
+
+        /** Methods timed under their own tags; the following ones share the {@code other} tags. */
+        private int maxTaggedMethods = 1_000;
+
+        /** Logs the arguments of the timed calls at DEBUG level; never serialized otherwise. */
+        private boolean logArguments = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxTaggedMethods() {
+            return maxTaggedMethods;
+        }
+
+        public void setMaxTaggedMethods(int maxTaggedMethods) {
+            this.maxTaggedMethods = maxTaggedMethods;
+        }
+
+        public boolean isLogArguments() {
+            return logArguments;
+        }
+
+        public void setLogArguments(boolean logArguments) {
+            this.logArguments = logArguments;
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.senprojectbackend1.config;
+
+import com.senprojectbackend1.aop.timing.MethodTimingAspect;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.*;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class MethodTimingAspectConfiguration {
+
+    /**
+     * Mesure des services et repositories, de l'abonnement à la fin d'exécution pour les Mono et Flux.
+     * Active dans tous les profils : elle est échantillonnée, et ne sérialise pas les arguments.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", matchIfMissing = true)
+    public MethodTimingAspect methodTimingAspect(ObservationRegistry observationRegistry, ApplicationProperties applicationProperties) {
+        return new MethodTimingAspect(observationRegistry, applicationProperties);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -112,6 +113,9 @@ public class SecurityConfiguration {
                     // Comments publics (lecture seule)
                     .pathMatchers("/api/comments/project/**")
                     .permitAll()
+                    // Médias du stockage local (URL publiques, comme celles de Cloudinary)
+                    .pathMatchers(HttpMethod.GET, "/api/media/files/**")
+                    .permitAll()
                     // Notifications (authentifiées)
                     .pathMatchers("/api/notifications/**")
                     .authenticated()
@@ -38,6 +38,12 @@ public class Project implements Serializable {
     @Column("showcase")
     private String showcase;
 
+    @Column("showcase_thumbnail_url")
+    private String showcaseThumbnailUrl;
+
+    @Column("showcase_card_url")
+    private String showcaseCardUrl;
+
     @NotNull(message = "must not be null")
     @Column("status")
     private ProjectStatus status;
@@ -165,6 +171,32 @@ public class Project implements Serializable {
         this.showcase = showcase;
     }
 
+    public String getShowcaseThumbnailUrl() {
+        return this.showcaseThumbnailUrl;
+    }
+
+    public Project showcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.setShowcaseThumbnailUrl(showcaseThumbnailUrl);
+        return this;
+    }
+
+    public void setShowcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.showcaseThumbnailUrl = showcaseThumbnailUrl;
+    }
+
+    public String getShowcaseCardUrl() {
+        return this.showcaseCardUrl;
+    }
+
+    public Project showcaseCardUrl(String showcaseCardUrl) {
+        this.setShowcaseCardUrl(showcaseCardUrl);
+        return this;
+    }
+
+    public void setShowcaseCardUrl(String showcaseCardUrl) {
+        this.showcaseCardUrl = showcaseCardUrl;
+    }
+
     public ProjectStatus getStatus() {
         return this.status;
     }
@@ -481,6 +513,8 @@ public class Project implements Serializable {
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", showcase='" + getShowcase() + "'" +
+            ", showcaseThumbnailUrl='" + getShowcaseThumbnailUrl() + "'" +
+            ", showcaseCardUrl='" + getShowcaseCardUrl() + "'" +
             ", status='" + getStatus() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
             ", updatedAt='" + getUpdatedAt() + "'" +
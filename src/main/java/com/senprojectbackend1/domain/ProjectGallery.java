@@ -27,6 +27,12 @@ public class ProjectGallery implements Serializable {
     @Column("image_url")
     private String imageUrl;
 
+    @Column("thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column("card_url")
+    private String cardUrl;
+
     @Size(max = 500)
     @Column("description")
     private String description;
@@ -70,6 +76,32 @@ public class ProjectGallery implements Serializable {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return this.thumbnailUrl;
+    }
+
+    public ProjectGallery thumbnailUrl(String thumbnailUrl) {
+        this.setThumbnailUrl(thumbnailUrl);
+        return this;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return this.cardUrl;
+    }
+
+    public ProjectGallery cardUrl(String cardUrl) {
+        this.setCardUrl(cardUrl);
+        return this;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -143,6 +175,8 @@ public class ProjectGallery implements Serializable {
         return "ProjectGallery{" +
             "id=" + getId() +
             ", imageUrl='" + getImageUrl() + "'" +
+            ", thumbnailUrl='" + getThumbnailUrl() + "'" +
+            ", cardUrl='" + getCardUrl() + "'" +
             ", description='" + getDescription() + "'" +
             ", order=" + getOrder() +
             "}";
@@ -0,0 +1,9 @@
+package com.senprojectbackend1.repository;
+
+import java.util.List;
+
+/**
+ * Result of one chunk of a broadcast: the last user id of the chunk, null when it was empty, the number of
+ * notifications inserted, the users who received them and the ids of their notifications, in the same order.
+ */
+public record BroadcastChunkProjection(String lastUserId, long inserted, List<String> userIds, List<Long> notificationIds) {}
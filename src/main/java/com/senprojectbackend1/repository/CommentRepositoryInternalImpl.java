@@ -83,7 +83,13 @@ class CommentRepositoryInternalImpl extends SimpleR2dbcRepository<Comment, Long>
         List<Expression> columns = CommentSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(UserProfileSqlHelper.getColumns(userTable, "user"));
         columns.addAll(ProjectSqlHelper.getColumns(projectTable, "project"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), Comment.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(userTable)
@@ -92,9 +98,6 @@ class CommentRepositoryInternalImpl extends SimpleR2dbcRepository<Comment, Long>
             .leftOuterJoin(projectTable)
             .on(Column.create("project_id", entityTable))
             .equals(Column.create("id", projectTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Comment.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -127,9 +130,8 @@ class CommentRepositoryInternalImpl extends SimpleR2dbcRepository<Comment, Long>
 
     @Override
     public Mono<Long> countByCriteria(CommentCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(CommentCriteria criteria) {
@@ -2,7 +2,9 @@ package com.senprojectbackend1.repository;
 
 import com.senprojectbackend1.domain.EngagementProject;
 import com.senprojectbackend1.domain.criteria.EngagementProjectCriteria;
+import java.time.Instant;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -55,6 +57,40 @@ public interface EngagementProjectRepository extends ReactiveCrudRepository<Enga
         @Param("projectId") Long projectId,
         @Param("type") String type
     );
+
+    /**
+     * Inserts the engagement unless the user already has one of this type on the project.
+     * @return the inserted engagement, or empty if it already existed.
+     */
+    @Query(
+        "INSERT INTO engagement_project (type, created_at, user_id, project_id) VALUES (:type, :createdAt, :userId, :projectId) " +
+        "ON CONFLICT (user_id, project_id, type) DO NOTHING RETURNING *"
+    )
+    Mono<EngagementProject> insertIfAbsent(
+        @Param("userId") String userId,
+        @Param("projectId") Long projectId,
+        @Param("type") String type,
+        @Param("createdAt") Instant createdAt
+    );
+
+    /**
+     * Deletes the engagement of this type of the user on the project.
+     * @return the number of deleted engagements, 0 or 1.
+     */
+    @Modifying
+    @Query("DELETE FROM engagement_project WHERE user_id = :userId AND project_id = :projectId AND type = :type")
+    Mono<Long> deleteEngagement(@Param("userId") String userId, @Param("projectId") Long projectId, @Param("type") String type);
+
+    /**
+     * Like and share flags of the user on the project, in one query; both false when the user has no engagement on it.
+     */
+    Mono<EngagementStatusProjection> findEngagementStatus(String userId, Long projectId);
+
+    /**
+     * Like, share and favorite flags of the user for each of the given projects, in one query.
+     * Every requested id gets a row, with false flags when the user has no engagement on it.
+     */
+    Flux<ProjectEngagementStatusProjection> findEngagementStatuses(String userId, Long[] projectIds);
 }
 
 interface EngagementProjectRepositoryInternal {
@@ -70,4 +106,8 @@ interface EngagementProjectRepositoryInternal {
     Flux<EngagementProject> findByCriteria(EngagementProjectCriteria criteria, Pageable pageable);
 
     Mono<Long> countByCriteria(EngagementProjectCriteria criteria);
+
+    Mono<EngagementStatusProjection> findEngagementStatus(String userId, Long projectId);
+
+    Flux<ProjectEngagementStatusProjection> findEngagementStatuses(String userId, Long[] projectIds);
 }
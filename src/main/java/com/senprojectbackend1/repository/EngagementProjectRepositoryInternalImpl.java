@@ -50,6 +50,18 @@ class EngagementProjectRepositoryInternalImpl
     private static final Table userTable = Table.aliased("user_profile", "e_user");
     private static final Table projectTable = Table.aliased("project", "project");
 
+    // colonnes calculées : lues explicitement, une projection @Query ne remplissant que les propriétés de l'entité
+    private static final String ENGAGEMENT_STATUS =
+        "SELECT COALESCE(BOOL_OR(type = 'LIKE'), false) AS liked, COALESCE(BOOL_OR(type = 'SHARE'), false) AS shared " +
+        "FROM engagement_project WHERE user_id = :userId AND project_id = :projectId AND type IN ('LIKE', 'SHARE')";
+
+    private static final String ENGAGEMENT_STATUSES =
+        "SELECT p.id AS project_id, " +
+        "EXISTS (SELECT 1 FROM engagement_project e WHERE e.user_id = :userId AND e.project_id = p.id AND e.type = 'LIKE') AS liked, " +
+        "EXISTS (SELECT 1 FROM engagement_project e WHERE e.user_id = :userId AND e.project_id = p.id AND e.type = 'SHARE') AS shared, " +
+        "EXISTS (SELECT 1 FROM rel_project__favoritedby f WHERE f.favoritedby_id = :userId AND f.project_id = p.id) AS favorited " +
+        "FROM UNNEST(CAST(:projectIds AS bigint[])) AS p(id)";
+
     public EngagementProjectRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -82,7 +94,13 @@ class EngagementProjectRepositoryInternalImpl
         List<Expression> columns = EngagementProjectSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(UserProfileSqlHelper.getColumns(userTable, "user"));
         columns.addAll(ProjectSqlHelper.getColumns(projectTable, "project"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), EngagementProject.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(userTable)
@@ -91,9 +109,6 @@ class EngagementProjectRepositoryInternalImpl
             .leftOuterJoin(projectTable)
             .on(Column.create("project_id", entityTable))
             .equals(Column.create("id", projectTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, EngagementProject.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -126,9 +141,40 @@ class EngagementProjectRepositoryInternalImpl
 
     @Override
     public Mono<Long> countByCriteria(EngagementProjectCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
+    }
+
+    @Override
+    public Mono<EngagementStatusProjection> findEngagementStatus(String userId, Long projectId) {
+        return db
+            .sql(ENGAGEMENT_STATUS)
+            .bind("userId", userId)
+            .bind("projectId", projectId)
+            .map((row, metadata) ->
+                new EngagementStatusProjection(
+                    Boolean.TRUE.equals(row.get("liked", Boolean.class)),
+                    Boolean.TRUE.equals(row.get("shared", Boolean.class))
+                )
+            )
+            .one();
+    }
+
+    @Override
+    public Flux<ProjectEngagementStatusProjection> findEngagementStatuses(String userId, Long[] projectIds) {
+        return db
+            .sql(ENGAGEMENT_STATUSES)
+            .bind("userId", userId)
+            .bind("projectIds", projectIds)
+            .map((row, metadata) ->
+                new ProjectEngagementStatusProjection(
+                    row.get("project_id", Long.class),
+                    Boolean.TRUE.equals(row.get("liked", Boolean.class)),
+                    Boolean.TRUE.equals(row.get("shared", Boolean.class)),
+                    Boolean.TRUE.equals(row.get("favorited", Boolean.class))
+                )
+            )
+            .all();
     }
 
     private Condition buildConditions(EngagementProjectCriteria criteria) {
@@ -0,0 +1,6 @@
+package com.senprojectbackend1.repository;
+
+/**
+ * Like and share flags of a user on a project.
+ */
+public record EngagementStatusProjection(boolean liked, boolean shared) {}
@@ -85,7 +85,13 @@ class EngagementTeamRepositoryInternalImpl extends SimpleR2dbcRepository<Engagem
         List<Expression> columns = EngagementTeamSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(TeamSqlHelper.getColumns(teamTable, "team"));
         columns.addAll(UserProfileSqlHelper.getColumns(userTable, "user"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), EngagementTeam.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(teamTable)
@@ -94,9 +100,6 @@ class EngagementTeamRepositoryInternalImpl extends SimpleR2dbcRepository<Engagem
             .leftOuterJoin(userTable)
             .on(Column.create("user_id", entityTable))
             .equals(Column.create("id", userTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, EngagementTeam.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -129,9 +132,8 @@ class EngagementTeamRepositoryInternalImpl extends SimpleR2dbcRepository<Engagem
 
     @Override
     public Mono<Long> countByCriteria(EngagementTeamCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(EngagementTeamCriteria criteria) {
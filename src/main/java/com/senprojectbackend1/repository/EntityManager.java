@@ -1,26 +1,36 @@
 package com.senprojectbackend1.repository;
 
+import io.r2dbc.spi.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Expressions;
+import org.springframework.data.relational.core.sql.Functions;
 import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
 import org.springframework.r2dbc.core.Parameter;
+import org.springframework.r2dbc.core.PreparedOperation;
+import org.springframework.r2dbc.core.binding.BindTarget;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
@@ -128,6 +138,36 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Creates an SQL count statement from the given fragment, which is expected to select {@link #countColumns()}.
+     * No pagination nor ordering is applied, so the database only returns the number of matching rows.
+     * @param selectFrom a representation of a select statement, with its joins.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql count statement
+     */
+    public String createCount(SelectFromAndJoin selectFrom, Condition where) {
+        return createSelect(where != null ? selectFrom.where(where).build() : selectFrom.build());
+    }
+
+    /**
+     * Creates an SQL count statement from the given fragment, which is expected to select {@link #countColumns()}.
+     * No pagination nor ordering is applied, so the database only returns the number of matching rows.
+     * @param selectFrom a representation of a select statement, with its joins.
+     * @param where condition or null. The condition to apply as where clause.
+     * @return sql count statement
+     */
+    public String createCount(SelectFromAndJoinCondition selectFrom, Condition where) {
+        return createSelect(where != null ? selectFrom.where(where).build() : selectFrom.build());
+    }
+
+    /**
+     * The projection of a count statement: a single {@code COUNT(*)} column.
+     * @return the columns to select.
+     */
+    public static List<Expression> countColumns() {
+        return List.of(Functions.count(Expressions.asterisk()));
+    }
+
     /**
      * Generate an actual SQL from the given {@link Select}.
      * @param select a representation of a select statement.
@@ -166,6 +206,56 @@ public class EntityManager {
         return r2dbcEntityTemplate.insert(entity);
     }
 
+    /**
+     * Inserts the given entities with a single batched statement - and sets their ids, in the order of the entities.
+     * The rows are bound to the same prepared statement and sent together, so N entities cost one round trip.
+     * @param <S> the type of the persisted entities.
+     * @param entities the entities to be inserted into the database, all of the same type and without id.
+     * @return the persisted entities, in the given order.
+     */
+    public <S> Flux<S> insertAll(List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+        @SuppressWarnings("unchecked")
+        RelationalPersistentEntity<S> persistentEntity = (RelationalPersistentEntity<S>) getPersistentEntity(entities.get(0).getClass());
+        RelationalPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+        List<PreparedOperation<?>> inserts = entities
+            .stream()
+            .<PreparedOperation<?>>map(entity -> {
+                Assert.isNull(persistentEntity.getIdentifierAccessor(entity).getIdentifier(), "entity to insert has an id");
+                OutboundRow row = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(entity);
+                row.remove(idProperty.getColumnName());
+                StatementMapper.InsertSpec insert = statementMapper.createInsert(persistentEntity.getTableName());
+                for (Map.Entry<SqlIdentifier, Parameter> column : row.entrySet()) {
+                    insert = insert.withColumn(column.getKey(), column.getValue());
+                }
+                return statementMapper.getMappedObject(insert);
+            })
+            .toList();
+        String sql = inserts.get(0).toQuery();
+
+        return r2dbcEntityTemplate
+            .getDatabaseClient()
+            .inConnectionMany(connection -> {
+                Statement statement = connection.createStatement(sql).returnGeneratedValues(idProperty.getColumnName().getReference());
+                for (int i = 0; i < inserts.size(); i++) {
+                    if (i > 0) {
+                        statement.add();
+                    }
+                    inserts.get(i).bindTo(new StatementBindTarget(statement));
+                }
+                // un résultat par ligne liée, dans l'ordre des liaisons
+                return Flux.from(statement.execute()).concatMap(result -> result.map((row, metadata) -> row.get(0, idProperty.getType())));
+            })
+            .index()
+            .map(generated -> {
+                S entity = entities.get(generated.getT1().intValue());
+                persistentEntity.getPropertyAccessor(entity).setProperty(idProperty, generated.getT2());
+                return entity;
+            });
+    }
+
     /**
      * Updates the table, which links the entity with the referred entities.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
@@ -257,6 +347,28 @@ public class EntityManager {
         );
     }
 
+    private record StatementBindTarget(Statement statement) implements BindTarget {
+        @Override
+        public void bind(String identifier, Object value) {
+            statement.bind(identifier, value);
+        }
+
+        @Override
+        public void bind(int index, Object value) {
+            statement.bind(index, value);
+        }
+
+        @Override
+        public void bindNull(String identifier, Class<?> type) {
+            statement.bindNull(identifier, type);
+        }
+
+        @Override
+        public void bindNull(int index, Class<?> type) {
+            statement.bindNull(index, type);
+        }
+    }
+
     /**
      * Converts a camel case string to snake case.
      *
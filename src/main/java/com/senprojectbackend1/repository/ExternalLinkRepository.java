@@ -5,6 +5,7 @@ import com.senprojectbackend1.domain.criteria.ExternalLinkCriteria;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -27,6 +28,9 @@ public interface ExternalLinkRepository extends ReactiveCrudRepository<ExternalL
     @Override
     <S extends ExternalLink> Mono<S> save(S entity);
 
+    @Override
+    <S extends ExternalLink> Flux<S> saveAll(Iterable<S> entities);
+
     @Override
     Flux<ExternalLink> findAll();
 
@@ -36,6 +40,27 @@ public interface ExternalLinkRepository extends ReactiveCrudRepository<ExternalL
     @Override
     Mono<Void> deleteById(Long id);
 
+    @Query("SELECT * FROM external_link WHERE project_id = :projectId ORDER BY id")
+    Flux<ExternalLink> findByProjectIdOrdered(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(
+        "UPDATE external_link l SET title = u.title, url = u.url, type = u.type " +
+        "FROM unnest(CAST(:ids AS bigint[]), CAST(:titles AS varchar[]), CAST(:urls AS varchar[]), CAST(:types AS varchar[])) " +
+        "AS u(id, title, url, type) " +
+        "WHERE l.id = u.id"
+    )
+    Mono<Long> updateAll(
+        @Param("ids") Long[] ids,
+        @Param("titles") String[] titles,
+        @Param("urls") String[] urls,
+        @Param("types") String[] types
+    );
+
+    @Modifying
+    @Query("DELETE FROM external_link WHERE id = ANY(CAST(:ids AS bigint[]))")
+    Mono<Long> deleteByIds(@Param("ids") Long[] ids);
+
     @Modifying
     @Query("DELETE FROM external_link WHERE project_id = :projectId")
     reactor.core.publisher.Mono<Void> deleteByProjectId(@org.springframework.data.repository.query.Param("projectId") Long projectId);
@@ -44,6 +69,8 @@ public interface ExternalLinkRepository extends ReactiveCrudRepository<ExternalL
 interface ExternalLinkRepositoryInternal {
     <S extends ExternalLink> Mono<S> save(S entity);
 
+    <S extends ExternalLink> Flux<S> saveAll(Iterable<S> entities);
+
     Flux<ExternalLink> findAllBy(Pageable pageable);
 
     Flux<ExternalLink> findAll();
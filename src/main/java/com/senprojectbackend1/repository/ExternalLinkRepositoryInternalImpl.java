@@ -79,15 +79,18 @@ class ExternalLinkRepositoryInternalImpl extends SimpleR2dbcRepository<ExternalL
     RowsFetchSpec<ExternalLink> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = ExternalLinkSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(ProjectSqlHelper.getColumns(projectTable, "project"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), ExternalLink.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(projectTable)
             .on(Column.create("project_id", entityTable))
             .equals(Column.create("id", projectTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, ExternalLink.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -112,6 +115,17 @@ class ExternalLinkRepositoryInternalImpl extends SimpleR2dbcRepository<ExternalL
         return super.save(entity);
     }
 
+    /**
+     * Inserts the new links with a single batched statement, then updates the others one by one.
+     */
+    @Override
+    public <S extends ExternalLink> Flux<S> saveAll(Iterable<S> entities) {
+        List<S> toInsert = new ArrayList<>();
+        List<S> toUpdate = new ArrayList<>();
+        entities.forEach(entity -> (entity.getId() == null ? toInsert : toUpdate).add(entity));
+        return entityManager.insertAll(toInsert).concatWith(Flux.fromIterable(toUpdate).concatMap(super::save));
+    }
+
     @Override
     public Flux<ExternalLink> findByCriteria(ExternalLinkCriteria externalLinkCriteria, Pageable page) {
         return createQuery(page, buildConditions(externalLinkCriteria)).all();
@@ -119,9 +133,8 @@ class ExternalLinkRepositoryInternalImpl extends SimpleR2dbcRepository<ExternalL
 
     @Override
     public Mono<Long> countByCriteria(ExternalLinkCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(ExternalLinkCriteria criteria) {
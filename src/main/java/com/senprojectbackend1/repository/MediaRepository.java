@@ -0,0 +1,36 @@
+package com.senprojectbackend1.repository;
+
+import com.senprojectbackend1.domain.Media;
+import java.time.Instant;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the uploaded media.
+ */
+@Repository
+public interface MediaRepository extends ReactiveCrudRepository<Media, String> {
+    // l'identifiant est attribué par le service : save() ferait un UPDATE
+    @Query(
+        "INSERT INTO media (id, url, thumbnail_url, card_url, full_url, content_type, size, created_by, created_at) " +
+        "VALUES (:id, :url, :thumbnailUrl, :cardUrl, :fullUrl, :contentType, :size, :createdBy, :createdAt) RETURNING *"
+    )
+    Mono<Media> insert(
+        @Param("id") String id,
+        @Param("url") String url,
+        @Param("thumbnailUrl") String thumbnailUrl,
+        @Param("cardUrl") String cardUrl,
+        @Param("fullUrl") String fullUrl,
+        @Param("contentType") String contentType,
+        @Param("size") long size,
+        @Param("createdBy") String createdBy,
+        @Param("createdAt") Instant createdAt
+    );
+
+    @Query("SELECT * FROM media WHERE id = ANY(CAST(:ids AS varchar[])) AND created_by = :createdBy")
+    Flux<Media> findAllByIdsAndCreatedBy(@Param("ids") String[] ids, @Param("createdBy") String createdBy);
+}
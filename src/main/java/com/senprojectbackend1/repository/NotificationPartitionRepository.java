@@ -0,0 +1,168 @@
+package com.senprojectbackend1.repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Monthly partitions of the notification table, named {@code notification_yyyy_MM} and covering the notifications
+ * created during that month (UTC). The notifications outside every monthly partition go to {@code notification_default}.
+ */
+@Component
+public class NotificationPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "notification_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String PARTITION_NAMES =
+        "SELECT c.relname AS name FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+        "WHERE i.inhparent = to_regclass('notification')";
+
+    private final DatabaseClient db;
+
+    public NotificationPartitionRepository(R2dbcEntityTemplate template) {
+        this.db = template.getDatabaseClient();
+    }
+
+    /**
+     * Creates the partition of a month, unless it exists. Fails if the default partition already holds notifications
+     * of that month: see {@link #createMonthlyPartitionFromDefault(YearMonth)}.
+     */
+    public Mono<Void> createMonthlyPartition(YearMonth month) {
+        // pas de paramètres liés dans le DDL : les bornes viennent d'un YearMonth, jamais d'une saisie
+        return db
+            .sql(
+                "CREATE TABLE IF NOT EXISTS " +
+                partitionName(month) +
+                " PARTITION OF notification FOR VALUES FROM ('" +
+                month.atDay(1) +
+                "') TO ('" +
+                month.plusMonths(1).atDay(1) +
+                "')"
+            )
+            .then();
+    }
+
+    /**
+     * @return the number of notifications of a month held by the default partition, for want of a partition of that month.
+     */
+    public Mono<Long> countInDefaultPartition(YearMonth month) {
+        return db
+            .sql("SELECT COUNT(*) AS count FROM notification_default WHERE created_at >= :from AND created_at < :to")
+            .bind("from", month.atDay(1).atStartOfDay())
+            .bind("to", month.plusMonths(1).atDay(1).atStartOfDay())
+            .map(row -> row.get("count", Long.class))
+            .one();
+    }
+
+    /**
+     * Creates the partition of a month holding the notifications of that month moved out of the default partition.
+     * Must run in a transaction: the notifications moved are never missing nor duplicated for other sessions.
+     *
+     * @return the number of notifications moved.
+     */
+    public Mono<Long> createMonthlyPartitionFromDefault(YearMonth month) {
+        String partition = partitionName(month);
+        String from = "'" + month.atDay(1) + "'";
+        String to = "'" + month.plusMonths(1).atDay(1) + "'";
+        // la table est remplie avant d'être attachée : l'attacher ne valide alors plus la partition par défaut qu'une fois vidée
+        return db
+            .sql("CREATE TABLE " + partition + " (LIKE notification INCLUDING DEFAULTS INCLUDING CONSTRAINTS)")
+            .then()
+            .then(
+                db
+                    .sql(
+                        "WITH moved AS (DELETE FROM notification_default WHERE created_at >= " +
+                        from +
+                        " AND created_at < " +
+                        to +
+                        " RETURNING *) INSERT INTO " +
+                        partition +
+                        " SELECT * FROM moved"
+                    )
+                    .fetch()
+                    .rowsUpdated()
+            )
+            .flatMap(moved ->
+                db
+                    .sql("ALTER TABLE notification ATTACH PARTITION " + partition + " FOR VALUES FROM (" + from + ") TO (" + to + ")")
+                    .then()
+                    .thenReturn(moved)
+            );
+    }
+
+    /**
+     * @return the months having a partition, in no particular order.
+     */
+    public Flux<YearMonth> findMonthlyPartitions() {
+        return db
+            .sql(PARTITION_NAMES)
+            .map(row -> row.get("name", String.class))
+            .all()
+            .handle((name, sink) -> {
+                YearMonth month = monthOf(name);
+                if (month != null) {
+                    sink.next(month);
+                }
+            });
+    }
+
+    /**
+     * Drops the partition of a month if it holds no notification, once detached from the notification table. Must not run
+     * in a transaction: the detachment is concurrent whenever PostgreSQL allows it.
+     *
+     * @return whether the partition was dropped.
+     */
+    public Mono<Boolean> dropMonthlyPartitionIfEmpty(YearMonth month) {
+        String partition = partitionName(month);
+        return db
+            .sql("SELECT EXISTS (SELECT 1 FROM " + partition + ") AS not_empty")
+            .map(row -> Boolean.TRUE.equals(row.get("not_empty", Boolean.class)))
+            .one()
+            .flatMap(notEmpty ->
+                notEmpty ? Mono.just(false) : detach(partition).then(db.sql("DROP TABLE " + partition).then()).thenReturn(true)
+            );
+    }
+
+    // supprimer une partition attachée verrouille notification en ACCESS EXCLUSIVE ; une fois détachée, ce n'est plus
+    // qu'une table isolée, et seul le détachement touche notification
+    private Mono<Void> detach(String partition) {
+        return db
+            .sql(
+                "SELECT i.inhdetachpending AS pending, p.partdefid <> 0 AS has_default FROM pg_inherits i " +
+                "JOIN pg_partitioned_table p ON p.partrelid = i.inhparent WHERE i.inhrelid = to_regclass(:partition)"
+            )
+            .bind("partition", partition)
+            .map(row -> {
+                if (Boolean.TRUE.equals(row.get("pending", Boolean.class))) {
+                    // détachement concurrent interrompu : il ne reste qu'à le terminer
+                    return " FINALIZE";
+                }
+                // CONCURRENTLY ne bloque ni lectures ni écritures, mais PostgreSQL le refuse tant qu'une partition par
+                // défaut existe : le détachement simple attend alors les requêtes en cours, comme DROP TABLE
+                return Boolean.TRUE.equals(row.get("has_default", Boolean.class)) ? "" : " CONCURRENTLY";
+            })
+            .one()
+            .flatMap(mode -> db.sql("ALTER TABLE notification DETACH PARTITION " + partition + mode).then());
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth monthOf(String partitionName) {
+        if (partitionName == null || !partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.senprojectbackend1.repository;
 import com.senprojectbackend1.domain.Notification;
 import com.senprojectbackend1.domain.criteria.NotificationCriteria;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
+import java.time.Instant;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -28,6 +30,9 @@ public interface NotificationRepository extends ReactiveCrudRepository<Notificat
     @Override
     <S extends Notification> Mono<S> save(S entity);
 
+    @Override
+    <S extends Notification> Flux<S> saveAll(Iterable<S> entities);
+
     @Override
     Flux<Notification> findAll();
 
@@ -40,8 +45,25 @@ public interface NotificationRepository extends ReactiveCrudRepository<Notificat
     @Query("SELECT * FROM notification WHERE user_id = :userId AND read_at IS NULL ORDER BY created_at DESC")
     Flux<Notification> findByUserIdAndReadAtIsNull(String userId);
 
-    @Query("SELECT * FROM notification WHERE user_id = :userId ORDER BY created_at DESC")
-    Flux<Notification> findByUserIdOrderByCreatedAtDesc(String userId);
+    @Query("SELECT * FROM notification WHERE user_id = :userId ORDER BY created_at DESC, id DESC LIMIT :limit")
+    Flux<Notification> findInboxPage(@Param("userId") String userId, @Param("limit") int limit);
+
+    /**
+     * The next page of the inbox: the {@code limit} notifications following, from the newest to the oldest, the one
+     * created at {@code afterCreatedAt} with id {@code afterId}. Served by an index range scan whatever the page.
+     */
+    @Query(
+        "SELECT * FROM notification WHERE user_id = :userId " +
+        "AND (created_at, id) < (:afterCreatedAt, :afterId) " +
+        "ORDER BY created_at DESC, id DESC " +
+        "LIMIT :limit"
+    )
+    Flux<Notification> findInboxPageAfter(
+        @Param("userId") String userId,
+        @Param("afterCreatedAt") Instant afterCreatedAt,
+        @Param("afterId") Long afterId,
+        @Param("limit") int limit
+    );
 
     @Query("SELECT * FROM notification WHERE user_id = :userId ORDER BY created_at DESC LIMIT :limit")
     Flux<Notification> findRecentNotificationsByUserId(String userId, int limit);
@@ -49,9 +71,74 @@ public interface NotificationRepository extends ReactiveCrudRepository<Notificat
     @Query("SELECT * FROM notification WHERE user_id = :userId ORDER BY created_at DESC")
     Flux<Notification> findByUserId(String userId, Pageable pageable);
 
+    @Query("SELECT * FROM notification WHERE user_id = :userId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Notification> findByUserIdAfterId(@Param("userId") String userId, @Param("afterId") Long afterId, @Param("limit") int limit);
+
     @Query("SELECT COUNT(*) FROM notification WHERE user_id = :userId AND read_at IS NULL")
     Mono<Long> countUnreadByUserId(String userId);
 
+    @Query(
+        "INSERT INTO notification (content, created_at, type, entity_id, action, user_id) " +
+        "SELECT :content, :createdAt, :type, :entityId, :action, rtm.members_id FROM rel_team__members rtm " +
+        "WHERE rtm.team_id = :teamId AND rtm.status = 'ACCEPTED' " +
+        "RETURNING *"
+    )
+    Flux<Notification> insertForAcceptedTeamMembers(
+        @Param("teamId") Long teamId,
+        @Param("content") String content,
+        @Param("createdAt") Instant createdAt,
+        @Param("type") NotificationType type,
+        @Param("entityId") String entityId,
+        @Param("action") String action
+    );
+
+    /**
+     * Inserts the notification for the next {@code limit} users, by id, after {@code afterUserId}, in one statement.
+     * Called repeatedly with the returned last user id, it walks the whole user table in bounded chunks.
+     */
+    Mono<BroadcastChunkProjection> insertForUsersAfter(
+        String afterUserId,
+        int limit,
+        String content,
+        Instant createdAt,
+        NotificationType type,
+        String entityId,
+        String action
+    );
+
+    /**
+     * Marks a notification as read, unless it already is.
+     *
+     * @return the notification marked as read, or empty if it does not exist or was already read.
+     */
+    @Query("UPDATE notification SET read_at = :readAt WHERE id = :id AND read_at IS NULL RETURNING *")
+    Mono<Notification> markAsReadIfUnread(@Param("id") Long id, @Param("readAt") Instant readAt);
+
+    /**
+     * @return the notification deleted, or empty if it did not exist.
+     */
+    @Query("DELETE FROM notification WHERE id = :id RETURNING *")
+    Mono<Notification> deleteByIdReturning(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE notification SET read_at = :readAt WHERE user_id = :userId AND read_at IS NULL")
+    Mono<Long> markAllAsReadByUserId(@Param("userId") String userId, @Param("readAt") Instant readAt);
+
+    /**
+     * Deletes at most {@code limit} read notifications created before {@code cutoff}, and returns them. Only the
+     * partitions older than the cutoff are scanned.
+     */
+    @Query(
+        "WITH batch AS (SELECT id, created_at FROM notification " +
+        "WHERE read_at IS NOT NULL AND created_at < :cutoff LIMIT :limit) " +
+        "DELETE FROM notification n USING batch b WHERE n.id = b.id AND n.created_at = b.created_at " +
+        "RETURNING n.*"
+    )
+    Flux<Notification> deleteReadCreatedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("SELECT created_at FROM notification WHERE read_at IS NOT NULL AND created_at < :cutoff ORDER BY created_at LIMIT 1")
+    Mono<Instant> findOldestReadCreatedBefore(@Param("cutoff") Instant cutoff);
+
     @Modifying
     @Query("DELETE FROM notification WHERE user_id = :userId AND entity_id = :entityId AND type = :type")
     Mono<Void> deleteByUserIdAndEntityIdAndType(String userId, String entityId, NotificationType type);
@@ -60,6 +147,8 @@ public interface NotificationRepository extends ReactiveCrudRepository<Notificat
 interface NotificationRepositoryInternal {
     <S extends Notification> Mono<S> save(S entity);
 
+    <S extends Notification> Flux<S> saveAll(Iterable<S> entities);
+
     Flux<Notification> findAllBy(Pageable pageable);
 
     Flux<Notification> findAll();
@@ -70,4 +159,14 @@ interface NotificationRepositoryInternal {
     Flux<Notification> findByCriteria(NotificationCriteria criteria, Pageable pageable);
 
     Mono<Long> countByCriteria(NotificationCriteria criteria);
+
+    Mono<BroadcastChunkProjection> insertForUsersAfter(
+        String afterUserId,
+        int limit,
+        String content,
+        Instant createdAt,
+        NotificationType type,
+        String entityId,
+        String action
+    );
 }
@@ -2,11 +2,13 @@ package com.senprojectbackend1.repository;
 
 import com.senprojectbackend1.domain.Notification;
 import com.senprojectbackend1.domain.criteria.NotificationCriteria;
+import com.senprojectbackend1.domain.enumeration.NotificationType;
 import com.senprojectbackend1.repository.rowmapper.ColumnConverter;
 import com.senprojectbackend1.repository.rowmapper.NotificationRowMapper;
 import com.senprojectbackend1.repository.rowmapper.UserProfileRowMapper;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +26,7 @@ import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJ
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
 import org.springframework.r2dbc.core.RowsFetchSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -46,6 +49,14 @@ class NotificationRepositoryInternalImpl extends SimpleR2dbcRepository<Notificat
     private static final Table entityTable = Table.aliased("notification", EntityManager.ENTITY_ALIAS);
     private static final Table userTable = Table.aliased("user_profile", "e_user");
 
+    // colonnes calculées : lues explicitement, une projection @Query ne remplissant que les propriétés de l'entité
+    private static final String INSERT_FOR_USERS_AFTER =
+        "WITH batch AS (SELECT id FROM user_profile WHERE id > :afterUserId ORDER BY id LIMIT :limit), " +
+        "ins AS (INSERT INTO notification (content, created_at, type, entity_id, action, user_id) " +
+        "SELECT :content, :createdAt, :type, :entityId, :action, b.id FROM batch b RETURNING id, user_id) " +
+        "SELECT (SELECT MAX(id) FROM batch) AS last_user_id, (SELECT COUNT(*) FROM ins) AS inserted, " +
+        "(SELECT array_agg(user_id ORDER BY id) FROM ins) AS user_ids, (SELECT array_agg(id ORDER BY id) FROM ins) AS notification_ids";
+
     public NotificationRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -76,15 +87,18 @@ class NotificationRepositoryInternalImpl extends SimpleR2dbcRepository<Notificat
     RowsFetchSpec<Notification> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = NotificationSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(UserProfileSqlHelper.getColumns(userTable, "user"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), Notification.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(userTable)
             .on(Column.create("user_id", entityTable))
             .equals(Column.create("id", userTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Notification.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -109,6 +123,17 @@ class NotificationRepositoryInternalImpl extends SimpleR2dbcRepository<Notificat
         return super.save(entity);
     }
 
+    /**
+     * Inserts the new notifications with a single batched statement, then updates the others one by one.
+     */
+    @Override
+    public <S extends Notification> Flux<S> saveAll(Iterable<S> entities) {
+        List<S> toInsert = new ArrayList<>();
+        List<S> toUpdate = new ArrayList<>();
+        entities.forEach(entity -> (entity.getId() == null ? toInsert : toUpdate).add(entity));
+        return entityManager.insertAll(toInsert).concatWith(Flux.fromIterable(toUpdate).concatMap(super::save));
+    }
+
     @Override
     public Flux<Notification> findByCriteria(NotificationCriteria notificationCriteria, Pageable page) {
         return createQuery(page, buildConditions(notificationCriteria)).all();
@@ -116,9 +141,40 @@ class NotificationRepositoryInternalImpl extends SimpleR2dbcRepository<Notificat
 
     @Override
     public Mono<Long> countByCriteria(NotificationCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
+    }
+
+    @Override
+    public Mono<BroadcastChunkProjection> insertForUsersAfter(
+        String afterUserId,
+        int limit,
+        String content,
+        Instant createdAt,
+        NotificationType type,
+        String entityId,
+        String action
+    ) {
+        return db
+            .sql(INSERT_FOR_USERS_AFTER)
+            .bind("afterUserId", afterUserId)
+            .bind("limit", limit)
+            .bind("content", Parameter.fromOrEmpty(content, String.class))
+            .bind("createdAt", createdAt)
+            .bind("type", Parameter.fromOrEmpty(type != null ? type.name() : null, String.class))
+            .bind("entityId", Parameter.fromOrEmpty(entityId, String.class))
+            .bind("action", Parameter.fromOrEmpty(action, String.class))
+            .map((row, metadata) -> {
+                String[] userIds = row.get("user_ids", String[].class);
+                Long[] notificationIds = row.get("notification_ids", Long[].class);
+                return new BroadcastChunkProjection(
+                    row.get("last_user_id", String.class),
+                    row.get("inserted", Long.class),
+                    userIds != null ? List.of(userIds) : List.of(),
+                    notificationIds != null ? List.of(notificationIds) : List.of()
+                );
+            })
+            .one();
     }
 
     private Condition buildConditions(NotificationCriteria criteria) {
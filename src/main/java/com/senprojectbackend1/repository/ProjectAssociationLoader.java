@@ -0,0 +1,126 @@
+package com.senprojectbackend1.repository;
+
+import com.senprojectbackend1.domain.Project;
+import com.senprojectbackend1.domain.Tag;
+import com.senprojectbackend1.domain.Team;
+import com.senprojectbackend1.repository.rowmapper.ColumnConverter;
+import com.senprojectbackend1.repository.rowmapper.TagRowMapper;
+import com.senprojectbackend1.repository.rowmapper.TeamRowMapper;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Loads the tags and the team of a list of projects with one query per association,
+ * instead of one query per project and association.
+ */
+@Component
+public class ProjectAssociationLoader {
+
+    private static final String TAGS_BY_PROJECT_IDS =
+        "SELECT rpt.project_id AS link_project_id, t.id AS tag_id, t.name AS tag_name, t.color AS tag_color, " +
+        "t.is_forbidden AS tag_is_forbidden, t.created_by AS tag_created_by " +
+        "FROM rel_project__tags rpt JOIN tag t ON t.id = rpt.tags_id " +
+        "WHERE rpt.project_id = ANY(:projectIds)";
+
+    private static final String TEAMS_BY_IDS =
+        "SELECT t.id AS team_id, t.name AS team_name, t.description AS team_description, t.logo AS team_logo, " +
+        "t.created_at AS team_created_at, t.updated_at AS team_updated_at, t.visibility AS team_visibility, " +
+        "t.total_likes AS team_total_likes, t.is_deleted AS team_is_deleted, t.created_by AS team_created_by, " +
+        "t.last_updated_by AS team_last_updated_by " +
+        "FROM team t WHERE t.id = ANY(:teamIds)";
+
+    private final DatabaseClient db;
+    private final TagRowMapper tagMapper;
+    private final TeamRowMapper teamMapper;
+    private final ColumnConverter columnConverter;
+
+    public ProjectAssociationLoader(
+        R2dbcEntityTemplate template,
+        TagRowMapper tagMapper,
+        TeamRowMapper teamMapper,
+        ColumnConverter columnConverter
+    ) {
+        this.db = template.getDatabaseClient();
+        this.tagMapper = tagMapper;
+        this.teamMapper = teamMapper;
+        this.columnConverter = columnConverter;
+    }
+
+    /**
+     * Collects the given projects, sets their tags and team, and emits them again in their original order.
+     * @param projects the projects to complete.
+     * @return the same projects, with {@link Project#getTags()} and {@link Project#getTeam()} filled.
+     */
+    public Flux<Project> withTagsAndTeam(Flux<Project> projects) {
+        return projects.collectList().flatMapMany(this::withTagsAndTeam);
+    }
+
+    /**
+     * Sets the tags and the team of the given projects, using two queries whatever the number of projects.
+     * @param projects the projects to complete.
+     * @return the same projects, in the same order, with {@link Project#getTags()} and {@link Project#getTeam()} filled.
+     */
+    public Flux<Project> withTagsAndTeam(List<Project> projects) {
+        if (projects.isEmpty()) {
+            return Flux.empty();
+        }
+        Set<Long> projectIds = projects.stream().map(Project::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> teamIds = projects.stream().map(Project::getTeamId).filter(Objects::nonNull).collect(Collectors.toSet());
+        return Mono.zip(findTagsByProjectIds(projectIds), findTeamsByIds(teamIds)).flatMapMany(tuple -> {
+            Map<Long, Set<Tag>> tagsByProject = tuple.getT1();
+            Map<Long, Team> teamsById = tuple.getT2();
+            for (Project project : projects) {
+                project.setTags(new HashSet<>(tagsByProject.getOrDefault(project.getId(), Set.of())));
+                Team team = project.getTeamId() != null ? teamsById.get(project.getTeamId()) : null;
+                if (team != null) {
+                    project.setTeam(team);
+                }
+            }
+            return Flux.fromIterable(projects);
+        });
+    }
+
+    /**
+     * Fetches the tags of several projects at once.
+     * @param projectIds the ids of the projects.
+     * @return the tags of each project, keyed by project id; projects without tags are absent.
+     */
+    public Mono<Map<Long, Set<Tag>>> findTagsByProjectIds(Collection<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return db
+            .sql(TAGS_BY_PROJECT_IDS)
+            .bind("projectIds", projectIds.toArray(new Long[0]))
+            .map((row, metadata) -> Map.entry(columnConverter.fromRow(row, "link_project_id", Long.class), tagMapper.apply(row, "tag")))
+            .all()
+            .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toSet())));
+    }
+
+    /**
+     * Fetches several teams at once.
+     * @param teamIds the ids of the teams.
+     * @return the teams keyed by id.
+     */
+    public Mono<Map<Long, Team>> findTeamsByIds(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return db
+            .sql(TEAMS_BY_IDS)
+            .bind("teamIds", teamIds.toArray(new Long[0]))
+            .map((row, metadata) -> teamMapper.apply(row, "team"))
+            .all()
+            .collectMap(Team::getId);
+    }
+}
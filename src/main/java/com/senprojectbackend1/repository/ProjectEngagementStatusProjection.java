@@ -0,0 +1,6 @@
+package com.senprojectbackend1.repository;
+
+/**
+ * Like, share and favorite flags of a user on one project.
+ */
+public record ProjectEngagementStatusProjection(Long projectId, boolean liked, boolean shared, boolean favorited) {}
@@ -5,6 +5,7 @@ import com.senprojectbackend1.domain.criteria.ProjectGalleryCriteria;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -27,6 +28,9 @@ public interface ProjectGalleryRepository extends ReactiveCrudRepository<Project
     @Override
     <S extends ProjectGallery> Mono<S> save(S entity);
 
+    @Override
+    <S extends ProjectGallery> Flux<S> saveAll(Iterable<S> entities);
+
     @Override
     Flux<ProjectGallery> findAll();
 
@@ -36,6 +40,31 @@ public interface ProjectGalleryRepository extends ReactiveCrudRepository<Project
     @Override
     Mono<Void> deleteById(Long id);
 
+    @Query("SELECT * FROM project_gallery WHERE project_id = :projectId ORDER BY jhi_order, id")
+    Flux<ProjectGallery> findByProjectIdOrdered(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(
+        "UPDATE project_gallery g SET image_url = u.image_url, thumbnail_url = u.thumbnail_url, card_url = u.card_url, " +
+        "description = u.description, jhi_order = u.jhi_order " +
+        "FROM unnest(CAST(:ids AS bigint[]), CAST(:imageUrls AS varchar[]), CAST(:thumbnailUrls AS varchar[]), " +
+        "CAST(:cardUrls AS varchar[]), CAST(:descriptions AS varchar[]), CAST(:orders AS integer[])) " +
+        "AS u(id, image_url, thumbnail_url, card_url, description, jhi_order) " +
+        "WHERE g.id = u.id"
+    )
+    Mono<Long> updateAll(
+        @Param("ids") Long[] ids,
+        @Param("imageUrls") String[] imageUrls,
+        @Param("thumbnailUrls") String[] thumbnailUrls,
+        @Param("cardUrls") String[] cardUrls,
+        @Param("descriptions") String[] descriptions,
+        @Param("orders") Integer[] orders
+    );
+
+    @Modifying
+    @Query("DELETE FROM project_gallery WHERE id = ANY(CAST(:ids AS bigint[]))")
+    Mono<Long> deleteByIds(@Param("ids") Long[] ids);
+
     @Modifying
     @Query("DELETE FROM project_gallery WHERE project_id = :projectId")
     reactor.core.publisher.Mono<Void> deleteByProjectId(@org.springframework.data.repository.query.Param("projectId") Long projectId);
@@ -44,6 +73,8 @@ public interface ProjectGalleryRepository extends ReactiveCrudRepository<Project
 interface ProjectGalleryRepositoryInternal {
     <S extends ProjectGallery> Mono<S> save(S entity);
 
+    <S extends ProjectGallery> Flux<S> saveAll(Iterable<S> entities);
+
     Flux<ProjectGallery> findAllBy(Pageable pageable);
 
     Flux<ProjectGallery> findAll();
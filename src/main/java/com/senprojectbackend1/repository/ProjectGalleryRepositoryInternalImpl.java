@@ -76,15 +76,18 @@ class ProjectGalleryRepositoryInternalImpl extends SimpleR2dbcRepository<Project
     RowsFetchSpec<ProjectGallery> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = ProjectGallerySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(ProjectSqlHelper.getColumns(projectTable, "project"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), ProjectGallery.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(projectTable)
             .on(Column.create("project_id", entityTable))
             .equals(Column.create("id", projectTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, ProjectGallery.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -109,6 +112,17 @@ class ProjectGalleryRepositoryInternalImpl extends SimpleR2dbcRepository<Project
         return super.save(entity);
     }
 
+    /**
+     * Inserts the new images with a single batched statement, then updates the others one by one.
+     */
+    @Override
+    public <S extends ProjectGallery> Flux<S> saveAll(Iterable<S> entities) {
+        List<S> toInsert = new ArrayList<>();
+        List<S> toUpdate = new ArrayList<>();
+        entities.forEach(entity -> (entity.getId() == null ? toInsert : toUpdate).add(entity));
+        return entityManager.insertAll(toInsert).concatWith(Flux.fromIterable(toUpdate).concatMap(super::save));
+    }
+
     @Override
     public Flux<ProjectGallery> findByCriteria(ProjectGalleryCriteria projectGalleryCriteria, Pageable page) {
         return createQuery(page, buildConditions(projectGalleryCriteria)).all();
@@ -116,9 +130,8 @@ class ProjectGalleryRepositoryInternalImpl extends SimpleR2dbcRepository<Project
 
     @Override
     public Mono<Long> countByCriteria(ProjectGalleryCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(ProjectGalleryCriteria criteria) {
@@ -12,6 +12,8 @@ public class ProjectGallerySqlHelper {
         List<Expression> columns = new ArrayList<>();
         columns.add(Column.aliased("id", table, columnPrefix + "_id"));
         columns.add(Column.aliased("image_url", table, columnPrefix + "_image_url"));
+        columns.add(Column.aliased("thumbnail_url", table, columnPrefix + "_thumbnail_url"));
+        columns.add(Column.aliased("card_url", table, columnPrefix + "_card_url"));
         columns.add(Column.aliased("description", table, columnPrefix + "_description"));
         columns.add(Column.aliased("jhi_order", table, columnPrefix + "_jhi_order"));
 
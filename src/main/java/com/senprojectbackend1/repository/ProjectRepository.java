@@ -6,7 +6,10 @@ import com.senprojectbackend1.domain.Tag;
 import com.senprojectbackend1.domain.criteria.ProjectCriteria;
 import com.senprojectbackend1.service.dto.ProjectSimple2DTO;
 import com.senprojectbackend1.service.dto.TagDTO;
+import java.time.Instant;
+import java.util.Collection;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -105,6 +108,12 @@ public interface ProjectRepository extends ReactiveCrudRepository<Project, Long>
     )
     Flux<Long> findProjectIdsByTeamMemberId(String userId);
 
+    @Query(
+        "SELECT p.* FROM project p " +
+        "WHERE p.team_id IN (SELECT rtm.team_id FROM rel_team__members rtm WHERE rtm.members_id = :userId)"
+    )
+    Flux<Project> findDistinctByTeamMemberId(@Param("userId") String userId);
+
     @Query(
         "SELECT p.* FROM project p " + "JOIN rel_project__favoritedby rpf ON p.id = rpf.project_id " + "WHERE rpf.favoritedby_id = :userId"
     )
@@ -114,7 +123,7 @@ public interface ProjectRepository extends ReactiveCrudRepository<Project, Long>
     Flux<Tag> findTagsByProjectId(@Param("projectId") Long projectId);
 
     @Query(
-        "SELECT p.id, p.title, p.description, p.showcase, p.status, p.created_at, " +
+        "SELECT p.id, p.title, p.description, p.showcase, p.showcase_thumbnail_url, p.showcase_card_url, p.status, p.created_at, " +
         "p.open_to_collaboration, p.open_to_funding, p.type, p.total_likes, " +
         "p.total_shares, p.total_views, p.total_comments, p.total_favorites " +
         "FROM project p " +
@@ -153,17 +162,65 @@ public interface ProjectRepository extends ReactiveCrudRepository<Project, Long>
     @Query("UPDATE project SET total_likes = total_likes - 1 WHERE id = :id")
     Mono<Void> decrementTotalLikes(@Param("id") Long id);
 
+    /**
+     * Applies counter deltas to several projects in one statement: the arrays are aligned, index i holding the deltas of ids[i].
+     */
+    @Modifying
+    @Query(
+        "UPDATE project p SET " +
+        "total_views = GREATEST(COALESCE(p.total_views, 0) + d.views, 0), " +
+        "total_likes = GREATEST(COALESCE(p.total_likes, 0) + d.likes, 0), " +
+        "total_shares = GREATEST(COALESCE(p.total_shares, 0) + d.shares, 0), " +
+        "total_favorites = GREATEST(COALESCE(p.total_favorites, 0) + d.favorites, 0) " +
+        "FROM UNNEST(CAST(:ids AS bigint[]), CAST(:views AS integer[]), CAST(:likes AS integer[]), " +
+        "CAST(:shares AS integer[]), CAST(:favorites AS integer[])) AS d(id, views, likes, shares, favorites) " +
+        "WHERE p.id = d.id"
+    )
+    Mono<Long> applyCounterDeltas(
+        @Param("ids") Long[] ids,
+        @Param("views") Integer[] views,
+        @Param("likes") Integer[] likes,
+        @Param("shares") Integer[] shares,
+        @Param("favorites") Integer[] favorites
+    );
+
     @Query("UPDATE project SET status = 'DELETED' WHERE id = :id")
     Mono<Void> updateProjectStatusToDeleted(@Param("id") Long id);
 
     @Query(
         "SELECT * FROM project " +
         "WHERE status = 'PUBLISHED' AND is_deleted = false " +
-        "ORDER BY (total_views + total_likes + total_favorites) DESC " +
+        "ORDER BY popularity_score DESC, id DESC " +
         "LIMIT 10"
     )
     Flux<Project> findTopPopularProjects();
 
+    /**
+     * Page of the popularity ranking, read from the {@code idx_project_popularity_published} index.
+     */
+    @Query(
+        "SELECT * FROM project " +
+        "WHERE status = 'PUBLISHED' AND is_deleted = false " +
+        "ORDER BY popularity_score DESC, id DESC " +
+        "LIMIT :limit OFFSET :offset"
+    )
+    Flux<Project> findPopularPage(@Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Keyset page of the popularity ranking: the projects ranked strictly after ({@code afterScore}, {@code afterId}).
+     */
+    @Query(
+        "SELECT * FROM project " +
+        "WHERE status = 'PUBLISHED' AND is_deleted = false " +
+        "AND (popularity_score, id) < (:afterScore, :afterId) " +
+        "ORDER BY popularity_score DESC, id DESC " +
+        "LIMIT :limit"
+    )
+    Flux<Project> findPopularAfter(@Param("afterScore") int afterScore, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(*) FROM project WHERE status = 'PUBLISHED' AND is_deleted = false")
+    Mono<Long> countPopular();
+
     @Query(
         "SELECT p.* FROM project p " +
         "JOIN rel_project__tags rpt ON p.id = rpt.project_id " +
@@ -181,6 +238,50 @@ public interface ProjectRepository extends ReactiveCrudRepository<Project, Long>
     )
     Mono<Long> countByTagName(@Param("tagName") String tagName);
 
+    /**
+     * Page of published, non-deleted projects carrying at least one of the given tags, oldest first.
+     */
+    @Query(
+        "SELECT p.* FROM project p " +
+        "WHERE p.status = 'PUBLISHED' AND p.is_deleted = false " +
+        "AND EXISTS (SELECT 1 FROM rel_project__tags rpt JOIN tag t ON t.id = rpt.tags_id " +
+        "            WHERE rpt.project_id = p.id AND t.name IN (:tagNames)) " +
+        "ORDER BY p.created_at, p.id " +
+        "LIMIT :limit OFFSET :offset"
+    )
+    Flux<Project> findPublishedByTagNames(
+        @Param("tagNames") Collection<String> tagNames,
+        @Param("limit") int limit,
+        @Param("offset") long offset
+    );
+
+    /**
+     * Keyset variant of {@link #findPublishedByTagNames}: the projects ordered strictly after ({@code afterCreatedAt}, {@code afterId}).
+     */
+    @Query(
+        "SELECT p.* FROM project p " +
+        "WHERE p.status = 'PUBLISHED' AND p.is_deleted = false " +
+        "AND EXISTS (SELECT 1 FROM rel_project__tags rpt JOIN tag t ON t.id = rpt.tags_id " +
+        "            WHERE rpt.project_id = p.id AND t.name IN (:tagNames)) " +
+        "AND (p.created_at, p.id) > (:afterCreatedAt, :afterId) " +
+        "ORDER BY p.created_at, p.id " +
+        "LIMIT :limit"
+    )
+    Flux<Project> findPublishedByTagNamesAfter(
+        @Param("tagNames") Collection<String> tagNames,
+        @Param("afterCreatedAt") Instant afterCreatedAt,
+        @Param("afterId") long afterId,
+        @Param("limit") int limit
+    );
+
+    @Query(
+        "SELECT COUNT(*) FROM project p " +
+        "WHERE p.status = 'PUBLISHED' AND p.is_deleted = false " +
+        "AND EXISTS (SELECT 1 FROM rel_project__tags rpt JOIN tag t ON t.id = rpt.tags_id " +
+        "            WHERE rpt.project_id = p.id AND t.name IN (:tagNames))"
+    )
+    Mono<Long> countPublishedByTagNames(@Param("tagNames") Collection<String> tagNames);
+
     @Query("SELECT COUNT(*) > 0 FROM project WHERE LOWER(title) = LOWER(:title) AND id != :excludeId")
     Mono<Boolean> existsByTitleAndIdNot(@Param("title") String title, @Param("excludeId") Long excludeId);
 
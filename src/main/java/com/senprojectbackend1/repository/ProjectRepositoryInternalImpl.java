@@ -94,15 +94,18 @@ class ProjectRepositoryInternalImpl extends SimpleR2dbcRepository<Project, Long>
     RowsFetchSpec<Project> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = ProjectSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(TeamSqlHelper.getColumns(teamTable, "team"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(selectFrom(columns), Project.class, pageable, whereClause);
+        return db.sql(select).map(this::process);
+    }
+
+    private SelectFromAndJoinCondition selectFrom(List<Expression> columns) {
+        return Select.builder()
             .select(columns)
             .from(entityTable)
             .leftOuterJoin(teamTable)
             .on(Column.create("team_id", entityTable))
             .equals(Column.create("id", teamTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Project.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -166,9 +169,8 @@ class ProjectRepositoryInternalImpl extends SimpleR2dbcRepository<Project, Long>
 
     @Override
     public Mono<Long> countByCriteria(ProjectCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(ProjectCriteria criteria) {
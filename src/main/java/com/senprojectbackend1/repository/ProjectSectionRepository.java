@@ -5,6 +5,7 @@ import com.senprojectbackend1.domain.criteria.ProjectSectionCriteria;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -27,6 +28,9 @@ public interface ProjectSectionRepository extends ReactiveCrudRepository<Project
     @Override
     <S extends ProjectSection> Mono<S> save(S entity);
 
+    @Override
+    <S extends ProjectSection> Flux<S> saveAll(Iterable<S> entities);
+
     @Override
     Flux<ProjectSection> findAll();
 
@@ -36,6 +40,28 @@ public interface ProjectSectionRepository extends ReactiveCrudRepository<Project
     @Override
     Mono<Void> deleteById(Long id);
 
+    @Query("SELECT * FROM project_section WHERE project_id = :projectId ORDER BY jhi_order, id")
+    Flux<ProjectSection> findByProjectIdOrdered(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query(
+        "UPDATE project_section s SET title = u.title, content = u.content, media_url = u.media_url, jhi_order = u.jhi_order " +
+        "FROM unnest(CAST(:ids AS bigint[]), CAST(:titles AS varchar[]), CAST(:contents AS varchar[]), " +
+        "CAST(:mediaUrls AS varchar[]), CAST(:orders AS integer[])) AS u(id, title, content, media_url, jhi_order) " +
+        "WHERE s.id = u.id"
+    )
+    Mono<Long> updateAll(
+        @Param("ids") Long[] ids,
+        @Param("titles") String[] titles,
+        @Param("contents") String[] contents,
+        @Param("mediaUrls") String[] mediaUrls,
+        @Param("orders") Integer[] orders
+    );
+
+    @Modifying
+    @Query("DELETE FROM project_section WHERE id = ANY(CAST(:ids AS bigint[]))")
+    Mono<Long> deleteByIds(@Param("ids") Long[] ids);
+
     @Modifying
     @Query("DELETE FROM project_section WHERE project_id = :projectId")
     reactor.core.publisher.Mono<Void> deleteByProjectId(@org.springframework.data.repository.query.Param("projectId") Long projectId);
@@ -44,6 +70,8 @@ public interface ProjectSectionRepository extends ReactiveCrudRepository<Project
 interface ProjectSectionRepositoryInternal {
     <S extends ProjectSection> Mono<S> save(S entity);
 
+    <S extends ProjectSection> Flux<S> saveAll(Iterable<S> entities);
+
     Flux<ProjectSection> findAllBy(Pageable pageable);
 
     Flux<ProjectSection> findAll();
@@ -14,6 +14,8 @@ public class ProjectSqlHelper {
         columns.add(Column.aliased("title", table, columnPrefix + "_title"));
         columns.add(Column.aliased("description", table, columnPrefix + "_description"));
         columns.add(Column.aliased("showcase", table, columnPrefix + "_showcase"));
+        columns.add(Column.aliased("showcase_thumbnail_url", table, columnPrefix + "_showcase_thumbnail_url"));
+        columns.add(Column.aliased("showcase_card_url", table, columnPrefix + "_showcase_card_url"));
         columns.add(Column.aliased("status", table, columnPrefix + "_status"));
         columns.add(Column.aliased("created_at", table, columnPrefix + "_created_at"));
         columns.add(Column.aliased("updated_at", table, columnPrefix + "_updated_at"));
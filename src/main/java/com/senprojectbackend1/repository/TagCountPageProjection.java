@@ -0,0 +1,6 @@
+package com.senprojectbackend1.repository;
+
+/**
+ * A tag of a page and its number of projects, with the total number of tags, repeated on each row of the page.
+ */
+public record TagCountPageProjection(TagUsageProjection tag, long total) {}
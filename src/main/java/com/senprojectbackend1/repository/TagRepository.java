@@ -6,6 +6,7 @@ import com.senprojectbackend1.service.dto.TagDTO;
 import java.util.Set;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
@@ -36,18 +37,26 @@ public interface TagRepository extends ReactiveCrudRepository<Tag, Long>, TagRep
     )
     Flux<Tag> findByProjectId(Long projectId);
 
-    @Query(
-        "SELECT t.* FROM tag t " +
-        "ORDER BY (SELECT COUNT(*) FROM rel_project__tags rpt WHERE rpt.tags_id = t.id) DESC " +
-        "LIMIT :limit OFFSET :offset"
-    )
-    Flux<Tag> findTagsWithCount(int limit, int offset);
-
-    @Query("SELECT COUNT(*) FROM rel_project__tags WHERE tags_id = :tagId")
-    Mono<Long> countProjectsForTag(Long tagId);
+    // une page de tags avec leur nombre de projets et le nombre total de tags, en une seule requête
+    Flux<TagCountPageProjection> findPageWithProjectCount(boolean publishedOnly, int limit, long offset);
 
     @Query("SELECT COUNT(DISTINCT t.id) " + "FROM tag t")
     Mono<Long> countAllTags();
+
+    // tags proposés à l'autocomplétion, avec le nombre de projets qui les portent
+    Flux<TagUsageProjection> findAllowedWithProjectCount();
+
+    // noms déjà sans espaces autour et en minuscules, servi par ux_tag_lower_name
+    @Query("SELECT * FROM tag WHERE LOWER(TRIM(name)) = ANY(CAST(:lowerNames AS varchar[]))")
+    Flux<Tag> findAllByLowerNames(@Param("lowerNames") String[] lowerNames);
+
+    // un seul INSERT pour tous les tags manquants ; ceux créés entre-temps par une autre soumission ne sont pas renvoyés
+    @Query(
+        "INSERT INTO tag (name, color, is_forbidden) " +
+        "SELECT n.name, n.color, false FROM unnest(CAST(:names AS varchar[]), CAST(:colors AS varchar[])) AS n(name, color) " +
+        "ON CONFLICT DO NOTHING RETURNING *"
+    )
+    Flux<Tag> insertMissing(@Param("names") String[] names, @Param("colors") String[] colors);
 }
 
 interface TagRepositoryInternal {
@@ -63,4 +72,8 @@ interface TagRepositoryInternal {
     Flux<Tag> findByCriteria(TagCriteria criteria, Pageable pageable);
 
     Mono<Long> countByCriteria(TagCriteria criteria);
+
+    Flux<TagUsageProjection> findAllowedWithProjectCount();
+
+    Flux<TagCountPageProjection> findPageWithProjectCount(boolean publishedOnly, int limit, long offset);
 }
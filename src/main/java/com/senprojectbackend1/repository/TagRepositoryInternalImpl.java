@@ -42,6 +42,19 @@ class TagRepositoryInternalImpl extends SimpleR2dbcRepository<Tag, Long> impleme
 
     private static final Table entityTable = Table.aliased("tag", EntityManager.ENTITY_ALIAS);
 
+    // project_count est calculé : lu explicitement, une projection @Query ne remplissant que les propriétés de l'entité
+    private static final String ALLOWED_WITH_PROJECT_COUNT =
+        "SELECT t.id, t.name, t.color, COUNT(rpt.project_id) AS project_count FROM tag t " +
+        "LEFT JOIN rel_project__tags rpt ON rpt.tags_id = t.id " +
+        "WHERE t.is_forbidden IS NOT TRUE GROUP BY t.id";
+
+    private static final String PAGE_WITH_PROJECT_COUNT =
+        "SELECT t.id, t.name, t.color, COUNT(p.id) AS project_count, COUNT(*) OVER () AS total FROM tag t " +
+        "LEFT JOIN rel_project__tags rpt ON rpt.tags_id = t.id " +
+        "LEFT JOIN project p ON p.id = rpt.project_id " +
+        "AND (:publishedOnly = false OR (p.status = 'PUBLISHED' AND p.is_deleted = false)) " +
+        "GROUP BY t.id ORDER BY project_count DESC, t.id LIMIT :limit OFFSET :offset";
+
     public TagRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -69,12 +82,15 @@ class TagRepositoryInternalImpl extends SimpleR2dbcRepository<Tag, Long> impleme
 
     RowsFetchSpec<Tag> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = TagSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Tag.class, pageable, whereClause);
+        String select = entityManager.createSelect(selectFrom(columns), Tag.class, pageable, whereClause);
         return db.sql(select).map(this::process);
     }
 
+    private SelectFromAndJoin selectFrom(List<Expression> columns) {
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<Tag> findAll() {
         return findAllBy(null);
@@ -103,9 +119,34 @@ class TagRepositoryInternalImpl extends SimpleR2dbcRepository<Tag, Long> impleme
 
     @Override
     public Mono<Long> countByCriteria(TagCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
+    }
+
+    @Override
+    public Flux<TagUsageProjection> findAllowedWithProjectCount() {
+        return db.sql(ALLOWED_WITH_PROJECT_COUNT).map(TagRepositoryInternalImpl::usage).all();
+    }
+
+    @Override
+    public Flux<TagCountPageProjection> findPageWithProjectCount(boolean publishedOnly, int limit, long offset) {
+        return db
+            .sql(PAGE_WITH_PROJECT_COUNT)
+            .bind("publishedOnly", publishedOnly)
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map((row, metadata) -> new TagCountPageProjection(usage(row, metadata), row.get("total", Long.class)))
+            .all();
+    }
+
+    private static TagUsageProjection usage(Row row, RowMetadata metadata) {
+        Long projectCount = row.get("project_count", Long.class);
+        return new TagUsageProjection(
+            row.get("id", Long.class),
+            row.get("name", String.class),
+            row.get("color", String.class),
+            projectCount != null ? projectCount : 0
+        );
     }
 
     private Condition buildConditions(TagCriteria criteria) {
@@ -0,0 +1,6 @@
+package com.senprojectbackend1.repository;
+
+/**
+ * A tag and the number of projects carrying it.
+ */
+public record TagUsageProjection(Long id, String name, String color, long projectCount) {}
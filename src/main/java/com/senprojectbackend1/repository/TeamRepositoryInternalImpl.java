@@ -75,12 +75,15 @@ class TeamRepositoryInternalImpl extends SimpleR2dbcRepository<Team, Long> imple
 
     RowsFetchSpec<Team> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = TeamSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Team.class, pageable, whereClause);
+        String select = entityManager.createSelect(selectFrom(columns), Team.class, pageable, whereClause);
         return db.sql(select).map(this::process);
     }
 
+    private SelectFromAndJoin selectFrom(List<Expression> columns) {
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<Team> findAll() {
         return findAllBy(null);
@@ -139,9 +142,8 @@ class TeamRepositoryInternalImpl extends SimpleR2dbcRepository<Team, Long> imple
 
     @Override
     public Mono<Long> countByCriteria(TeamCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(TeamCriteria criteria) {
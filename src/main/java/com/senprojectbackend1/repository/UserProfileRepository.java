@@ -23,6 +23,9 @@ public interface UserProfileRepository extends R2dbcRepository<UserProfile, Stri
 
     Mono<UserProfile> findOneByLogin(String login);
 
+    @Query("SELECT u.id FROM user_profile u WHERE u.login = :login")
+    Mono<String> findIdByLogin(@Param("login") String login);
+
     @Override
     Flux<UserProfile> findAllWithEagerRelationships();
 
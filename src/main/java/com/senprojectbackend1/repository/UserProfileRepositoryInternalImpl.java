@@ -74,12 +74,15 @@ class UserProfileRepositoryInternalImpl extends SimpleR2dbcRepository<UserProfil
 
     RowsFetchSpec<UserProfile> createQuery(Pageable pageable, Condition whereClause) {
         List<Expression> columns = UserProfileSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, UserProfile.class, pageable, whereClause);
+        String select = entityManager.createSelect(selectFrom(columns), UserProfile.class, pageable, whereClause);
         return db.sql(select).map(this::process);
     }
 
+    private SelectFromAndJoin selectFrom(List<Expression> columns) {
+        return Select.builder().select(columns).from(entityTable);
+    }
+
     @Override
     public Flux<UserProfile> findAll() {
         return findAllBy(null);
@@ -123,9 +126,8 @@ class UserProfileRepositoryInternalImpl extends SimpleR2dbcRepository<UserProfil
 
     @Override
     public Mono<Long> countByCriteria(UserProfileCriteria criteria) {
-        return findByCriteria(criteria, null)
-            .collectList()
-            .map(collectedList -> collectedList != null ? (long) collectedList.size() : (long) 0);
+        String count = entityManager.createCount(selectFrom(EntityManager.countColumns()), buildConditions(criteria));
+        return db.sql(count).map((row, metadata) -> row.get(0, Long.class)).one();
     }
 
     private Condition buildConditions(UserProfileCriteria criteria) {
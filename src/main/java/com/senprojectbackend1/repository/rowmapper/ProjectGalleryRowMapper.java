@@ -26,6 +26,8 @@ public class ProjectGalleryRowMapper implements BiFunction<Row, String, ProjectG
         ProjectGallery entity = new ProjectGallery();
         entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
         entity.setImageUrl(converter.fromRow(row, prefix + "_image_url", String.class));
+        entity.setThumbnailUrl(converter.fromRow(row, prefix + "_thumbnail_url", String.class));
+        entity.setCardUrl(converter.fromRow(row, prefix + "_card_url", String.class));
         entity.setDescription(converter.fromRow(row, prefix + "_description", String.class));
         entity.setOrder(converter.fromRow(row, prefix + "_jhi_order", Integer.class));
         entity.setProjectId(converter.fromRow(row, prefix + "_project_id", Long.class));
@@ -31,6 +31,8 @@ public class ProjectRowMapper implements BiFunction<Row, String, Project> {
         entity.setTitle(converter.fromRow(row, prefix + "_title", String.class));
         entity.setDescription(converter.fromRow(row, prefix + "_description", String.class));
         entity.setShowcase(converter.fromRow(row, prefix + "_showcase", String.class));
+        entity.setShowcaseThumbnailUrl(converter.fromRow(row, prefix + "_showcase_thumbnail_url", String.class));
+        entity.setShowcaseCardUrl(converter.fromRow(row, prefix + "_showcase_card_url", String.class));
         entity.setStatus(converter.fromRow(row, prefix + "_status", ProjectStatus.class));
         entity.setCreatedAt(converter.fromRow(row, prefix + "_created_at", Instant.class));
         entity.setUpdatedAt(converter.fromRow(row, prefix + "_updated_at", Instant.class));
@@ -2,66 +2,165 @@ package com.senprojectbackend1.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class CloudinaryService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CloudinaryService.class);
+
+    private static final String UPLOAD_TIMER = "upload.cloudinary";
+
     private final Cloudinary cloudinary;
+    private final ApplicationProperties.Uploads properties;
+    private final MeterRegistry meterRegistry;
+
+    // le client Cloudinary est bloquant : les uploads ne doivent jamais s'exécuter sur l'event loop
+    private final Scheduler uploadScheduler;
+    private final Bulkhead bulkhead;
 
-    public CloudinaryService(Cloudinary cloudinary) {
+    public CloudinaryService(Cloudinary cloudinary, ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
         this.cloudinary = cloudinary;
+        this.properties = applicationProperties.getUploads();
+        this.meterRegistry = meterRegistry;
+        this.uploadScheduler = Schedulers.newBoundedElastic(
+            properties.getMaxConcurrent(),
+            properties.getMaxPending(),
+            "cloudinary-upload"
+        );
+        this.bulkhead = Bulkhead.of(
+            "cloudinary-upload",
+            BulkheadConfig.custom().maxConcurrentCalls(properties.getMaxPending()).maxWaitDuration(Duration.ZERO).build()
+        );
+        Gauge.builder("upload.cloudinary.pending", bulkhead, b -> properties.getMaxPending() - b.getMetrics().getAvailableConcurrentCalls())
+            .description("Cloudinary uploads running or waiting for a thread")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadScheduler.dispose();
+    }
+
+    /**
+     * @return the number of uploads a single request may run at the same time, for {@code flatMap} concurrency.
+     */
+    public int getMaxConcurrentUploadsPerRequest() {
+        return properties.getMaxConcurrentPerRequest();
     }
 
-    public Mono<String> uploadImage(MultipartFile file) {
-        return Mono.fromCallable(() -> {
-            try {
-                Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-                return (String) uploadResult.get("secure_url");
-            } catch (IOException e) {
-                LOG.error("Erreur lors de l'upload vers Cloudinary", e);
-                throw new RuntimeException("Failed to upload image to Cloudinary", e);
+    /**
+     * Upload un fichier local, lu par le client Cloudinary sans être chargé en mémoire.
+     * @param file le fichier à envoyer
+     * @return Mono<String> url de l'image uploadée
+     */
+    public Mono<String> uploadFile(Path file) {
+        return upload(file::toFile);
+    }
+
+    /**
+     * Upload une image déjà en mémoire, par exemple une déclinaison produite par ImageIO.
+     * @param content le contenu de l'image
+     * @return Mono<String> url de l'image uploadée
+     */
+    public Mono<String> uploadBytes(byte[] content) {
+        return upload(() -> content);
+    }
+
+    // content : byte[] ou File, tous deux acceptés par le client Cloudinary
+    private Mono<String> upload(Callable<?> content) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            if (!bulkhead.tryAcquirePermission()) {
+                BulkheadFullException rejected = BulkheadFullException.createBulkheadFullException(bulkhead);
+                sample.stop(timer(outcome(rejected)));
+                return Mono.error(rejected);
             }
+            UploadPermit permit = new UploadPermit();
+            return Mono.fromCallable(() -> {
+                // l'upload a expiré avant de démarrer : sa place a déjà été rendue
+                if (!permit.start()) {
+                    return null;
+                }
+                try {
+                    Map<?, ?> uploadResult = cloudinary.uploader().upload(content.call(), ObjectUtils.emptyMap());
+                    return (String) uploadResult.get("secure_url");
+                } catch (IOException e) {
+                    LOG.error("Erreur lors de l'upload vers Cloudinary", e);
+                    throw new RuntimeException("Failed to upload image to Cloudinary", e);
+                } finally {
+                    permit.finish();
+                }
+            })
+                .subscribeOn(uploadScheduler)
+                .timeout(properties.getTimeout())
+                .doFinally(signal -> permit.releaseIfNotStarted())
+                .doOnSuccess(url -> sample.stop(timer("success")))
+                .doOnError(e -> sample.stop(timer(outcome(e))));
         });
     }
 
+    private Timer timer(String outcome) {
+        return Timer.builder(UPLOAD_TIMER).description("Cloudinary image uploads").tag("outcome", outcome).register(meterRegistry);
+    }
+
     /**
-     * Upload une image encodée en base64 (avec ou sans préfixe data:) sur Cloudinary.
-     * @param rawData la chaîne base64 (avec ou sans préfixe data:)
-     * @param prefix préfixe pour le nom du fichier (ex: "profile", "team", "gallery")
-     * @return Mono<String> url de l'image uploadée
+     * Place d'un upload dans le bulkhead. Le timeout ne fait que libérer l'abonné : un appel bloquant déjà commencé
+     * continue sur le scheduler et garde sa place jusqu'à sa fin réelle, si bien que le bulkhead borne les appels
+     * réellement en cours ou en attente, et jamais plus de {@code max-pending} tâches ne sont soumises au scheduler.
      */
-    public Mono<String> uploadBase64Image(String rawData, String prefix) {
-        try {
-            String base64Data;
-            String contentType = "image/jpeg";
-            if (rawData.startsWith("data:")) {
-                int commaIndex = rawData.indexOf(",");
-                String metadata = rawData.substring(5, commaIndex);
-                contentType = metadata.split(";")[0];
-                base64Data = rawData.substring(commaIndex + 1);
-            } else {
-                base64Data = rawData;
+    private final class UploadPermit {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int RELEASED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private boolean start() {
+            return state.compareAndSet(PENDING, RUNNING);
+        }
+
+        private void finish() {
+            state.set(RELEASED);
+            bulkhead.onComplete();
+        }
+
+        // annulation ou timeout avant que la tâche n'ait démarré sur le scheduler
+        private void releaseIfNotStarted() {
+            if (state.compareAndSet(PENDING, RELEASED)) {
+                bulkhead.releasePermission();
             }
-            byte[] imageBytes = java.util.Base64.getDecoder().decode(base64Data);
-            String extension = contentType.split("/")[1];
-            String filename = prefix + "_" + System.currentTimeMillis() + "." + extension;
-            org.springframework.web.multipart.MultipartFile file = new com.senprojectbackend1.service.util.ByteArrayMultipartFile(
-                imageBytes,
-                filename,
-                contentType
-            );
-            return uploadImage(file);
-        } catch (Exception e) {
-            LOG.error("Erreur lors du décodage ou de l'upload de l'image base64", e);
-            return Mono.error(e);
         }
     }
+
+    private static String outcome(Throwable error) {
+        if (error instanceof BulkheadFullException) {
+            return "rejected";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
 }
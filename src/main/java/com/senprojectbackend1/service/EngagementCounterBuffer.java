@@ -0,0 +1,300 @@
+package com.senprojectbackend1.service;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Project;
+import com.senprojectbackend1.repository.ProjectRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Write-behind buffer for the view, like, share and favorite counters of projects.
+ * <p>
+ * Increments are added to per-project {@link LongAdder}s, so concurrent clicks on the same project do not contend,
+ * and are written every {@code application.engagement-counters.flush-interval}, or as soon as
+ * {@code max-pending-events} increments are waiting, with one multi-row UPDATE.
+ * They are flushed on shutdown, after the flush running at that time if any; a crash loses at most what was buffered
+ * since the last flush.
+ */
+@Service
+public class EngagementCounterBuffer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EngagementCounterBuffer.class);
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SHUTDOWN_POLL_INTERVAL = Duration.ofMillis(10);
+
+    public enum Counter {
+        VIEWS,
+        LIKES,
+        SHARES,
+        FAVORITES,
+    }
+
+    private final ProjectRepository projectRepository;
+    private final ApplicationProperties.EngagementCounters properties;
+
+    private final ConcurrentHashMap<Long, Deltas> pending = new ConcurrentHashMap<>();
+    private final LongAdder pendingEvents = new LongAdder();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    public EngagementCounterBuffer(ProjectRepository projectRepository, ApplicationProperties applicationProperties) {
+        this.projectRepository = projectRepository;
+        this.properties = applicationProperties.getEngagementCounters();
+    }
+
+    /**
+     * Records a change of one counter of a project.
+     *
+     * @param projectId the project.
+     * @param counter the counter to change.
+     * @param delta the change, negative to decrement.
+     * @return completes once the change is buffered, or written when write-behind is disabled.
+     */
+    public Mono<Void> add(Long projectId, Counter counter, int delta) {
+        if (delta == 0) {
+            return Mono.empty();
+        }
+        if (!properties.isWriteBehind()) {
+            Deltas deltas = new Deltas(projectId);
+            deltas.get(counter).add(delta);
+            return write(List.of(Map.entry(projectId, deltas.drain()))).then();
+        }
+        return Mono.fromRunnable(() -> {
+            addPending(projectId, counter, delta);
+            pendingEvents.increment();
+            if (pendingEvents.sum() >= properties.getMaxPendingEvents()) {
+                flush().subscribe();
+            }
+        });
+    }
+
+    public Mono<Void> increment(Long projectId, Counter counter) {
+        return add(projectId, counter, 1);
+    }
+
+    public Mono<Void> decrement(Long projectId, Counter counter) {
+        return add(projectId, counter, -1);
+    }
+
+    /**
+     * Adds the buffered increments of the project to its stored counters, when enabled.
+     *
+     * @param project the project read from the database.
+     * @return the same project.
+     */
+    public Project mergePending(Project project) {
+        if (!properties.isMergePendingOnRead() || project == null || project.getId() == null) {
+            return project;
+        }
+        Deltas deltas = pending.get(project.getId());
+        if (deltas != null) {
+            project.setTotalViews(merge(project.getTotalViews(), deltas.views.sum()));
+            project.setTotalLikes(merge(project.getTotalLikes(), deltas.likes.sum()));
+            project.setTotalShares(merge(project.getTotalShares(), deltas.shares.sum()));
+            project.setTotalFavorites(merge(project.getTotalFavorites(), deltas.favorites.sum()));
+        }
+        return project;
+    }
+
+    @Scheduled(fixedDelayString = "${application.engagement-counters.flush-interval:5s}")
+    public void scheduledFlush() {
+        flush().subscribe();
+    }
+
+    /**
+     * Waits for the flush running, if any, then flushes until nothing is buffered, within {@link #SHUTDOWN_FLUSH_TIMEOUT}.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        LOG.debug("Flushing engagement counters before shutdown");
+        long deadline = System.nanoTime() + SHUTDOWN_FLUSH_TIMEOUT.toNanos();
+        while (hasPending()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                LOG.warn("Engagement counters still buffered after {}, they are lost", SHUTDOWN_FLUSH_TIMEOUT);
+                return;
+            }
+            if (!flushing.compareAndSet(false, true)) {
+                LockSupport.parkNanos(Math.min(remaining, SHUTDOWN_POLL_INTERVAL.toNanos()));
+                continue;
+            }
+            try {
+                writePending().block(Duration.ofNanos(remaining));
+            } catch (RuntimeException e) {
+                LOG.error("Failed to flush engagement counters before shutdown: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered increments. Concurrent calls are skipped while a flush is running.
+     *
+     * @return the number of updated projects.
+     */
+    public Mono<Long> flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return Mono.just(0L);
+        }
+        return writePending()
+            .doOnError(e -> LOG.error("Failed to flush engagement counters: {}", e.getMessage()))
+            .onErrorResume(e -> Mono.just(0L));
+    }
+
+    // called with the flushing flag taken, released once the write ends
+    private Mono<Long> writePending() {
+        return Mono.defer(() -> write(drain())).doFinally(signal -> flushing.set(false));
+    }
+
+    private boolean hasPending() {
+        for (Deltas deltas : pending.values()) {
+            if (!deltas.isZero()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Map.Entry<Long, long[]>> drain() {
+        pendingEvents.reset();
+        List<Map.Entry<Long, long[]>> batch = new ArrayList<>();
+        pending.forEach((projectId, deltas) -> {
+            long[] values = deltas.drain();
+            if (values == null && deltas.retire()) {
+                // no add is running on the entry nor can start: a last drain catches those ended since the first one
+                pending.remove(projectId, deltas);
+                values = deltas.drain();
+            }
+            if (values != null) {
+                batch.add(Map.entry(projectId, values));
+            }
+        });
+        return batch;
+    }
+
+    private Mono<Long> write(List<Map.Entry<Long, long[]>> batch) {
+        if (batch.isEmpty()) {
+            return Mono.just(0L);
+        }
+        int size = batch.size();
+        Long[] ids = new Long[size];
+        Integer[][] columns = new Integer[Counter.values().length][size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = batch.get(i).getKey();
+            long[] values = batch.get(i).getValue();
+            for (int c = 0; c < values.length; c++) {
+                columns[c][i] = (int) values[c];
+            }
+        }
+        return projectRepository
+            .applyCounterDeltas(ids, columns[0], columns[1], columns[2], columns[3])
+            .doOnSuccess(updated -> LOG.debug("Flushed engagement counters of {} projects", updated))
+            .doOnError(e -> restore(batch));
+    }
+
+    // puts the deltas of a failed write back, so they are retried by the next flush
+    private void restore(List<Map.Entry<Long, long[]>> batch) {
+        if (!properties.isWriteBehind()) {
+            return;
+        }
+        for (Map.Entry<Long, long[]> entry : batch) {
+            for (Counter counter : Counter.values()) {
+                addPending(entry.getKey(), counter, entry.getValue()[counter.ordinal()]);
+            }
+        }
+    }
+
+    private void addPending(Long projectId, Counter counter, long delta) {
+        // an entry retired by a flush in the meantime refuses the delta, which goes to the entry replacing it
+        while (!pending.computeIfAbsent(projectId, Deltas::new).add(counter, delta)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static Integer merge(Integer stored, long delta) {
+        return (int) Math.max(0L, (stored != null ? stored : 0) + delta);
+    }
+
+    private static final class Deltas {
+
+        private static final int RETIRED = Integer.MIN_VALUE;
+
+        private final Long projectId;
+        // number of adds running, or RETIRED once removed from the pending map
+        private final AtomicInteger writers = new AtomicInteger();
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder shares = new LongAdder();
+        private final LongAdder favorites = new LongAdder();
+
+        Deltas(Long projectId) {
+            this.projectId = projectId;
+        }
+
+        /**
+         * @return false if the entry is retired, the delta then having to go to the entry replacing it.
+         */
+        boolean add(Counter counter, long delta) {
+            int current;
+            do {
+                current = writers.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!writers.compareAndSet(current, current + 1));
+            try {
+                get(counter).add(delta);
+                return true;
+            } finally {
+                writers.decrementAndGet();
+            }
+        }
+
+        /**
+         * Retires the entry if no add is running on it; no add can start on it afterwards.
+         */
+        boolean retire() {
+            return writers.compareAndSet(0, RETIRED);
+        }
+
+        boolean isZero() {
+            return views.sum() == 0 && likes.sum() == 0 && shares.sum() == 0 && favorites.sum() == 0;
+        }
+
+        LongAdder get(Counter counter) {
+            return switch (counter) {
+                case VIEWS -> views;
+                case LIKES -> likes;
+                case SHARES -> shares;
+                case FAVORITES -> favorites;
+            };
+        }
+
+        /**
+         * Resets the adders; an increment racing with the reset is either returned or kept for the next drain.
+         * @return the deltas in {@link Counter} order, or null if they are all zero.
+         */
+        long[] drain() {
+            long[] values = { views.sumThenReset(), likes.sumThenReset(), shares.sumThenReset(), favorites.sumThenReset() };
+            for (long value : values) {
+                if (value != 0) {
+                    return values;
+                }
+            }
+            return null;
+        }
+    }
+}
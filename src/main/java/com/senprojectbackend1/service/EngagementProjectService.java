@@ -2,6 +2,8 @@ package com.senprojectbackend1.service;
 
 import com.senprojectbackend1.domain.criteria.EngagementProjectCriteria;
 import com.senprojectbackend1.service.dto.EngagementProjectDTO;
+import com.senprojectbackend1.service.dto.ProjectEngagementStatusDTO;
+import java.util.Collection;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -89,4 +91,13 @@ public interface EngagementProjectService {
      * @return le statut d'engagement (like/share)
      */
     Mono<com.senprojectbackend1.service.dto.EngagementStatusDTO> getUserEngagementStatus(Long projectId, String login);
+
+    /**
+     * Retourne le statut d'engagement (like/share/favori) d'un utilisateur pour plusieurs projets.
+     *
+     * @param projectIds les IDs des projets
+     * @param login le login de l'utilisateur
+     * @return un statut par projet demandé
+     */
+    Flux<ProjectEngagementStatusDTO> getUserEngagementStatuses(Collection<Long> projectIds, String login);
 }
@@ -0,0 +1,269 @@
+package com.senprojectbackend1.service;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Media;
+import com.senprojectbackend1.repository.MediaRepository;
+import com.senprojectbackend1.service.dto.MediaDTO;
+import com.senprojectbackend1.service.dto.ProjectSubmissionDTO;
+import com.senprojectbackend1.service.exception.ProjectBusinessException;
+import com.senprojectbackend1.service.storage.ImageDerivativeService;
+import com.senprojectbackend1.service.storage.ImageDerivatives;
+import com.senprojectbackend1.service.storage.ImageType;
+import com.senprojectbackend1.service.storage.MediaStorage;
+import com.senprojectbackend1.service.storage.StoredMedia;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Upload of media to the configured {@link MediaStorage}, and resolution of the media ids of a project submission.
+ * <p>
+ * Multipart parts are spooled to a temporary file as they are read, then streamed to the storage: the image is never held
+ * in memory as a whole, unlike the base64 images of a JSON submission. The {@link ImageDerivativeService derivatives}
+ * of the gallery and showcase images are stored with them.
+ */
+@Service
+public class MediaService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaService.class);
+
+    private static final ImageType DEFAULT_BASE64_TYPE = ImageType.JPEG;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = DefaultDataBufferFactory.sharedInstance;
+
+    private final MediaRepository mediaRepository;
+    private final MediaStorage mediaStorage;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ApplicationProperties applicationProperties;
+
+    public MediaService(
+        MediaRepository mediaRepository,
+        MediaStorage mediaStorage,
+        ImageDerivativeService imageDerivativeService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.mediaRepository = mediaRepository;
+        this.mediaStorage = mediaStorage;
+        this.imageDerivativeService = imageDerivativeService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    public int getMaxConcurrentUploadsPerRequest() {
+        return applicationProperties.getUploads().getMaxConcurrentPerRequest();
+    }
+
+    /**
+     * Stores an uploaded image and its derivatives.
+     *
+     * @param part the multipart file, an image.
+     * @param login the login of the current user, the only one allowed to reference the media.
+     * @return the handle of the stored media.
+     */
+    public Mono<MediaDTO> upload(FilePart part, String login) {
+        Optional<ImageType> imageType = ImageType.fromMediaType(part.headers().getContentType());
+        if (imageType.isEmpty()) {
+            return Mono.error(unsupportedMedia());
+        }
+        MediaType contentType = imageType.get().mediaType();
+        return Mono.usingWhen(
+            Mono.fromCallable(() -> Files.createTempFile("media-", null)).subscribeOn(Schedulers.boundedElastic()),
+            temp ->
+                part
+                    .transferTo(temp)
+                    .then(Mono.defer(() -> mediaStorage.store(DataBufferUtils.read(temp, BUFFER_FACTORY, READ_BUFFER_SIZE), contentType)))
+                    .flatMap(stored ->
+                        withDerivatives(stored, () -> Files.newInputStream(temp)).flatMap(derivatives ->
+                            mediaRepository.insert(
+                                UUID.randomUUID().toString(),
+                                stored.url(),
+                                derivatives.thumbnail(),
+                                derivatives.card(),
+                                derivatives.full(),
+                                contentType.toString(),
+                                stored.size(),
+                                login,
+                                Instant.now()
+                            )
+                        )
+                    ),
+            temp -> Mono.fromCallable(() -> Files.deleteIfExists(temp)).subscribeOn(Schedulers.boundedElastic())
+        )
+            .doOnSuccess(media -> LOG.debug("Media {} uploaded by {} ({} bytes)", media.getId(), login, media.getSize()))
+            .map(MediaService::toDto);
+    }
+
+    /**
+     * Stores an image encoded in base64, with or without a {@code data:} prefix, decoded off the event loop.
+     *
+     * @param rawData the base64 image.
+     * @param prefix the kind of image, for the logs (e.g. "profile", "team_logo", "gallery").
+     * @return the URL of the stored image.
+     */
+    public Mono<String> uploadBase64Image(String rawData, String prefix) {
+        return decodeBase64(rawData)
+            .flatMap(decoded -> store(decoded))
+            .map(StoredMedia::url)
+            .doOnError(e -> LOG.error("Erreur lors de l'enregistrement de l'image base64 ({})", prefix, e));
+    }
+
+    /**
+     * Stores an image encoded in base64 and its derivatives.
+     *
+     * @param rawData the base64 image.
+     * @param prefix the kind of image, for the logs (e.g. "showcase", "gallery").
+     * @return the URLs of the derivatives, the original standing for all sizes if it could not be decoded.
+     */
+    public Mono<ImageDerivatives> uploadBase64ImageWithDerivatives(String rawData, String prefix) {
+        return decodeBase64(rawData)
+            .flatMap(decoded ->
+                store(decoded).flatMap(stored -> withDerivatives(stored, () -> new ByteArrayInputStream(decoded.content())))
+            )
+            .doOnError(e -> LOG.error("Erreur lors de l'enregistrement de l'image base64 ({})", prefix, e));
+    }
+
+    private Mono<Decoded> decodeBase64(String rawData) {
+        return Mono.fromCallable(() -> {
+            ImageType imageType = DEFAULT_BASE64_TYPE;
+            String base64Data = rawData;
+            if (rawData.startsWith("data:")) {
+                int commaIndex = rawData.indexOf(",");
+                if (commaIndex < 0) {
+                    throw unsupportedMedia();
+                }
+                String declaredType = rawData.substring(5, commaIndex).split(";")[0];
+                imageType = ImageType.fromMediaType(MediaType.parseMediaType(declaredType)).orElseThrow(MediaService::unsupportedMedia);
+                base64Data = rawData.substring(commaIndex + 1);
+            }
+            return new Decoded(imageType.mediaType(), Base64.getDecoder().decode(base64Data));
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<StoredMedia> store(Decoded decoded) {
+        return mediaStorage.store(Flux.just(BUFFER_FACTORY.wrap(decoded.content())), decoded.contentType());
+    }
+
+    private Mono<ImageDerivatives> withDerivatives(StoredMedia stored, Callable<InputStream> source) {
+        return imageDerivativeService.createDerivatives(stored.key(), source).defaultIfEmpty(ImageDerivatives.original(stored.url()));
+    }
+
+    /**
+     * Finds the file of a media kept by the local storage, regenerating it if it is a missing derivative.
+     *
+     * @param key the key of the media, the last segment of its URL.
+     * @return the file, or empty if unknown or not stored locally.
+     */
+    public Mono<Path> resolveFile(String key) {
+        return imageDerivativeService.resolve(key);
+    }
+
+    /**
+     * Replaces the media ids of a submission with the URLs of the media, checking they were uploaded by the user.
+     *
+     * @param submission the project submission.
+     * @param login the login of the current user.
+     * @return the same submission, its showcase, section and gallery URLs set from the referenced media.
+     */
+    public Mono<ProjectSubmissionDTO> resolveMediaIds(ProjectSubmissionDTO submission, String login) {
+        Set<String> ids = new HashSet<>();
+        addIfPresent(ids, submission.getShowcaseMediaId());
+        if (submission.getSections() != null) {
+            submission.getSections().forEach(section -> addIfPresent(ids, section.getMediaId()));
+        }
+        if (submission.getGalleryImages() != null) {
+            submission.getGalleryImages().forEach(image -> addIfPresent(ids, image.getMediaId()));
+        }
+        if (ids.isEmpty()) {
+            return Mono.just(submission);
+        }
+        return mediaRepository
+            .findAllByIdsAndCreatedBy(ids.toArray(new String[0]), login)
+            .collectMap(Media::getId)
+            .flatMap(media -> {
+                if (!media.keySet().containsAll(ids)) {
+                    return Mono.error(new ProjectBusinessException("Média introuvable", "media", "medianotfound"));
+                }
+                apply(submission, media);
+                return Mono.just(submission);
+            });
+    }
+
+    private static void apply(ProjectSubmissionDTO submission, Map<String, Media> media) {
+        if (isPresent(submission.getShowcaseMediaId())) {
+            Media showcase = media.get(submission.getShowcaseMediaId());
+            submission.setShowcase(fullUrl(showcase));
+            submission.setShowcaseThumbnailUrl(showcase.getThumbnailUrl());
+            submission.setShowcaseCardUrl(showcase.getCardUrl());
+        }
+        if (submission.getSections() != null) {
+            submission
+                .getSections()
+                .stream()
+                .filter(section -> isPresent(section.getMediaId()))
+                .forEach(section -> section.setMediaUrl(fullUrl(media.get(section.getMediaId()))));
+        }
+        if (submission.getGalleryImages() != null) {
+            submission
+                .getGalleryImages()
+                .stream()
+                .filter(image -> isPresent(image.getMediaId()))
+                .forEach(image -> {
+                    Media galleryImage = media.get(image.getMediaId());
+                    image.setImageUrl(fullUrl(galleryImage));
+                    image.setThumbnailUrl(galleryImage.getThumbnailUrl());
+                    image.setCardUrl(galleryImage.getCardUrl());
+                });
+        }
+    }
+
+    private static String fullUrl(Media media) {
+        return media.getFullUrl() != null ? media.getFullUrl() : media.getUrl();
+    }
+
+    private static void addIfPresent(Set<String> ids, String id) {
+        if (isPresent(id)) {
+            ids.add(id);
+        }
+    }
+
+    private static boolean isPresent(String id) {
+        return id != null && !id.isBlank();
+    }
+
+    // même liste de types pour les fichiers multipart et les images base64
+    private static ProjectBusinessException unsupportedMedia() {
+        return new ProjectBusinessException("Seules les images JPEG, PNG, GIF et WebP sont acceptées", "media", "unsupportedmedia");
+    }
+
+    private static MediaDTO toDto(Media media) {
+        return new MediaDTO(
+            media.getId(),
+            fullUrl(media),
+            media.getThumbnailUrl(),
+            media.getCardUrl(),
+            media.getContentType(),
+            media.getSize()
+        );
+    }
+
+    private record Decoded(MediaType contentType, byte[] content) {}
+}
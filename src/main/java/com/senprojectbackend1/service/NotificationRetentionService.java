@@ -0,0 +1,292 @@
+package com.senprojectbackend1.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Notification;
+import com.senprojectbackend1.repository.NotificationPartitionRepository;
+import com.senprojectbackend1.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Purge des notifications lues plus anciennes que {@code application.notification-retention.max-age}.
+ * <p>
+ * Elles sont supprimées par lots de {@code batch-size}, chacun dans sa propre transaction, pour ne jamais verrouiller
+ * longtemps la table ; un passage s'arrête après {@code max-batches-per-run} lots, le reste attendant le suivant.
+ * Avec l'archivage, chaque lot est écrit dans un fichier JSON lines compressé {@code .jsonl.gz.part} avant la
+ * validation de sa suppression, puis renommé en {@code .jsonl.gz} une fois celle-ci validée : une erreur d'écriture
+ * annule la suppression, et une suppression annulée efface le fichier. Un arrêt brutal entre l'écriture et le renommage
+ * laisse un fichier {@code .part}, dont les notifications peuvent être encore en base et donc archivées de nouveau par
+ * un passage suivant. Les notifications non lues sont gardées quel que soit leur âge.
+ * <p>
+ * Chaque passage crée aussi les partitions mensuelles des mois à venir, en y déplaçant les notifications de ces mois
+ * tombées dans la partition par défaut, et supprime celles des mois passés une fois vides.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private static final DateTimeFormatter ARCHIVE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPartitionRepository notificationPartitionRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationProperties.NotificationRetention properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    private final Counter pruned;
+    private final Counter archived;
+    private final Counter movedFromDefault;
+    private final Timer runDuration;
+
+    public NotificationRetentionService(
+        NotificationRepository notificationRepository,
+        NotificationPartitionRepository notificationPartitionRepository,
+        TransactionalOperator transactionalOperator,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.notificationPartitionRepository = notificationPartitionRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getNotificationRetention();
+        this.pruned = Counter.builder("notifications.retention.pruned")
+            .description("Read notifications deleted by the retention job")
+            .register(meterRegistry);
+        this.archived = Counter.builder("notifications.retention.archived")
+            .description("Read notifications written to the archive before their deletion")
+            .register(meterRegistry);
+        this.movedFromDefault = Counter.builder("notifications.retention.moved-from-default")
+            .description("Notifications moved out of the default partition into the partition of their month")
+            .register(meterRegistry);
+        this.runDuration = Timer.builder("notifications.retention.run")
+            .description("Duration of a run of the retention job")
+            .register(meterRegistry);
+        Gauge.builder("notifications.retention.lag", lagSeconds, AtomicLong::get)
+            .description("Age beyond the retention period of the oldest read notification left by the last run")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${application.notification-retention.run-interval:1h}",
+        fixedDelayString = "${application.notification-retention.run-interval:1h}"
+    )
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            run().subscribe();
+        }
+    }
+
+    /**
+     * Runs the job once. Concurrent calls are skipped while a run is in progress.
+     *
+     * @return the number of notifications deleted.
+     */
+    public Mono<Long> run() {
+        if (!running.compareAndSet(false, true)) {
+            return Mono.just(0L);
+        }
+        Timer.Sample sample = Timer.start();
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            Instant cutoff = now.minus(properties.getMaxAge());
+            return createComingPartitions(now)
+                .then(prune(cutoff))
+                .flatMap(count -> dropEmptyPartitions(cutoff).then(updateLag(cutoff)).thenReturn(count));
+        })
+            .doOnNext(count -> LOG.debug("Retention job deleted {} read notifications", count))
+            .doOnError(e -> LOG.error("Failed to run the notification retention job: {}", e.getMessage()))
+            .onErrorResume(e -> Mono.just(0L))
+            .doFinally(signal -> {
+                sample.stop(runDuration);
+                running.set(false);
+            });
+    }
+
+    private Mono<Long> prune(Instant cutoff) {
+        int batchSize = properties.getBatchSize();
+        return Flux.range(0, properties.getMaxBatchesPerRun())
+            .concatMap(batch -> pruneBatch(cutoff, batchSize))
+            .takeUntil(count -> count < batchSize)
+            .reduce(0L, Long::sum);
+    }
+
+    private Mono<Long> pruneBatch(Instant cutoff, int batchSize) {
+        Archive archive = new Archive();
+        Mono<Long> batch = notificationRepository
+            .deleteReadCreatedBefore(cutoff, batchSize)
+            .collectList()
+            .flatMap(notifications -> writeArchive(archive, notifications).thenReturn((long) notifications.size()));
+        // la transaction n'est validée qu'à la fin du Mono : le fichier n'est publié qu'ensuite
+        return transactionalOperator
+            .transactional(batch)
+            .then(Mono.fromCallable(archive::publish).subscribeOn(Schedulers.boundedElastic()))
+            .onErrorResume(e ->
+                Mono.<Long>fromRunnable(archive::discard)
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .then(Mono.error(e))
+            )
+            .doOnNext(pruned::increment);
+    }
+
+    private Mono<Void> writeArchive(Archive archive, List<Notification> notifications) {
+        archive.count = notifications.size();
+        if (!properties.isArchiveEnabled() || notifications.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> archive.write(notifications)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * The archive of a batch: written before the commit of its deletion, published once it is committed.
+     */
+    private final class Archive {
+
+        private long count;
+        private Path partial;
+        private Path file;
+
+        void write(List<Notification> notifications) {
+            Path directory = Paths.get(properties.getArchiveDirectory());
+            // le premier id rend le nom unique : deux lots, même de deux instances, ne partagent jamais de ligne
+            String name = "notifications-" + ARCHIVE_TIMESTAMP.format(Instant.now()) + "-" + notifications.get(0).getId() + ".jsonl.gz";
+            file = directory.resolve(name);
+            partial = directory.resolve(name + ".part");
+            try {
+                Files.createDirectories(directory);
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+                    for (Notification notification : notifications) {
+                        out.write(objectMapper.writeValueAsBytes(notification));
+                        out.write('\n');
+                    }
+                }
+            } catch (IOException e) {
+                discard();
+                throw new UncheckedIOException("Failed to archive notifications to " + file, e);
+            }
+        }
+
+        /**
+         * @return the number of notifications of the batch.
+         */
+        long publish() {
+            if (partial == null) {
+                return count;
+            }
+            try {
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+                archived.increment(count);
+            } catch (IOException e) {
+                // la suppression est validée : le fichier partiel est gardé, c'est la seule copie de ces notifications
+                LOG.error("Failed to rename the archive {}, kept as is: {}", partial, e.getMessage());
+            }
+            return count;
+        }
+
+        void discard() {
+            if (partial == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException e) {
+                // le fichier partiel reste, reconnaissable à son extension
+                LOG.warn("Failed to delete the archive {} of a batch rolled back: {}", partial, e.getMessage());
+            }
+        }
+    }
+
+    private Mono<Void> createComingPartitions(Instant now) {
+        YearMonth current = YearMonth.from(now.atZone(ZoneOffset.UTC));
+        return Flux.range(0, properties.getPartitionsAhead() + 1)
+            .map(current::plusMonths)
+            .concatMap(month ->
+                createMonthlyPartition(month)
+                    .doOnError(e -> LOG.warn("Failed to create the notification partition of {}: {}", month, e.getMessage()))
+                    .onErrorResume(e -> Mono.empty())
+            )
+            .then();
+    }
+
+    // des notifications d'un mois sans partition (ex. dates futures) tombent dans la partition par défaut, et
+    // empêcheraient de créer la sienne
+    private Mono<Void> createMonthlyPartition(YearMonth month) {
+        return notificationPartitionRepository
+            .countInDefaultPartition(month)
+            .defaultIfEmpty(0L)
+            .flatMap(inDefault -> {
+                if (inDefault == 0) {
+                    return notificationPartitionRepository.createMonthlyPartition(month);
+                }
+                return transactionalOperator
+                    .transactional(notificationPartitionRepository.createMonthlyPartitionFromDefault(month))
+                    .doOnNext(moved -> {
+                        LOG.info("Moved {} notifications of {} out of the default partition", moved, month);
+                        movedFromDefault.increment(moved);
+                    })
+                    .then();
+            });
+    }
+
+    private Mono<Void> dropEmptyPartitions(Instant cutoff) {
+        return notificationPartitionRepository
+            .findMonthlyPartitions()
+            .filter(month -> !month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff))
+            .concatMap(month ->
+                notificationPartitionRepository
+                    .dropMonthlyPartitionIfEmpty(month)
+                    .doOnNext(dropped -> {
+                        if (dropped) {
+                            LOG.info("Dropped the empty notification partition of {}", month);
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        LOG.warn("Failed to drop the notification partition of {}: {}", month, e.getMessage());
+                        return Mono.empty();
+                    })
+            )
+            .then();
+    }
+
+    private Mono<Void> updateLag(Instant cutoff) {
+        return notificationRepository
+            .findOldestReadCreatedBefore(cutoff)
+            .map(oldest -> Duration.between(oldest, cutoff).toSeconds())
+            .defaultIfEmpty(0L)
+            .doOnNext(lagSeconds::set)
+            .then();
+    }
+}
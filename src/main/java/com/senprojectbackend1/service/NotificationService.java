@@ -1,9 +1,12 @@
 package com.senprojectbackend1.service;
 
+import com.senprojectbackend1.broker.dto.NotificationMessage;
 import com.senprojectbackend1.domain.Notification;
 import com.senprojectbackend1.domain.criteria.NotificationCriteria;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
+import com.senprojectbackend1.service.dto.NotificationBroadcastDTO;
 import com.senprojectbackend1.service.dto.NotificationDTO;
+import java.time.Instant;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -28,7 +31,16 @@ public interface NotificationService {
      */
     Mono<NotificationDTO> update(NotificationDTO notificationDTO);
 
-    public Flux<Notification> getAllNotificationsForUser(String userId);
+    /**
+     * Get a page of the inbox of a user, from the newest notification to the oldest.
+     *
+     * @param userId the ID of the user
+     * @param size the number of notifications of the page
+     * @param afterCreatedAt the creation date of the last notification of the previous page (optional)
+     * @param afterId the ID of the last notification of the previous page (optional)
+     * @return the notifications of the page
+     */
+    Flux<Notification> getNotificationsForUser(String userId, int size, Instant afterCreatedAt, Long afterId);
 
     /**
      * Partially updates a notification.
@@ -98,6 +110,18 @@ public interface NotificationService {
      */
     Mono<Notification> createNotification(String userId, String content, NotificationType type, String entityId, String action);
 
+    /**
+     * Create the same notification for every accepted member of a team, with one insert, and publish them as one batch.
+     *
+     * @param teamId the ID of the team to notify
+     * @param content the content of the notification
+     * @param type the type of notification
+     * @param entityId the ID of the related entity (optional)
+     * @param action the action to perform (optional)
+     * @return the created notifications
+     */
+    Flux<Notification> createTeamNotifications(Long teamId, String content, NotificationType type, String entityId, String action);
+
     public Mono<Notification> markAsRead(Long id);
 
     public Flux<Notification> getUnreadNotificationsForUser(String userId);
@@ -107,9 +131,30 @@ public interface NotificationService {
      *
      * @param message the message to send
      * @param type the type of notification (SYSTEM, HEARTBEAT, INFO, WARNING)
-     * @return the created notification
+     * @return the broadcast job, see {@link #broadcastNotification}
      */
-    Mono<Notification> createSystemNotification(String message, NotificationType type);
+    Mono<NotificationBroadcastDTO> createSystemNotification(String message, NotificationType type);
+
+    /**
+     * Start a background job inserting the notification for every user, in chunks of
+     * {@code application.notification-broadcast.chunk-size} users with one INSERT ... SELECT each.
+     * Once all rows are inserted, one broadcast message (without user) is published to the broker.
+     *
+     * @param content the content of the notification
+     * @param type the type of notification
+     * @param entityId the ID of the related entity (optional)
+     * @param action the action to perform (optional)
+     * @return the job, as started
+     */
+    Mono<NotificationBroadcastDTO> broadcastNotification(String content, NotificationType type, String entityId, String action);
+
+    /**
+     * Get the progress of a broadcast job.
+     *
+     * @param id the id of the job
+     * @return the job, or empty if unknown or expired
+     */
+    Mono<NotificationBroadcastDTO> findBroadcast(String id);
 
     /**
      * Find notifications by user ID.
@@ -120,6 +165,23 @@ public interface NotificationService {
      */
     Flux<NotificationDTO> findByUserId(String userId, Pageable pageable);
 
+    /**
+     * Count the unread notifications of a user, without reading them.
+     *
+     * @param userId the ID of the user
+     * @return the number of unread notifications
+     */
+    Mono<Long> countUnreadForUser(String userId);
+
+    /**
+     * Stream the notifications of a user as they are created, for as long as the subscription lasts.
+     *
+     * @param userId the ID of the user
+     * @param lastEventId the ID of the last notification the client received, to replay the ones it missed (optional)
+     * @return the missed notifications, then the live ones and the messages sent to all users
+     */
+    Flux<NotificationMessage> streamNotifications(String userId, Long lastEventId);
+
     /**
      * Mark all notifications as read for the current user.
      *
@@ -136,7 +198,7 @@ public interface NotificationService {
      * @param entityLogins the logins of the related entities (optional)
      * @param action the action to perform (optional)
      * @param targetIds array of user logins to notify. If empty or null, notification will be sent to all users
-     * @return the created notifications
+     * @return the created notifications; empty when sent to all users, which runs as a {@link #broadcastNotification} job
      */
     Flux<Notification> createNotifications(String content, NotificationType type, String entityLogins, String action, String[] targetIds);
 
@@ -4,6 +4,7 @@ import com.senprojectbackend1.domain.criteria.ProjectCriteria;
 import com.senprojectbackend1.service.dto.ProjectDTO;
 import com.senprojectbackend1.service.dto.ProjectSimpleDTO;
 import com.senprojectbackend1.service.dto.ProjectSubmissionDTO;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Flux;
@@ -199,6 +200,17 @@ public interface ProjectService {
      */
     Flux<ProjectDTO> getPaginatedProjects(Pageable pageable, List<String> categories);
 
+    /**
+     * Récupère une page de projets, en pagination par curseur si un curseur est fourni avec des catégories.
+     *
+     * @param pageable la pagination Spring (seule la taille est utilisée avec un curseur)
+     * @param categories liste des catégories (tags) à filtrer (optionnel, union)
+     * @param afterCreatedAt date de création du dernier projet de la page précédente (optionnel)
+     * @param afterId identifiant du dernier projet de la page précédente (optionnel)
+     * @return un Flux contenant les ProjectDTO
+     */
+    Flux<ProjectDTO> getPaginatedProjects(Pageable pageable, List<String> categories, Instant afterCreatedAt, Long afterId);
+
     /**
      * Récupère les projets les plus populaires (paginé).
      *
@@ -207,6 +219,16 @@ public interface ProjectService {
      */
     Flux<ProjectDTO> getTopPopularProjects(Pageable pageable);
 
+    /**
+     * Récupère les projets les plus populaires, en pagination par curseur si un curseur est fourni.
+     *
+     * @param pageable la pagination Spring (seule la taille est utilisée avec un curseur)
+     * @param afterScore score de popularité du dernier projet de la page précédente (optionnel)
+     * @param afterId identifiant du dernier projet de la page précédente (optionnel)
+     * @return un Flux contenant les ProjectDTO populaires, du plus au moins populaire
+     */
+    Flux<ProjectDTO> getTopPopularProjects(Pageable pageable, Integer afterScore, Long afterId);
+
     // Ajout des méthodes utilitaires pour le traitement des images
     Mono<ProjectSubmissionDTO> processGalleryImages(ProjectSubmissionDTO projectData, String userLogin);
     /**
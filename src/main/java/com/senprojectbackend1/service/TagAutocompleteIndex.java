@@ -0,0 +1,402 @@
+package com.senprojectbackend1.service;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Tag;
+import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.repository.TagUsageProjection;
+import com.senprojectbackend1.service.dto.TagDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-memory autocompletion over the tags that are not forbidden, ranked by the number of projects carrying them.
+ * <p>
+ * Names are kept sorted in lower case: the tags starting with the query are a range found by binary search.
+ * When they are too few, the tags containing the query, then the tags sharing enough trigrams with it
+ * (typos, as {@code pg_trgm} would), are looked up in an inverted trigram index.
+ * <p>
+ * Searches read a snapshot without locking nor database round trip. A tag created, forbidden or deleted through the
+ * application is applied at once, to its own position in the sorted arrays and to its own trigram posting lists, each
+ * replaced by a copy; candidates found through the postings are checked against the snapshot being read. The whole index
+ * is reloaded every {@code application.tags.autocomplete-refresh-interval} to follow the project counts; the changes made
+ * while the tags are read from the database are replayed on the reloaded index.
+ */
+@Service
+public class TagAutocompleteIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TagAutocompleteIndex.class);
+
+    private static final int TRIGRAM = 3;
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private static final Comparator<Entry> BY_KEY = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+    private static final Comparator<Entry> BY_PROJECT_COUNT = Comparator.comparingLong(Entry::projectCount)
+        .reversed()
+        .thenComparing(BY_KEY);
+
+    private final TagRepository tagRepository;
+    private final int maxResults;
+
+    private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+    // modifications faites pendant un rechargement, rejouées sur l'index rechargé ; gardées par this
+    private long version;
+    private int reloading;
+    private final List<Change> changes = new ArrayList<>();
+
+    public TagAutocompleteIndex(TagRepository tagRepository, ApplicationProperties applicationProperties) {
+        this.tagRepository = tagRepository;
+        this.maxResults = applicationProperties.getTags().getAutocompleteMaxResults();
+    }
+
+    @Scheduled(fixedDelayString = "${application.tags.autocomplete-refresh-interval:5m}")
+    public void scheduledReload() {
+        reload().subscribe();
+    }
+
+    /**
+     * Reloads all the allowed tags and their project counts.
+     *
+     * @return the number of indexed tags.
+     */
+    public Mono<Integer> reload() {
+        return Mono.fromSupplier(this::startReload)
+            .flatMap(startVersion ->
+                tagRepository
+                    .findAllowedWithProjectCount()
+                    .map(TagAutocompleteIndex::entry)
+                    .collectList()
+                    .map(entries -> install(entries, startVersion))
+                    .doFinally(signal -> endReload())
+            )
+            .doOnError(e -> LOG.error("Failed to load the tag autocompletion index: {}", e.getMessage()))
+            .onErrorResume(e -> Mono.just(snapshot.entries.length));
+    }
+
+    /**
+     * Adds or updates a tag, or removes it if it is now forbidden. Its project count is kept until the next reload.
+     *
+     * @param tag the saved tag.
+     */
+    public void upsert(Tag tag) {
+        if (tag.getId() == null || tag.getName() == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(tag.getIsForbidden())) {
+            record(tag.getId(), null, null);
+        } else {
+            record(tag.getId(), tag.getName(), tag.getColor());
+        }
+    }
+
+    /**
+     * Removes a deleted tag.
+     *
+     * @param id the id of the tag.
+     */
+    public void remove(Long id) {
+        record(id, null, null);
+    }
+
+    /**
+     * Suggests tags for what the user is typing: those starting with the query, then those containing it,
+     * then those close to it; each group ordered by decreasing number of projects.
+     *
+     * @param query the beginning, or a part, of a tag name.
+     * @return at most {@code application.tags.autocomplete-max-results} tags.
+     */
+    public List<TagDTO> search(String query) {
+        Snapshot current = snapshot;
+        String key = normalize(query);
+        if (key.isEmpty()) {
+            return Arrays.stream(current.byProjectCount).limit(maxResults).map(Entry::toDto).toList();
+        }
+        Set<Entry> results = new LinkedHashSet<>();
+        current.startingWith(key).stream().sorted(BY_PROJECT_COUNT).limit(maxResults).forEach(results::add);
+        if (results.size() < maxResults) {
+            current.containing(key).stream().sorted(BY_PROJECT_COUNT).limit(maxResults).forEach(results::add);
+        }
+        if (results.size() < maxResults && key.length() >= TRIGRAM) {
+            current.similarTo(key).forEach(results::add);
+        }
+        return results.stream().limit(maxResults).map(Entry::toDto).toList();
+    }
+
+    private synchronized long startReload() {
+        reloading++;
+        return version;
+    }
+
+    private synchronized int install(List<Entry> entries, long startVersion) {
+        Snapshot loaded = Snapshot.of(entries);
+        // les tags créés ou modifiés pendant la lecture ne sont peut-être pas dans le résultat, ou y sont dans leur état précédent
+        for (Change change : changes) {
+            if (change.version() > startVersion) {
+                loaded = apply(loaded, change);
+            }
+        }
+        snapshot = loaded;
+        LOG.debug("Tag autocompletion index loaded with {} tags", loaded.entries.length);
+        return loaded.entries.length;
+    }
+
+    private synchronized void endReload() {
+        if (--reloading == 0) {
+            changes.clear();
+        }
+    }
+
+    private synchronized void record(long id, String name, String color) {
+        Change change = new Change(++version, id, name, color);
+        snapshot = apply(snapshot, change);
+        if (reloading > 0) {
+            changes.add(change);
+        }
+    }
+
+    private static Snapshot apply(Snapshot current, Change change) {
+        Entry previous = current.byId.get(change.id());
+        Entry updated = null;
+        if (change.name() != null) {
+            updated = entry(change.id(), change.name(), change.color(), previous != null ? previous.projectCount() : 0);
+        }
+        return current.replace(previous, updated);
+    }
+
+    private static Entry entry(TagUsageProjection tag) {
+        return entry(tag.id(), tag.name(), tag.color(), tag.projectCount());
+    }
+
+    private static Entry entry(long id, String name, String color, long projectCount) {
+        String key = normalize(name);
+        return new Entry(id, name, color, key, projectCount, paddedTrigrams(key).size());
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // trigrammes du nom entouré d'espaces, comme pg_trgm : le début et la fin du nom comptent
+    private static Set<String> paddedTrigrams(String key) {
+        return trigrams("  " + key + " ");
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + TRIGRAM <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + TRIGRAM));
+        }
+        return trigrams;
+    }
+
+    // name null : tag supprimé ou interdit
+    private record Change(long version, long id, String name, String color) {}
+
+    private record Entry(long id, String name, String color, String key, long projectCount, int trigramCount) {
+        TagDTO toDto() {
+            TagDTO dto = new TagDTO();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setColor(color);
+            dto.setIsForbidden(false);
+            return dto;
+        }
+    }
+
+    /**
+     * The sorted arrays are replaced by each change; the maps by id and by trigram are shared by the successive snapshots
+     * between two reloads, changed in place by the single writer, each posting list replaced by a copy.
+     */
+    private static final class Snapshot {
+
+        // triés par nom en minuscules
+        private final Entry[] entries;
+        private final Entry[] byProjectCount;
+        private final Map<Long, Entry> byId;
+        private final Map<String, Entry[]> postings;
+
+        private Snapshot(Entry[] entries, Entry[] byProjectCount, Map<Long, Entry> byId, Map<String, Entry[]> postings) {
+            this.entries = entries;
+            this.byProjectCount = byProjectCount;
+            this.byId = byId;
+            this.postings = postings;
+        }
+
+        static Snapshot of(List<Entry> list) {
+            Entry[] entries = list.stream().sorted(BY_KEY).toArray(Entry[]::new);
+            Map<Long, Entry> byId = new ConcurrentHashMap<>(entries.length * 2);
+            Map<String, List<Entry>> lists = new HashMap<>();
+            for (Entry entry : entries) {
+                byId.put(entry.id(), entry);
+                for (String trigram : paddedTrigrams(entry.key())) {
+                    lists.computeIfAbsent(trigram, t -> new ArrayList<>()).add(entry);
+                }
+            }
+            Map<String, Entry[]> postings = new ConcurrentHashMap<>(lists.size() * 2);
+            lists.forEach((trigram, postingList) -> postings.put(trigram, postingList.toArray(Entry[]::new)));
+            Entry[] byProjectCount = entries.clone();
+            Arrays.sort(byProjectCount, BY_PROJECT_COUNT);
+            return new Snapshot(entries, byProjectCount, byId, postings);
+        }
+
+        /**
+         * @param previous the entry to remove, or null.
+         * @param updated the entry to add, or null.
+         * @return the snapshot with the change, sharing the maps with this one.
+         */
+        Snapshot replace(Entry previous, Entry updated) {
+            if (previous == null && updated == null) {
+                return this;
+            }
+            if (previous != null) {
+                byId.remove(previous.id());
+                for (String trigram : paddedTrigrams(previous.key())) {
+                    postings.computeIfPresent(trigram, (t, postingList) -> {
+                        Entry[] remaining = Arrays.stream(postingList).filter(entry -> entry != previous).toArray(Entry[]::new);
+                        return remaining.length == 0 ? null : remaining;
+                    });
+                }
+            }
+            if (updated != null) {
+                byId.put(updated.id(), updated);
+                for (String trigram : paddedTrigrams(updated.key())) {
+                    postings.merge(trigram, new Entry[] { updated }, (postingList, added) -> {
+                        Entry[] extended = Arrays.copyOf(postingList, postingList.length + 1);
+                        extended[postingList.length] = updated;
+                        return extended;
+                    });
+                }
+            }
+            return new Snapshot(
+                replace(entries, previous, updated, BY_KEY),
+                replace(byProjectCount, previous, updated, BY_PROJECT_COUNT),
+                byId,
+                postings
+            );
+        }
+
+        // retire et insère à leur place dans le tableau trié, sans le retrier
+        private static Entry[] replace(Entry[] sorted, Entry previous, Entry updated, Comparator<Entry> order) {
+            Entry[] result = sorted;
+            if (previous != null) {
+                int position = Arrays.binarySearch(result, previous, order);
+                if (position >= 0) {
+                    Entry[] shrunk = new Entry[result.length - 1];
+                    System.arraycopy(result, 0, shrunk, 0, position);
+                    System.arraycopy(result, position + 1, shrunk, position, result.length - position - 1);
+                    result = shrunk;
+                }
+            }
+            if (updated != null) {
+                int position = Arrays.binarySearch(result, updated, order);
+                int insertion = position >= 0 ? position : -position - 1;
+                Entry[] grown = new Entry[result.length + 1];
+                System.arraycopy(result, 0, grown, 0, insertion);
+                grown[insertion] = updated;
+                System.arraycopy(result, insertion, grown, insertion + 1, result.length - insertion);
+                result = grown;
+            }
+            return result;
+        }
+
+        // les listes de trigrammes sont partagées avec les snapshots suivants : une entrée trouvée par elles doit être dans celui-ci
+        private boolean contains(Entry entry) {
+            int position = Arrays.binarySearch(entries, entry, BY_KEY);
+            return position >= 0 && entries[position] == entry;
+        }
+
+        List<Entry> startingWith(String key) {
+            List<Entry> matches = new ArrayList<>();
+            for (int i = lowerBound(key); i < entries.length && entries[i].key().startsWith(key); i++) {
+                matches.add(entries[i]);
+            }
+            return matches;
+        }
+
+        List<Entry> containing(String key) {
+            List<Entry> matches = new ArrayList<>();
+            if (key.length() < TRIGRAM) {
+                for (Entry entry : entries) {
+                    if (entry.key().contains(key)) {
+                        matches.add(entry);
+                    }
+                }
+                return matches;
+            }
+            // candidats : les noms ayant le trigramme le plus rare de la requête, vérifiés ensuite
+            Entry[] rarest = null;
+            for (String trigram : trigrams(key)) {
+                Entry[] postingList = postings.get(trigram);
+                if (postingList == null) {
+                    return matches;
+                }
+                if (rarest == null || postingList.length < rarest.length) {
+                    rarest = postingList;
+                }
+            }
+            for (Entry entry : rarest) {
+                if (entry.key().contains(key) && contains(entry)) {
+                    matches.add(entry);
+                }
+            }
+            return matches;
+        }
+
+        List<Entry> similarTo(String key) {
+            Set<String> queryTrigrams = paddedTrigrams(key);
+            Map<Entry, Integer> shared = new IdentityHashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (Entry entry : postings.getOrDefault(trigram, NO_ENTRIES)) {
+                    shared.merge(entry, 1, Integer::sum);
+                }
+            }
+            Map<Entry, Double> similarities = new HashMap<>();
+            shared.forEach((entry, count) -> {
+                double similarity = (double) count / (queryTrigrams.size() + entry.trigramCount() - count);
+                if (similarity >= MIN_SIMILARITY && contains(entry)) {
+                    similarities.put(entry, similarity);
+                }
+            });
+            return similarities
+                .entrySet()
+                .stream()
+                .sorted(
+                    Map.Entry.<Entry, Double>comparingByValue()
+                        .reversed()
+                        .thenComparing(Map.Entry.comparingByKey(BY_PROJECT_COUNT))
+                )
+                .map(Map.Entry::getKey)
+                .toList();
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (entries[middle].key().compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.senprojectbackend1.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senprojectbackend1.domain.Tag;
+import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.service.dto.ProjectSubmissionDTO;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Case-insensitive dictionary of the tags, from their trimmed lower-case name to the tag.
+ * <p>
+ * The tags of a submission are resolved with at most three queries whatever their number: one lookup of the names
+ * not in the dictionary, one {@code INSERT ... ON CONFLICT DO NOTHING} of the missing ones, and one more lookup
+ * for those created meanwhile by a concurrent submission. The unique index on {@code LOWER(TRIM(name))} guarantees that
+ * concurrent submissions never create the same tag twice.
+ * <p>
+ * Tags written through {@link TagService} are written through the dictionary as well; the entries of other instances
+ * expire after {@link #TTL}.
+ */
+@Service
+public class TagDictionary {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TagDictionary.class);
+
+    private static final long MAX_SIZE = 10_000;
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private final TagRepository tagRepository;
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+
+    private final Cache<String, Tag> tagsByName = Caffeine.newBuilder().maximumSize(MAX_SIZE).expireAfterWrite(TTL).build();
+
+    public TagDictionary(TagRepository tagRepository, TagAutocompleteIndex tagAutocompleteIndex) {
+        this.tagRepository = tagRepository;
+        this.tagAutocompleteIndex = tagAutocompleteIndex;
+    }
+
+    /**
+     * Finds the tags of a submission, creating the missing ones.
+     *
+     * @param inputs the submitted tags; names differing only by case are the same tag.
+     * @return the tags, in the order of their first occurrence.
+     */
+    public Mono<List<Tag>> resolve(Collection<ProjectSubmissionDTO.TagInputDTO> inputs) {
+        Map<String, ProjectSubmissionDTO.TagInputDTO> byName = new LinkedHashMap<>();
+        for (ProjectSubmissionDTO.TagInputDTO input : inputs) {
+            if (input.getName() != null && !input.getName().isBlank()) {
+                byName.putIfAbsent(key(input.getName()), input);
+            }
+        }
+        Map<String, Tag> resolved = new ConcurrentHashMap<>();
+        byName.keySet().forEach(name -> {
+            Tag tag = tagsByName.getIfPresent(name);
+            if (tag != null) {
+                resolved.put(name, tag);
+            }
+        });
+        return Mono.just(missing(byName.keySet(), resolved))
+            .flatMap(names -> names.isEmpty() ? Mono.just(names) : find(names, resolved))
+            .flatMap(names -> names.isEmpty() ? Mono.just(names) : create(names, byName, resolved))
+            .flatMap(names -> names.isEmpty() ? Mono.just(names) : find(names, resolved))
+            .map(unresolved -> {
+                if (!unresolved.isEmpty()) {
+                    LOG.warn("Tags not resolved: {}", unresolved);
+                }
+                return byName.keySet().stream().map(resolved::get).filter(Objects::nonNull).toList();
+            });
+    }
+
+    /**
+     * Records a tag that was created, or read with its current name.
+     *
+     * @param tag the saved tag.
+     */
+    public void put(Tag tag) {
+        if (tag.getName() != null) {
+            tagsByName.put(key(tag.getName()), tag);
+        }
+    }
+
+    /**
+     * Forgets a tag that was deleted or renamed; scans the dictionary, for the rare writes of the tag administration.
+     *
+     * @param id the id of the tag.
+     */
+    public void evict(Long id) {
+        tagsByName.asMap().values().removeIf(tag -> Objects.equals(tag.getId(), id));
+    }
+
+    // cherche les noms en base et renvoie ceux qui n'existent pas encore
+    private Mono<List<String>> find(List<String> names, Map<String, Tag> resolved) {
+        return tagRepository
+            .findAllByLowerNames(names.toArray(new String[0]))
+            .doOnNext(tag -> record(tag, resolved))
+            .then(Mono.fromSupplier(() -> missing(names, resolved)));
+    }
+
+    private Mono<List<String>> create(
+        List<String> names,
+        Map<String, ProjectSubmissionDTO.TagInputDTO> byName,
+        Map<String, Tag> resolved
+    ) {
+        String[] submittedNames = new String[names.size()];
+        String[] colors = new String[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            ProjectSubmissionDTO.TagInputDTO input = byName.get(names.get(i));
+            submittedNames[i] = input.getName().trim();
+            colors[i] = input.getColor();
+        }
+        return tagRepository
+            .insertMissing(submittedNames, colors)
+            .doOnNext(tag -> LOG.debug("Tag created: {}", tag.getName()))
+            .doOnNext(tagAutocompleteIndex::upsert)
+            .doOnNext(tag -> record(tag, resolved))
+            .then(Mono.fromSupplier(() -> missing(names, resolved)));
+    }
+
+    private void record(Tag tag, Map<String, Tag> resolved) {
+        put(tag);
+        resolved.put(key(tag.getName()), tag);
+    }
+
+    private static List<String> missing(Collection<String> names, Map<String, Tag> resolved) {
+        return names.stream().filter(name -> !resolved.containsKey(name)).toList();
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -78,19 +78,21 @@ public interface TagService {
     Flux<TagDTO> findByProjectId(Long projectId);
 
     /**
-     * Get paginated tags with their project count.
+     * Get paginated tags with their project count, most used first, in a single query.
      *
      * @param page the page number (0-based)
      * @param size the page size
+     * @param publishedOnly whether to count only the published, non-deleted projects
      * @return a page of tags with their project count
      */
-    Mono<PageDTO<TagWithCountDTO>> getPaginatedTags(int page, int size);
+    Mono<PageDTO<TagWithCountDTO>> getPaginatedTags(int page, int size, boolean publishedOnly);
 
     /**
-     * Search tags by name (only non-forbidden tags).
+     * Search tags by name (only non-forbidden tags), for autocompletion: tags starting with the name first,
+     * then containing it, then close to it, each ordered by number of projects.
      *
      * @param name the name to search for
-     * @return the list of matching tags
+     * @return the list of matching tags, at most {@code application.tags.autocomplete-max-results}
      */
     Flux<TagDTO> searchByName(String name);
 }
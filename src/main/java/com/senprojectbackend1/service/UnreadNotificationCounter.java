@@ -0,0 +1,143 @@
+package com.senprojectbackend1.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.senprojectbackend1.repository.NotificationRepository;
+import java.time.Duration;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Number of unread notifications of each user, for the unread badge.
+ * <p>
+ * A count is read once from the partial index on {@code read_at IS NULL}, then kept up to date in memory by the writes
+ * of {@link NotificationService}, once committed: creations add to it, reads and deletions subtract from it. Writes whose
+ * effect on a count is not known (broadcasts, administration updates) drop the counts instead. Counts are read again from
+ * the database after {@link #TTL}, which bounds the drift caused by the writes of other instances.
+ * <p>
+ * A count being read is registered before the query: a write committed meanwhile may or may not be seen by the query,
+ * so the count read is then returned without being kept, and read again on next use.
+ */
+@Service
+public class UnreadNotificationCounter {
+
+    private static final long MAX_SIZE = 100_000;
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final NotificationRepository notificationRepository;
+
+    private final Cache<String, Count> countsByUser = Caffeine.newBuilder().maximumSize(MAX_SIZE).expireAfterWrite(TTL).build();
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * @param userId the id of the user.
+     * @return the number of unread notifications of the user.
+     */
+    public Mono<Long> get(String userId) {
+        Count count = countsByUser.get(userId, id -> new Count());
+        long version = count.version();
+        if (version == Count.LOADED) {
+            return Mono.just(count.get());
+        }
+        return notificationRepository
+            .countUnreadByUserId(userId)
+            .defaultIfEmpty(0L)
+            .map(unread -> count.load(version, unread));
+    }
+
+    /**
+     * Adds to the count of a user, if it is known.
+     *
+     * @param userId the id of the user.
+     * @param delta the number of notifications created, or minus the number of notifications read or deleted.
+     */
+    public void add(String userId, long delta) {
+        if (userId == null) {
+            return;
+        }
+        Count count = countsByUser.getIfPresent(userId);
+        if (count != null) {
+            count.add(delta);
+        }
+    }
+
+    /**
+     * Records that all the notifications of a user are read.
+     *
+     * @param userId the id of the user.
+     */
+    public void reset(String userId) {
+        countsByUser.put(userId, Count.loaded(0));
+    }
+
+    /**
+     * Drops the count of a user, read again from the database on next use.
+     *
+     * @param userId the id of the user.
+     */
+    public void evict(String userId) {
+        if (userId != null) {
+            Count count = countsByUser.asMap().remove(userId);
+            if (count != null) {
+                // une lecture en cours ne doit pas le réenregistrer
+                count.add(0);
+            }
+        }
+    }
+
+    /**
+     * Drops all the counts, after a write touching the notifications of many users.
+     */
+    public void evictAll() {
+        countsByUser.asMap().values().forEach(count -> count.add(0));
+        countsByUser.invalidateAll();
+    }
+
+    /**
+     * The count of a user, or while it is being read the number of writes seen since its registration.
+     */
+    private static final class Count {
+
+        static final long LOADED = -1;
+
+        private long unread;
+        private long version;
+
+        static Count loaded(long unread) {
+            Count count = new Count();
+            count.unread = unread;
+            count.version = LOADED;
+            return count;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        synchronized long get() {
+            return unread;
+        }
+
+        synchronized void add(long delta) {
+            if (version == LOADED) {
+                unread = Math.max(0, unread + delta);
+            } else {
+                version++;
+            }
+        }
+
+        /**
+         * @return the count read, kept only if no write was seen since the read started.
+         */
+        synchronized long load(long startVersion, long read) {
+            if (version == startVersion) {
+                unread = read;
+                version = LOADED;
+            }
+            return version == LOADED ? unread : read;
+        }
+    }
+}
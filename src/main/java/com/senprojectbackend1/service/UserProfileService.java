@@ -114,5 +114,14 @@ public interface UserProfileService {
      */
     Mono<UserProfileSimpleDTO> getUserProfileSimpleByLogin(String login);
 
+    /**
+     * Resolve the id of a user from their login, without loading the rest of the profile.
+     * Resolutions are cached and evicted when the profile is synchronized or updated.
+     *
+     * @param login the login of the user
+     * @return the id of the user, or empty if no profile exists for this login
+     */
+    Mono<String> getUserIdByLogin(String login);
+
     Mono<UserProfileDTO> updateCurrentUserProfile(Map<String, Object> updateDTO);
 }
@@ -0,0 +1,77 @@
+package com.senprojectbackend1.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Référence à un média envoyé, à reprendre dans les champs {@code mediaId} de {@link ProjectSubmissionDTO}.
+ */
+public class MediaDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private String url;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String contentType;
+    private long size;
+
+    public MediaDTO() {}
+
+    public MediaDTO(String id, String url, String thumbnailUrl, String cardUrl, String contentType, long size) {
+        this.id = id;
+        this.url = url;
+        this.thumbnailUrl = thumbnailUrl;
+        this.cardUrl = cardUrl;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
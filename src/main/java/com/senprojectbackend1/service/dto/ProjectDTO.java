@@ -27,6 +27,10 @@ public class ProjectDTO implements Serializable {
 
     private String showcase;
 
+    private String showcaseThumbnailUrl;
+
+    private String showcaseCardUrl;
+
     @NotNull(message = "must not be null")
     private ProjectStatus status;
 
@@ -108,6 +112,22 @@ public class ProjectDTO implements Serializable {
         this.showcase = showcase;
     }
 
+    public String getShowcaseThumbnailUrl() {
+        return showcaseThumbnailUrl;
+    }
+
+    public void setShowcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.showcaseThumbnailUrl = showcaseThumbnailUrl;
+    }
+
+    public String getShowcaseCardUrl() {
+        return showcaseCardUrl;
+    }
+
+    public void setShowcaseCardUrl(String showcaseCardUrl) {
+        this.showcaseCardUrl = showcaseCardUrl;
+    }
+
     public ProjectStatus getStatus() {
         return status;
     }
@@ -304,6 +324,8 @@ public class ProjectDTO implements Serializable {
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", showcase='" + getShowcase() + "'" +
+            ", showcaseThumbnailUrl='" + getShowcaseThumbnailUrl() + "'" +
+            ", showcaseCardUrl='" + getShowcaseCardUrl() + "'" +
             ", status='" + getStatus() + "'" +
             ", createdAt='" + getCreatedAt() + "'" +
             ", updatedAt='" + getUpdatedAt() + "'" +
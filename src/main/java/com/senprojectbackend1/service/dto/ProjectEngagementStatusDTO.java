@@ -0,0 +1,34 @@
+package com.senprojectbackend1.service.dto;
+
+/**
+ * Statut d'engagement (like/share/favori) de l'utilisateur courant pour un projet d'une liste.
+ */
+public class ProjectEngagementStatusDTO extends EngagementStatusDTO {
+
+    private Long projectId;
+    private boolean favorite;
+
+    public ProjectEngagementStatusDTO() {}
+
+    public ProjectEngagementStatusDTO(Long projectId, boolean like, boolean share, boolean favorite) {
+        super(like, share);
+        this.projectId = projectId;
+        this.favorite = favorite;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public boolean isFavorite() {
+        return favorite;
+    }
+
+    public void setFavorite(boolean favorite) {
+        this.favorite = favorite;
+    }
+}
@@ -16,6 +16,10 @@ public class ProjectGalleryDTO implements Serializable {
     @Size(max = 50000)
     private String imageUrl;
 
+    private String thumbnailUrl;
+
+    private String cardUrl;
+
     @Size(max = 500)
     private String description;
 
@@ -41,6 +45,22 @@ public class ProjectGalleryDTO implements Serializable {
         this.imageUrl = imageUrl;
     }
 
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardUrl() {
+        return cardUrl;
+    }
+
+    public void setCardUrl(String cardUrl) {
+        this.cardUrl = cardUrl;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -92,6 +112,8 @@ public class ProjectGalleryDTO implements Serializable {
         return "ProjectGalleryDTO{" +
             "id=" + getId() +
             ", imageUrl='" + getImageUrl() + "'" +
+            ", thumbnailUrl='" + getThumbnailUrl() + "'" +
+            ", cardUrl='" + getCardUrl() + "'" +
             ", description='" + getDescription() + "'" +
             ", order=" + getOrder() +
             ", project=" + getProject() +
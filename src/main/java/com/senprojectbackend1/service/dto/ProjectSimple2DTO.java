@@ -29,6 +29,10 @@ public class ProjectSimple2DTO implements Serializable {
     @Size(max = 255)
     private String showcase;
 
+    private String showcaseThumbnailUrl;
+
+    private String showcaseCardUrl;
+
     @NotNull(message = "must not be null")
     private ProjectStatus status;
 
@@ -82,6 +86,22 @@ public class ProjectSimple2DTO implements Serializable {
         this.showcase = showcase;
     }
 
+    public String getShowcaseThumbnailUrl() {
+        return showcaseThumbnailUrl;
+    }
+
+    public void setShowcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.showcaseThumbnailUrl = showcaseThumbnailUrl;
+    }
+
+    public String getShowcaseCardUrl() {
+        return showcaseCardUrl;
+    }
+
+    public void setShowcaseCardUrl(String showcaseCardUrl) {
+        this.showcaseCardUrl = showcaseCardUrl;
+    }
+
     public ProjectStatus getStatus() {
         return status;
     }
@@ -190,6 +210,8 @@ public class ProjectSimple2DTO implements Serializable {
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", showcase='" + getShowcase() + "'" +
+            ", showcaseThumbnailUrl='" + getShowcaseThumbnailUrl() + "'" +
+            ", showcaseCardUrl='" + getShowcaseCardUrl() + "'" +
             ", status='" + getStatus() + "'" +
             ", openToCollaboration='" + getOpenToCollaboration() + "'" +
             ", openToFunding='" + getOpenToFunding() + "'" +
@@ -29,6 +29,10 @@ public class ProjectSimpleDTO implements Serializable {
     @Size(max = 255)
     private String showcase;
 
+    private String showcaseThumbnailUrl;
+
+    private String showcaseCardUrl;
+
     @NotNull(message = "must not be null")
     private ProjectStatus status;
 
@@ -96,6 +100,22 @@ public class ProjectSimpleDTO implements Serializable {
         this.showcase = showcase;
     }
 
+    public String getShowcaseThumbnailUrl() {
+        return showcaseThumbnailUrl;
+    }
+
+    public void setShowcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.showcaseThumbnailUrl = showcaseThumbnailUrl;
+    }
+
+    public String getShowcaseCardUrl() {
+        return showcaseCardUrl;
+    }
+
+    public void setShowcaseCardUrl(String showcaseCardUrl) {
+        this.showcaseCardUrl = showcaseCardUrl;
+    }
+
     public ProjectStatus getStatus() {
         return status;
     }
@@ -213,6 +233,8 @@ public class ProjectSimpleDTO implements Serializable {
             ", title='" + getTitle() + "'" +
             ", description='" + getDescription() + "'" +
             ", showcase='" + getShowcase() + "'" +
+            ", showcaseThumbnailUrl='" + getShowcaseThumbnailUrl() + "'" +
+            ", showcaseCardUrl='" + getShowcaseCardUrl() + "'" +
             ", status='" + getStatus() + "'" +
             ", openToCollaboration='" + getOpenToCollaboration() + "'" +
             ", openToFunding='" + getOpenToFunding() + "'" +
@@ -1,8 +1,11 @@
 package com.senprojectbackend1.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.senprojectbackend1.domain.enumeration.LinkType;
 import com.senprojectbackend1.domain.enumeration.ProjectStatus;
 import com.senprojectbackend1.domain.enumeration.ProjectType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.io.Serializable;
@@ -24,6 +27,14 @@ public class ProjectSubmissionDTO implements Serializable {
 
     private String showcase;
 
+    // média envoyé par /api/media, prioritaire sur showcase
+    private String showcaseMediaId;
+
+    // déclinaisons du showcase, renseignées à l'envoi de l'image
+    private String showcaseThumbnailUrl;
+
+    private String showcaseCardUrl;
+
     private ProjectType type;
 
     private Boolean openToCollaboration = false;
@@ -36,6 +47,7 @@ public class ProjectSubmissionDTO implements Serializable {
 
     private List<SectionDTO> sections;
 
+    @Valid
     private List<GalleryImageDTO> galleryImages;
 
     private List<ExternalLinkDTO> externalLinks;
@@ -71,6 +83,30 @@ public class ProjectSubmissionDTO implements Serializable {
         this.showcase = showcase;
     }
 
+    public String getShowcaseMediaId() {
+        return showcaseMediaId;
+    }
+
+    public void setShowcaseMediaId(String showcaseMediaId) {
+        this.showcaseMediaId = showcaseMediaId;
+    }
+
+    public String getShowcaseThumbnailUrl() {
+        return showcaseThumbnailUrl;
+    }
+
+    public void setShowcaseThumbnailUrl(String showcaseThumbnailUrl) {
+        this.showcaseThumbnailUrl = showcaseThumbnailUrl;
+    }
+
+    public String getShowcaseCardUrl() {
+        return showcaseCardUrl;
+    }
+
+    public void setShowcaseCardUrl(String showcaseCardUrl) {
+        this.showcaseCardUrl = showcaseCardUrl;
+    }
+
     public ProjectType getType() {
         return type;
     }
@@ -173,6 +209,10 @@ public class ProjectSubmissionDTO implements Serializable {
         @Size(max = 255)
         private String mediaUrl;
 
+        // média envoyé par /api/media, prioritaire sur mediaUrl
+        @Size(max = 36)
+        private String mediaId;
+
         // Getters et setters
         public String getTitle() {
             return title;
@@ -197,14 +237,33 @@ public class ProjectSubmissionDTO implements Serializable {
         public void setMediaUrl(String mediaUrl) {
             this.mediaUrl = mediaUrl;
         }
+
+        public String getMediaId() {
+            return mediaId;
+        }
+
+        public void setMediaId(String mediaId) {
+            this.mediaId = mediaId;
+        }
     }
 
     public static class GalleryImageDTO implements Serializable {
 
-        @NotNull
+        // requis, sauf si mediaId est renseigné
         @Size(max = 255)
         private String imageUrl;
 
+        // média envoyé par /api/media, prioritaire sur imageUrl
+        @Size(max = 36)
+        private String mediaId;
+
+        // déclinaisons de l'image, renseignées à l'envoi de l'image
+        @Size(max = 255)
+        private String thumbnailUrl;
+
+        @Size(max = 255)
+        private String cardUrl;
+
         @Size(max = 500)
         private String description;
 
@@ -217,6 +276,30 @@ public class ProjectSubmissionDTO implements Serializable {
             this.imageUrl = imageUrl;
         }
 
+        public String getThumbnailUrl() {
+            return thumbnailUrl;
+        }
+
+        public void setThumbnailUrl(String thumbnailUrl) {
+            this.thumbnailUrl = thumbnailUrl;
+        }
+
+        public String getCardUrl() {
+            return cardUrl;
+        }
+
+        public void setCardUrl(String cardUrl) {
+            this.cardUrl = cardUrl;
+        }
+
+        public String getMediaId() {
+            return mediaId;
+        }
+
+        public void setMediaId(String mediaId) {
+            this.mediaId = mediaId;
+        }
+
         public String getDescription() {
             return description;
         }
@@ -224,6 +307,12 @@ public class ProjectSubmissionDTO implements Serializable {
         public void setDescription(String description) {
             this.description = description;
         }
+
+        @JsonIgnore
+        @AssertTrue(message = "imageUrl or mediaId is required")
+        public boolean isImageUrlOrMediaIdPresent() {
+            return imageUrl != null || mediaId != null;
+        }
     }
 
     public static class ExternalLinkDTO implements Serializable {
@@ -0,0 +1,98 @@
+package com.senprojectbackend1.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Differences between the children of a project as stored and as submitted (sections, gallery images, links).
+ * <p>
+ * A submitted child whose content is identical to a stored one keeps its row, and is only rewritten when its position
+ * changed. The other submitted children take, in order, the rows of the stored children left over and rewrite them;
+ * those beyond are inserted, and the stored children still left over are deleted.
+ *
+ * @param <T> the type of the child entity.
+ */
+final class ChildCollectionDiff<T> {
+
+    private final List<T> inserts = new ArrayList<>();
+    private final List<T> updates = new ArrayList<>();
+    private final List<Long> deletedIds = new ArrayList<>();
+
+    private ChildCollectionDiff() {}
+
+    /**
+     * @param stored the children in the database, in their current order.
+     * @param submitted the children of the submission, without ids; the id of the row they take is set on them.
+     * @param idOf the id of a child.
+     * @param setId sets the id of a child.
+     * @param contentOf the content of a child, without its id nor its position; compared with {@code equals}.
+     * @param positionOf the position of a child, {@code null} for the children without order.
+     */
+    static <T> ChildCollectionDiff<T> of(
+        List<T> stored,
+        List<T> submitted,
+        Function<T, Long> idOf,
+        BiConsumer<T, Long> setId,
+        Function<T, ?> contentOf,
+        Function<T, Integer> positionOf
+    ) {
+        ChildCollectionDiff<T> diff = new ChildCollectionDiff<>();
+        Map<Object, Deque<T>> storedByContent = new HashMap<>();
+        stored.forEach(child -> storedByContent.computeIfAbsent(contentOf.apply(child), content -> new ArrayDeque<>()).add(child));
+
+        Set<T> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> changed = new ArrayList<>();
+        for (T child : submitted) {
+            Deque<T> same = storedByContent.get(contentOf.apply(child));
+            T match = same != null ? same.poll() : null;
+            if (match == null) {
+                changed.add(child);
+                continue;
+            }
+            taken.add(match);
+            setId.accept(child, idOf.apply(match));
+            if (!Objects.equals(positionOf.apply(child), positionOf.apply(match))) {
+                diff.updates.add(child);
+            }
+        }
+
+        Iterator<T> leftOver = stored.stream().filter(child -> !taken.contains(child)).iterator();
+        for (T child : changed) {
+            if (leftOver.hasNext()) {
+                setId.accept(child, idOf.apply(leftOver.next()));
+                diff.updates.add(child);
+            } else {
+                diff.inserts.add(child);
+            }
+        }
+        leftOver.forEachRemaining(child -> diff.deletedIds.add(idOf.apply(child)));
+        return diff;
+    }
+
+    List<T> inserts() {
+        return inserts;
+    }
+
+    List<T> updates() {
+        return updates;
+    }
+
+    List<Long> deletedIds() {
+        return deletedIds;
+    }
+
+    boolean isEmpty() {
+        return inserts.isEmpty() && updates.isEmpty() && deletedIds.isEmpty();
+    }
+}
@@ -9,7 +9,6 @@ import com.senprojectbackend1.domain.enumeration.NotificationType;
 import com.senprojectbackend1.repository.CommentRepository;
 import com.senprojectbackend1.repository.EngagementProjectRepository;
 import com.senprojectbackend1.repository.ProjectRepository;
-import com.senprojectbackend1.repository.TeamMembershipRepository;
 import com.senprojectbackend1.repository.UserProfileRepository;
 import com.senprojectbackend1.service.CommentService;
 import com.senprojectbackend1.service.NotificationService;
@@ -46,7 +45,6 @@ public class CommentServiceImpl implements CommentService {
     private final UserProfileRepository userProfileRepository;
     private final ProjectRepository projectRepository;
     private final EngagementProjectRepository engagementProjectRepository;
-    private final TeamMembershipRepository teamMembershipRepository;
     private final NotificationService notificationService;
     private final ProjectMapper projectMapper;
     private final UserProfileMapper userProfileMapper;
@@ -57,7 +55,6 @@ public class CommentServiceImpl implements CommentService {
         UserProfileRepository userProfileRepository,
         ProjectRepository projectRepository,
         EngagementProjectRepository engagementProjectRepository,
-        TeamMembershipRepository teamMembershipRepository,
         NotificationService notificationService,
         ProjectMapper projectMapper,
         UserProfileMapper userProfileMapper
@@ -67,7 +64,6 @@ public class CommentServiceImpl implements CommentService {
         this.userProfileRepository = userProfileRepository;
         this.projectRepository = projectRepository;
         this.engagementProjectRepository = engagementProjectRepository;
-        this.teamMembershipRepository = teamMembershipRepository;
         this.notificationService = notificationService;
         this.projectMapper = projectMapper;
         this.userProfileMapper = userProfileMapper;
@@ -222,17 +218,14 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private Mono<Void> notifyTeamMembers(com.senprojectbackend1.domain.Project project, String content, Long projectId) {
-        if (project.getTeam() != null && project.getTeam().getId() != null) {
-            return teamMembershipRepository
-                .findAll()
-                .filter(membership -> membership.getTeamId().equals(project.getTeam().getId()))
-                .flatMap(membership ->
-                    notificationService.createNotification(
-                        membership.getMembersId(),
-                        "Nouveau commentaire sur le projet '" + project.getTitle() + "' : " + content,
-                        NotificationType.PROJECT_COMMENT,
-                        projectId.toString()
-                    )
+        if (project.getTeamId() != null) {
+            return notificationService
+                .createTeamNotifications(
+                    project.getTeamId(),
+                    "Nouveau commentaire sur le projet '" + project.getTitle() + "' : " + content,
+                    NotificationType.PROJECT_COMMENT,
+                    projectId.toString(),
+                    null
                 )
                 .then();
         }
@@ -2,15 +2,17 @@ package com.senprojectbackend1.service.impl;
 
 import com.senprojectbackend1.domain.EngagementProject;
 import com.senprojectbackend1.domain.criteria.EngagementProjectCriteria;
-import com.senprojectbackend1.domain.enumeration.EngagementType;
 import com.senprojectbackend1.repository.EngagementProjectRepository;
-import com.senprojectbackend1.repository.ProjectRepository;
+import com.senprojectbackend1.service.EngagementCounterBuffer;
+import com.senprojectbackend1.service.EngagementCounterBuffer.Counter;
 import com.senprojectbackend1.service.EngagementProjectService;
 import com.senprojectbackend1.service.UserProfileService;
 import com.senprojectbackend1.service.dto.EngagementProjectDTO;
+import com.senprojectbackend1.service.dto.ProjectEngagementStatusDTO;
 import com.senprojectbackend1.service.exception.ProjectBusinessException;
 import com.senprojectbackend1.service.mapper.EngagementProjectMapper;
 import java.time.Instant;
+import java.util.Collection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -31,19 +33,19 @@ public class EngagementProjectServiceImpl implements EngagementProjectService {
 
     private final EngagementProjectRepository engagementProjectRepository;
     private final EngagementProjectMapper engagementProjectMapper;
-    private final ProjectRepository projectRepository;
     private final UserProfileService userProfileService;
+    private final EngagementCounterBuffer engagementCounterBuffer;
 
     public EngagementProjectServiceImpl(
         EngagementProjectRepository engagementProjectRepository,
         EngagementProjectMapper engagementProjectMapper,
-        ProjectRepository projectRepository,
-        UserProfileService userProfileService
+        UserProfileService userProfileService,
+        EngagementCounterBuffer engagementCounterBuffer
     ) {
         this.engagementProjectRepository = engagementProjectRepository;
         this.engagementProjectMapper = engagementProjectMapper;
-        this.projectRepository = projectRepository;
         this.userProfileService = userProfileService;
+        this.engagementCounterBuffer = engagementCounterBuffer;
     }
 
     @Override
@@ -121,75 +123,35 @@ public class EngagementProjectServiceImpl implements EngagementProjectService {
         LOG.debug("Service request to create Project engagement : projectId={}, type={}, login={}", projectId, type, login);
 
         return userProfileService
-            .getUserProfileSimpleByLogin(login)
-            .flatMap(userProfile -> {
-                if (userProfile == null) {
-                    LOG.error("User profile not found for login: {}", login);
-                    return Mono.error(new ProjectBusinessException("User profile not found"));
-                }
-
-                String userId = userProfile.getId();
-
-                return engagementProjectRepository
-                    .findAllEngagementsByUserIdAndProjectIdAndType(userId, projectId, type)
-                    .collectList()
-                    .flatMap(existingEngagements -> {
-                        if (type.equals("LIKE")) {
-                            if (!existingEngagements.isEmpty()) {
-                                // S'il y a plusieurs likes, on les supprime tous (toggle off)
-                                return engagementProjectRepository
-                                    .deleteAll(existingEngagements)
-                                    .then(projectRepository.decrementTotalLikes(projectId))
+            .getUserIdByLogin(login)
+            .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found")))
+            .flatMap(userId -> {
+                if (type.equals("LIKE")) {
+                    // Toggle : on retire le like s'il existe, sinon on le crée (la contrainte unique empêche les doublons)
+                    return engagementProjectRepository
+                        .deleteEngagement(userId, projectId, type)
+                        .flatMap(deleted -> {
+                            if (deleted > 0) {
+                                return engagementCounterBuffer
+                                    .add(projectId, Counter.LIKES, -deleted.intValue())
                                     .then(Mono.<EngagementProjectDTO>empty());
-                            } else {
-                                // Aucun like, on en crée un
-                                EngagementProject engagement = new EngagementProject();
-                                engagement.setType(EngagementType.LIKE);
-                                engagement.setCreatedAt(Instant.now());
-                                engagement.setUserId(userId);
-                                engagement.setProjectId(projectId);
-
-                                return engagementProjectRepository
-                                    .save(engagement)
-                                    .flatMap(savedEngagement ->
-                                        projectRepository
-                                            .incrementTotalLikes(projectId)
-                                            .thenReturn(engagementProjectMapper.toDto(savedEngagement))
-                                    );
                             }
-                        } else if (type.equals("SHARE")) {
-                            if (!existingEngagements.isEmpty()) {
-                                // S'il y a plusieurs shares, on ne garde qu'un seul, on supprime les autres
-                                if (existingEngagements.size() > 1) {
-                                    return engagementProjectRepository
-                                        .deleteAll(existingEngagements.subList(1, existingEngagements.size()))
-                                        .then(Mono.just(engagementProjectMapper.toDto(existingEngagements.get(0))));
-                                } else {
-                                    // Un seul share existe déjà, on ne fait rien
-                                    return Mono.<EngagementProjectDTO>empty();
-                                }
-                            } else {
-                                // Aucun share, on en crée un
-                                EngagementProject engagement = new EngagementProject();
-                                engagement.setType(EngagementType.SHARE);
-                                engagement.setCreatedAt(Instant.now());
-                                engagement.setUserId(userId);
-                                engagement.setProjectId(projectId);
-
-                                return engagementProjectRepository
-                                    .save(engagement)
-                                    .flatMap(savedEngagement ->
-                                        projectRepository
-                                            .incrementTotalShares(projectId)
-                                            .thenReturn(engagementProjectMapper.toDto(savedEngagement))
-                                    );
-                            }
-                        }
-                        return Mono.error(new ProjectBusinessException("Invalid engagement type"));
-                    });
+                            return insertEngagement(userId, projectId, type, Counter.LIKES);
+                        });
+                } else if (type.equals("SHARE")) {
+                    // Un seul share par utilisateur : s'il existe déjà, on ne fait rien
+                    return insertEngagement(userId, projectId, type, Counter.SHARES);
+                }
+                return Mono.error(new ProjectBusinessException("Invalid engagement type"));
             });
     }
 
+    private Mono<EngagementProjectDTO> insertEngagement(String userId, Long projectId, String type, Counter counter) {
+        return engagementProjectRepository
+            .insertIfAbsent(userId, projectId, type, Instant.now())
+            .flatMap(inserted -> engagementCounterBuffer.increment(projectId, counter).thenReturn(engagementProjectMapper.toDto(inserted)));
+    }
+
     /**
      * Retourne le statut d'engagement (like/share) d'un utilisateur pour un projet donné.
      *
@@ -200,35 +162,24 @@ public class EngagementProjectServiceImpl implements EngagementProjectService {
     @Override
     public Mono<com.senprojectbackend1.service.dto.EngagementStatusDTO> getUserEngagementStatus(Long projectId, String login) {
         return userProfileService
-            .getUserProfileSimpleByLogin(login)
-            .flatMap(userProfile -> {
-                if (userProfile == null) {
-                    LOG.error("User profile not found for login: {}", login);
-                    return Mono.error(new ProjectBusinessException("User profile not found"));
-                }
-                String userId = userProfile.getId();
-                Mono<Boolean> likeMono = engagementProjectRepository
-                    .findAllEngagementsByUserIdAndProjectIdAndType(userId, projectId, "LIKE")
-                    .collectList()
-                    .flatMap(list -> {
-                        if (list.size() > 1) {
-                            // Supprimer les doublons, ne garder qu'un seul
-                            return engagementProjectRepository.deleteAll(list.subList(1, list.size())).thenReturn(true);
-                        }
-                        return Mono.just(!list.isEmpty());
-                    });
-                Mono<Boolean> shareMono = engagementProjectRepository
-                    .findAllEngagementsByUserIdAndProjectIdAndType(userId, projectId, "SHARE")
-                    .collectList()
-                    .flatMap(list -> {
-                        if (list.size() > 1) {
-                            return engagementProjectRepository.deleteAll(list.subList(1, list.size())).thenReturn(true);
-                        }
-                        return Mono.just(!list.isEmpty());
-                    });
-                return Mono.zip(likeMono, shareMono).map(tuple ->
-                    new com.senprojectbackend1.service.dto.EngagementStatusDTO(tuple.getT1(), tuple.getT2())
-                );
-            });
+            .getUserIdByLogin(login)
+            .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found")))
+            .flatMap(userId -> engagementProjectRepository.findEngagementStatus(userId, projectId))
+            .map(status -> new com.senprojectbackend1.service.dto.EngagementStatusDTO(status.liked(), status.shared()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ProjectEngagementStatusDTO> getUserEngagementStatuses(Collection<Long> projectIds, String login) {
+        LOG.debug("Service request to get engagement statuses : projectIds={}, login={}", projectIds, login);
+        if (projectIds.isEmpty()) {
+            return Flux.empty();
+        }
+        Long[] ids = projectIds.stream().distinct().toArray(Long[]::new);
+        return userProfileService
+            .getUserIdByLogin(login)
+            .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found")))
+            .flatMapMany(userId -> engagementProjectRepository.findEngagementStatuses(userId, ids))
+            .map(status -> new ProjectEngagementStatusDTO(status.projectId(), status.liked(), status.shared(), status.favorited()));
     }
 }
@@ -1,22 +1,36 @@
 package com.senprojectbackend1.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.senprojectbackend1.broker.NotificationBrokerService;
+import com.senprojectbackend1.broker.converter.NotificationConverter;
+import com.senprojectbackend1.broker.dto.NotificationMessage;
+import com.senprojectbackend1.config.ApplicationProperties;
 import com.senprojectbackend1.domain.Notification;
-import com.senprojectbackend1.domain.UserProfile;
 import com.senprojectbackend1.domain.criteria.NotificationCriteria;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
+import com.senprojectbackend1.repository.BroadcastChunkProjection;
 import com.senprojectbackend1.repository.NotificationRepository;
 import com.senprojectbackend1.repository.UserProfileRepository;
 import com.senprojectbackend1.security.SecurityUtils;
 import com.senprojectbackend1.service.NotificationService;
+import com.senprojectbackend1.service.UnreadNotificationCounter;
+import com.senprojectbackend1.service.dto.NotificationBroadcastDTO;
 import com.senprojectbackend1.service.dto.NotificationDTO;
 import com.senprojectbackend1.service.mapper.NotificationMapper;
+import com.senprojectbackend1.service.util.AfterCommit;
+import jakarta.annotation.PreDestroy;
 import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -30,32 +44,65 @@ public class NotificationServiceImpl implements NotificationService {
     private final NotificationBrokerService notificationBrokerService;
     private final NotificationRepository notificationRepository;
     private final UserProfileRepository userProfileRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
     private static final Logger LOG = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
     private final NotificationMapper notificationMapper;
+    private final NotificationConverter notificationConverter;
+
+    private final ApplicationProperties.NotificationBroadcast broadcastProperties;
+    private final int streamReplayLimit;
+
+    // avancement des diffusions, gardé job-retention après la dernière mise à jour
+    private final Cache<String, NotificationBroadcastDTO> broadcasts;
+    // diffusions en cours, arrêtées à l'extinction
+    private final Disposable.Composite runningBroadcasts = Disposables.composite();
 
     public NotificationServiceImpl(
         NotificationBrokerService notificationBrokerService,
         NotificationRepository notificationRepository,
         UserProfileRepository userProfileRepository,
-        NotificationMapper notificationMapper
+        UnreadNotificationCounter unreadNotificationCounter,
+        NotificationMapper notificationMapper,
+        NotificationConverter notificationConverter,
+        ApplicationProperties applicationProperties
     ) {
         this.notificationBrokerService = notificationBrokerService;
         this.notificationRepository = notificationRepository;
         this.userProfileRepository = userProfileRepository;
+        this.unreadNotificationCounter = unreadNotificationCounter;
         this.notificationMapper = notificationMapper;
+        this.notificationConverter = notificationConverter;
+        this.broadcastProperties = applicationProperties.getNotificationBroadcast();
+        this.streamReplayLimit = applicationProperties.getNotificationStream().getReplayLimit();
+        this.broadcasts = Caffeine.newBuilder().expireAfterWrite(broadcastProperties.getJobRetention()).build();
+    }
+
+    /**
+     * Stops the running broadcasts. Their jobs are marked failed and the users left are logged: the job is not resumed
+     * by the next instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        runningBroadcasts.dispose();
     }
 
     @Override
     public Mono<NotificationDTO> save(NotificationDTO notificationDTO) {
         LOG.debug("Request to save Notification : {}", notificationDTO);
-        return notificationRepository.save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
+        return notificationRepository
+            .save(notificationMapper.toEntity(notificationDTO))
+            .delayUntil(notification -> AfterCommit.run(() -> unreadNotificationCounter.evict(notification.getUserId())))
+            .map(notificationMapper::toDto);
     }
 
     @Override
     public Mono<NotificationDTO> update(NotificationDTO notificationDTO) {
         LOG.debug("Request to update Notification : {}", notificationDTO);
-        return notificationRepository.save(notificationMapper.toEntity(notificationDTO)).map(notificationMapper::toDto);
+        return notificationRepository
+            .save(notificationMapper.toEntity(notificationDTO))
+            .delayUntil(notification -> AfterCommit.run(() -> unreadNotificationCounter.evict(notification.getUserId())))
+            .map(notificationMapper::toDto);
     }
 
     @Override
@@ -70,6 +117,7 @@ public class NotificationServiceImpl implements NotificationService {
                 return existingNotification;
             })
             .flatMap(notificationRepository::save)
+            .delayUntil(notification -> AfterCommit.run(() -> unreadNotificationCounter.evict(notification.getUserId())))
             .map(notificationMapper::toDto);
     }
 
@@ -104,7 +152,11 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public Mono<Void> delete(Long id) {
         LOG.debug("Request to delete Notification : {}", id);
-        return notificationRepository.deleteById(id);
+        // la ligne supprimée, et non une lecture préalable, dit si le compteur baisse : une suppression concurrente ne compte qu'une fois
+        return notificationRepository
+            .deleteByIdReturning(id)
+            .flatMap(deleted -> AfterCommit.run(() -> unreadNotificationCounter.add(deleted.getUserId(), -unread(deleted))))
+            .then();
     }
 
     /**
@@ -131,14 +183,26 @@ public class NotificationServiceImpl implements NotificationService {
 
         return notificationRepository
             .save(notification)
-            .doOnSuccess(savedNotification -> {
-                LOG.info("Notification created successfully: {}", savedNotification);
-                // Envoyer la notification via le broker
-                notificationBrokerService.sendNotification(savedNotification);
-            })
+            .doOnNext(savedNotification -> LOG.info("Notification created successfully: {}", savedNotification))
+            // Envoyer la notification via le broker, une fois visible en base : un client reconnecté ne la voit qu'une fois
+            .delayUntil(savedNotification -> publishAfterCommit(List.of(savedNotification)))
             .doOnError(error -> LOG.error("Error creating notification: {}", error.getMessage()));
     }
 
+    @Override
+    public Flux<Notification> createTeamNotifications(Long teamId, String content, NotificationType type, String entityId, String action) {
+        LOG.debug("Request to create Notifications for team: {}, type: {}, entityId: {}, action: {}", teamId, type, entityId, action);
+        if (teamId == null) {
+            return Flux.empty();
+        }
+        return notificationRepository
+            .insertForAcceptedTeamMembers(teamId, content, Instant.now(), type, entityId, action)
+            .collectList()
+            .delayUntil(this::publishAfterCommit)
+            .flatMapMany(Flux::fromIterable)
+            .doOnError(error -> LOG.error("Error creating team notifications: {}", error.getMessage()));
+    }
+
     /**
      * Create a notification for a user
      *
@@ -161,12 +225,11 @@ public class NotificationServiceImpl implements NotificationService {
      */
     @Override
     public Mono<Notification> markAsRead(Long id) {
+        // seule la requête qui passe read_at de NULL à une date fait baisser le compteur, même si deux lectures se croisent
         return notificationRepository
-            .findById(id)
-            .flatMap(notification -> {
-                notification.setReadAt(Instant.now());
-                return notificationRepository.save(notification);
-            });
+            .markAsReadIfUnread(id, Instant.now())
+            .delayUntil(read -> AfterCommit.run(() -> unreadNotificationCounter.add(read.getUserId(), -1)))
+            .switchIfEmpty(Mono.defer(() -> notificationRepository.findById(id)));
     }
 
     /**
@@ -181,47 +244,184 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     /**
-     * Get all notifications for a user
+     * Get a page of the inbox of a user, by cursor on (created_at, id): the cost of a page does not depend on its
+     * position in the history.
      *
      * @param userId The user ID
-     * @return A flux of notifications
+     * @param size The number of notifications of the page
+     * @param afterCreatedAt The creation date of the last notification of the previous page (optional)
+     * @param afterId The ID of the last notification of the previous page (optional)
+     * @return A flux of notifications, from the newest to the oldest
      */
     @Override
-    public Flux<Notification> getAllNotificationsForUser(String userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public Flux<Notification> getNotificationsForUser(String userId, int size, Instant afterCreatedAt, Long afterId) {
+        if (afterCreatedAt != null && afterId != null) {
+            return notificationRepository.findInboxPageAfter(userId, afterCreatedAt, afterId, size);
+        }
+        return notificationRepository.findInboxPage(userId, size);
     }
 
     @Override
-    public Mono<Notification> createSystemNotification(String message, NotificationType type) {
+    public Mono<NotificationBroadcastDTO> createSystemNotification(String message, NotificationType type) {
         LOG.debug("Request to create system notification: {}, type: {}", message, type);
+        return broadcastNotification(message, type, null, null);
+    }
+
+    @Override
+    public Mono<NotificationBroadcastDTO> broadcastNotification(String content, NotificationType type, String entityId, String action) {
+        LOG.debug("Request to broadcast notification, type: {}, entityId: {}, action: {}", type, entityId, action);
         return userProfileRepository
-            .findAll()
-            .flatMap(user -> createNotification(user.getId(), message, type, null))
-            .collectList()
-            .flatMap(notifications -> {
-                if (notifications.isEmpty()) {
-                    return Mono.empty();
+            .count()
+            .map(total -> {
+                NotificationBroadcastDTO job = new NotificationBroadcastDTO();
+                job.setId(UUID.randomUUID().toString());
+                job.setContent(content);
+                job.setType(type);
+                job.setStatus(NotificationBroadcastDTO.Status.RUNNING);
+                job.setTotal(total);
+                job.setStartedAt(Instant.now());
+                broadcasts.put(job.getId(), copy(job));
+                // la diffusion continue en arrière-plan, hors de la requête qui l'a lancée
+                Disposable.Swap running = Disposables.swap();
+                runningBroadcasts.add(running);
+                running.update(runBroadcast(job, entityId, action).doFinally(signal -> runningBroadcasts.remove(running)).subscribe());
+                return copy(job);
+            });
+    }
+
+    @Override
+    public Mono<NotificationBroadcastDTO> findBroadcast(String id) {
+        return Mono.justOrEmpty(broadcasts.getIfPresent(id)).map(NotificationServiceImpl::copy);
+    }
+
+    /**
+     * Inserts the notification for all users, one chunk of users after the other, so that a broadcast holds
+     * a single connection at a time. Each chunk is committed on its own, outside of any transaction, then its rows are
+     * published to their users with their ids: a stream reconnecting with {@code Last-Event-ID} does not get them twice.
+     */
+    private Mono<Void> runBroadcast(NotificationBroadcastDTO job, String entityId, String action) {
+        int chunkSize = broadcastProperties.getChunkSize();
+        return insertChunk(job, "", chunkSize, entityId, action)
+            .expand(chunk ->
+                chunk.inserted() < chunkSize ? Mono.empty() : insertChunk(job, chunk.lastUserId(), chunkSize, entityId, action)
+            )
+            .then(
+                Mono.fromRunnable(() -> {
+                    job.setStatus(NotificationBroadcastDTO.Status.COMPLETED);
+                    job.setFinishedAt(Instant.now());
+                    broadcasts.put(job.getId(), copy(job));
+                    LOG.info("Broadcast {} notified {} users", job.getId(), job.getInserted());
+                })
+            )
+            .doOnCancel(() -> {
+                LOG.warn("Broadcast {} stopped by shutdown after {} of {} users", job.getId(), job.getInserted(), job.getTotal());
+                job.setStatus(NotificationBroadcastDTO.Status.FAILED);
+                job.setFinishedAt(Instant.now());
+                job.setError("Interrupted by shutdown");
+                broadcasts.put(job.getId(), copy(job));
+            })
+            .onErrorResume(error -> {
+                LOG.error("Broadcast {} failed after {} users: {}", job.getId(), job.getInserted(), error.getMessage());
+                job.setStatus(NotificationBroadcastDTO.Status.FAILED);
+                job.setFinishedAt(Instant.now());
+                job.setError(error.getMessage());
+                broadcasts.put(job.getId(), copy(job));
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private Mono<BroadcastChunkProjection> insertChunk(
+        NotificationBroadcastDTO job,
+        String afterUserId,
+        int chunkSize,
+        String entityId,
+        String action
+    ) {
+        return notificationRepository
+            .insertForUsersAfter(afterUserId, chunkSize, job.getContent(), job.getStartedAt(), job.getType(), entityId, action)
+            .doOnNext(chunk -> {
+                // chaque lot ajoute une notification non lue à ses seuls utilisateurs
+                chunk.userIds().forEach(unreadNotificationCounter::evict);
+                job.setInserted(job.getInserted() + chunk.inserted());
+                broadcasts.put(job.getId(), copy(job));
+                for (int i = 0; i < chunk.userIds().size(); i++) {
+                    notificationBrokerService.sendNotificationMessage(
+                        new NotificationMessage(
+                            chunk.notificationIds().get(i),
+                            job.getContent(),
+                            job.getStartedAt(),
+                            null,
+                            job.getType(),
+                            entityId,
+                            action,
+                            chunk.userIds().get(i)
+                        )
+                    );
                 }
-                return Mono.just(notifications.get(0));
             });
     }
 
+    // compteurs et flux ne voient une notification créée qu'une fois validée : une annulation ne laisse ni badge ni message
+    private Mono<Void> publishAfterCommit(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return Mono.empty();
+        }
+        return AfterCommit.run(() -> {
+            notifications.forEach(notification -> unreadNotificationCounter.add(notification.getUserId(), 1));
+            notificationBrokerService.sendNotifications(notifications);
+        });
+    }
+
+    private static long unread(Notification notification) {
+        return notification.getReadAt() == null ? 1 : 0;
+    }
+
+    // le job est modifié par une seule chaîne séquentielle ; les lecteurs reçoivent des copies
+    private static NotificationBroadcastDTO copy(NotificationBroadcastDTO job) {
+        NotificationBroadcastDTO copy = new NotificationBroadcastDTO();
+        copy.setId(job.getId());
+        copy.setContent(job.getContent());
+        copy.setType(job.getType());
+        copy.setStatus(job.getStatus());
+        copy.setTotal(job.getTotal());
+        copy.setInserted(job.getInserted());
+        copy.setStartedAt(job.getStartedAt());
+        copy.setFinishedAt(job.getFinishedAt());
+        copy.setError(job.getError());
+        return copy;
+    }
+
     @Override
     public Flux<NotificationDTO> findByUserId(String userId, Pageable pageable) {
         LOG.debug("Request to get notifications for user: {}", userId);
         return notificationRepository.findByUserId(userId, pageable).map(notificationMapper::toDto);
     }
 
+    @Override
+    public Mono<Long> countUnreadForUser(String userId) {
+        return unreadNotificationCounter.get(userId);
+    }
+
+    // le flux reste ouvert tant que le client est connecté : il ne doit pas tenir de transaction
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<NotificationMessage> streamNotifications(String userId, Long lastEventId) {
+        LOG.debug("Request to stream notifications for user: {}, after: {}", userId, lastEventId);
+        Flux<NotificationMessage> missed = lastEventId == null
+            ? Flux.empty()
+            : notificationRepository.findByUserIdAfterId(userId, lastEventId, streamReplayLimit).map(notificationConverter::toMessage);
+        return notificationBrokerService.subscribe(userId, missed);
+    }
+
     @Override
     public Mono<Void> markAllAsRead(String userId) {
         LOG.debug("Request to mark all notifications as read for user: {}", userId);
         return notificationRepository
-            .findByUserIdAndReadAtIsNull(userId)
-            .flatMap(notification -> {
-                notification.setReadAt(Instant.now());
-                return notificationRepository.save(notification);
-            })
-            .then();
+            .markAllAsReadByUserId(userId, Instant.now())
+            .doOnNext(updated -> LOG.debug("{} notifications marked as read for user: {}", updated, userId))
+            .then(AfterCommit.run(() -> unreadNotificationCounter.reset(userId)));
     }
 
     /**
@@ -260,18 +460,32 @@ public class NotificationServiceImpl implements NotificationService {
 
                         // Si pas de targetIds spécifiés, envoyer à tous les utilisateurs
                         if (targetIds == null || targetIds.length == 0) {
-                            return userProfileRepository
-                                .findAll()
-                                .flatMap(user -> createNotification(user.getId(), content, type, emitterId, action));
+                            return broadcastNotification(content, type, emitterId, action).thenMany(Flux.empty());
                         }
 
-                        // Envoyer aux utilisateurs spécifiés
-                        return Flux.fromArray(targetIds).flatMap(login ->
-                            userProfileRepository
-                                .findOneByLogin(login)
-                                .switchIfEmpty(Mono.error(new RuntimeException("Utilisateur non trouvé: " + login)))
-                                .flatMap(user -> createNotification(user.getId(), content, type, emitterId, action))
-                        );
+                        // Envoyer aux utilisateurs spécifiés : toutes les notifications sont insérées en un seul lot
+                        Instant createdAt = Instant.now();
+                        return Flux.fromArray(targetIds)
+                            .flatMapSequential(login ->
+                                userProfileRepository
+                                    .findOneByLogin(login)
+                                    .switchIfEmpty(Mono.error(new RuntimeException("Utilisateur non trouvé: " + login)))
+                            )
+                            .map(user -> {
+                                Notification notification = new Notification();
+                                notification.setContent(content);
+                                notification.setCreatedAt(createdAt);
+                                notification.setType(type);
+                                notification.setEntityId(emitterId);
+                                notification.setAction(action);
+                                notification.setUserId(user.getId());
+                                return notification;
+                            })
+                            .collectList()
+                            .flatMapMany(notificationRepository::saveAll)
+                            .collectList()
+                            .delayUntil(this::publishAfterCommit)
+                            .flatMapMany(Flux::fromIterable);
                     })
             );
     }
@@ -279,6 +493,8 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public Mono<Void> deleteByUserIdAndEntityIdAndType(String userId, String entityId, NotificationType type) {
         LOG.debug("Request to delete notifications for user: {}, entity: {}, type: {}", userId, entityId, type);
-        return notificationRepository.deleteByUserIdAndEntityIdAndType(userId, entityId, type);
+        return notificationRepository
+            .deleteByUserIdAndEntityIdAndType(userId, entityId, type)
+            .then(AfterCommit.run(() -> unreadNotificationCounter.evict(userId)));
     }
 }
@@ -7,8 +7,12 @@ import com.senprojectbackend1.domain.enumeration.NotificationType;
 import com.senprojectbackend1.domain.enumeration.ProjectStatus;
 import com.senprojectbackend1.repository.*;
 import com.senprojectbackend1.security.SecurityUtils;
+import com.senprojectbackend1.service.EngagementCounterBuffer;
+import com.senprojectbackend1.service.EngagementCounterBuffer.Counter;
+import com.senprojectbackend1.service.MediaService;
 import com.senprojectbackend1.service.NotificationService;
 import com.senprojectbackend1.service.ProjectService;
+import com.senprojectbackend1.service.TagDictionary;
 import com.senprojectbackend1.service.TagService;
 import com.senprojectbackend1.service.UserProfileService;
 import com.senprojectbackend1.service.dto.*;
@@ -17,8 +21,12 @@ import com.senprojectbackend1.service.mapper.ProjectMapper;
 import com.senprojectbackend1.service.mapper.ProjectSectionMapper;
 import com.senprojectbackend1.service.mapper.ProjectSimpleMapper;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,7 +61,10 @@ public class ProjectServiceImpl implements ProjectService {
     private final TeamRepository teamRepository;
     private final ExternalLinkRepository externalLinkRepository;
     private final ProjectGalleryRepository projectGalleryRepository;
-    private final com.senprojectbackend1.service.CloudinaryService cloudinaryService;
+    private final ProjectAssociationLoader projectAssociationLoader;
+    private final EngagementCounterBuffer engagementCounterBuffer;
+    private final MediaService mediaService;
+    private final TagDictionary tagDictionary;
 
     public ProjectServiceImpl(
         ProjectRepository projectRepository,
@@ -71,7 +82,10 @@ public class ProjectServiceImpl implements ProjectService {
         TeamRepository teamRepository,
         ExternalLinkRepository externalLinkRepository,
         ProjectGalleryRepository projectGalleryRepository,
-        com.senprojectbackend1.service.CloudinaryService cloudinaryService
+        ProjectAssociationLoader projectAssociationLoader,
+        EngagementCounterBuffer engagementCounterBuffer,
+        MediaService mediaService,
+        TagDictionary tagDictionary
     ) {
         this.projectRepository = projectRepository;
         this.projectSectionRepository = projectSectionRepository;
@@ -88,7 +102,10 @@ public class ProjectServiceImpl implements ProjectService {
         this.teamRepository = teamRepository;
         this.externalLinkRepository = externalLinkRepository;
         this.projectGalleryRepository = projectGalleryRepository;
-        this.cloudinaryService = cloudinaryService;
+        this.projectAssociationLoader = projectAssociationLoader;
+        this.engagementCounterBuffer = engagementCounterBuffer;
+        this.mediaService = mediaService;
+        this.tagDictionary = tagDictionary;
     }
 
     @Override
@@ -122,7 +139,7 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Flux<ProjectDTO> findByCriteria(ProjectCriteria criteria, Pageable pageable) {
         LOG.debug("Request to get all Projects by Criteria");
-        return projectRepository.findByCriteria(criteria, pageable).map(projectMapper::toDto);
+        return projectRepository.findByCriteria(criteria, pageable).map(engagementCounterBuffer::mergePending).map(projectMapper::toDto);
     }
 
     /**
@@ -146,7 +163,7 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     public Mono<ProjectDTO> findOne(Long id) {
         LOG.debug("Request to get Project : {}", id);
-        return projectRepository.findOneWithEagerRelationships(id).map(projectMapper::toDto);
+        return projectRepository.findOneWithEagerRelationships(id).map(engagementCounterBuffer::mergePending).map(projectMapper::toDto);
     }
 
     @Override
@@ -190,36 +207,14 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Flux<ProjectSimpleDTO> findAllProjectsOfCurrentUser(String userLogin) {
         LOG.debug("Request to get all Projects of current user: {}", userLogin);
-        return userProfileRepository
-            .findOneByLogin(userLogin)
-            .flatMapMany(userProfile -> {
-                if (userProfile == null) {
-                    return Flux.empty();
-                }
-                // Utiliser la méthode qui charge les relations eager comme findOneWithEagerRelationships
-                return projectRepository
-                    .findAllByTeamMemberWithEagerRelationships(userProfile.getId())
-                    .flatMap(project -> {
-                        ProjectSimpleDTO dto = projectSimpleMapper.toDto(project);
-                        // Récupérer et mapper les tags du projet
-                        Mono<Set<TagDTO>> tagsMono = tagRepository
-                            .findByProjectId(project.getId())
-                            .map(tag -> {
-                                TagDTO tagDTO = new TagDTO();
-                                tagDTO.setId(tag.getId());
-                                tagDTO.setName(tag.getName());
-                                return tagDTO;
-                            })
-                            .collect(Collectors.toSet())
-                            .doOnNext(tags -> LOG.debug("Project tags found: {}", tags));
-                        // Fusionner les résultats et construire le DTO final
-                        return tagsMono.map(tags -> {
-                            dto.setTags(tags);
-                            LOG.debug("Project simple DTO created with tags for id: {}", project.getId());
-                            return dto;
-                        });
-                    });
-            });
+        return userProfileService
+            .getUserIdByLogin(userLogin)
+            .flatMapMany(userId ->
+                // Projets des équipes de l'utilisateur, puis tags et équipes chargés en une requête chacun
+                projectAssociationLoader
+                    .withTagsAndTeam(projectRepository.findDistinctByTeamMemberId(userId))
+                    .map(projectSimpleMapper::toDto)
+            );
     }
 
     @Override
@@ -281,6 +276,7 @@ public class ProjectServiceImpl implements ProjectService {
         LOG.debug("Request to get Project with sections : {}", id);
         return projectRepository
             .findById(id)
+            .map(engagementCounterBuffer::mergePending)
             .flatMap(project -> {
                 ProjectDTO projectDTO = projectMapper.toDto(project);
 
@@ -308,33 +304,15 @@ public class ProjectServiceImpl implements ProjectService {
         LOG.debug("Request to get Project with sections and increment views : {}, login: {}", id, login);
 
         return userProfileService
-            .getUserProfileSimpleByLogin(login)
+            .getUserIdByLogin(login)
             .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound")))
-            .flatMap(userProfile -> {
-                String userId = userProfile.getId();
-                // Vérifier si l'utilisateur a déjà vu ce projet
-                return engagementProjectRepository
-                    .findEngagementByUserIdAndProjectIdAndType(userId, id, "VIEW")
-                    .flatMap(existingEngagement ->
-                        // Si l'engagement existe, retourner le projet sans créer un nouvel engagement
-                        findOneWithSections(id)
-                    )
-                    .switchIfEmpty(
-                        // Si l'engagement n'existe pas, on crée un nouvel engagement et on incrémente les vues
-                        Mono.defer(() -> {
-                            EngagementProject engagement = new EngagementProject();
-                            engagement.setType(EngagementType.VIEW);
-                            engagement.setCreatedAt(Instant.now());
-                            engagement.setUserId(userId);
-                            engagement.setProjectId(id);
-
-                            return engagementProjectRepository
-                                .save(engagement)
-                                .then(projectRepository.incrementTotalViews(id))
-                                .then(findOneWithSections(id));
-                        })
-                    );
-            });
+            .flatMap(userId ->
+                // Une vue par utilisateur : l'insertion n'a lieu (et les vues n'augmentent) que s'il n'a jamais vu ce projet
+                engagementProjectRepository
+                    .insertIfAbsent(userId, id, EngagementType.VIEW.name(), Instant.now())
+                    .flatMap(inserted -> engagementCounterBuffer.increment(id, Counter.VIEWS))
+                    .then(findOneWithSections(id))
+            );
     }
 
     @Override
@@ -343,33 +321,27 @@ public class ProjectServiceImpl implements ProjectService {
         LOG.debug("Request to toggle favorite status for Project : {}, login: {}", id, login);
 
         return userProfileService
-            .getUserProfileSimpleByLogin(login)
-            .flatMap(userProfile -> {
-                if (userProfile == null) {
-                    LOG.error("User profile not found for login: {}", login);
-                    return Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound"));
-                }
-
-                String userId = userProfile.getId();
-
-                return projectRepository
+            .getUserIdByLogin(login)
+            .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound")))
+            .flatMap(userId ->
+                projectRepository
                     .isFavorite(id, userId)
                     .flatMap(isFavorite -> {
                         if (Boolean.TRUE.equals(isFavorite)) {
                             // Si le projet est déjà en favori, on le retire
                             return projectRepository
                                 .removeFromFavorites(id, userId)
-                                .then(projectRepository.decrementTotalFavorites(id))
+                                .then(engagementCounterBuffer.decrement(id, Counter.FAVORITES))
                                 .thenReturn(false);
                         } else {
                             // Si le projet n'est pas en favori, on l'ajoute
                             return projectRepository
                                 .addToFavorites(id, userId)
-                                .then(projectRepository.incrementTotalFavorites(id))
+                                .then(engagementCounterBuffer.increment(id, Counter.FAVORITES))
                                 .thenReturn(true);
                         }
-                    });
-            });
+                    })
+            );
     }
 
     @Override
@@ -378,24 +350,18 @@ public class ProjectServiceImpl implements ProjectService {
         LOG.debug("Request to check if Project is favorite : {}, login: {}", id, login);
 
         return userProfileService
-            .getUserProfileSimpleByLogin(login)
-            .flatMap(userProfile -> {
-                if (userProfile == null) {
-                    LOG.error("User profile not found for login: {}", login);
-                    return Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound"));
-                }
-
-                return projectRepository.isFavorite(id, userProfile.getId());
-            });
+            .getUserIdByLogin(login)
+            .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound")))
+            .flatMap(userId -> projectRepository.isFavorite(id, userId));
     }
 
     @Override
     public Mono<Void> markProjectAsDeleted(Long id, String userLogin) {
         LOG.debug("Request to mark Project as deleted : {}, user: {}", id, userLogin);
         return userProfileService
-            .getUserProfileSimpleByLogin(userLogin)
+            .getUserIdByLogin(userLogin)
             .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found", "project", "usernotfound")))
-            .flatMap(userProfile ->
+            .flatMap(userId ->
                 projectRepository
                     .findById(id)
                     .switchIfEmpty(Mono.error(new ProjectBusinessException("Project not found", "project", "notfound")))
@@ -497,6 +463,8 @@ public class ProjectServiceImpl implements ProjectService {
                         .title(dto.getTitle())
                         .description(dto.getDescription())
                         .showcase(dto.getShowcase())
+                        .showcaseThumbnailUrl(dto.getShowcaseThumbnailUrl())
+                        .showcaseCardUrl(dto.getShowcaseCardUrl())
                         .status(dto.getStatus() != null ? dto.getStatus() : ProjectStatus.WAITING_VALIDATION) // Utiliser le status du DTO s'il est présent, sinon WAITING_VALIDATION
                         .createdAt(Instant.now())
                         .updatedAt(Instant.now())
@@ -516,7 +484,7 @@ public class ProjectServiceImpl implements ProjectService {
                         .save(project)
                         .flatMap(savedProject -> enrichProjectWithAssociations(savedProject, dto))
                         .flatMap(enrichedProject -> projectRepository.save(enrichedProject))
-                        .flatMap(savedProject -> processAllSections(savedProject, dto).thenReturn(savedProject))
+                        .flatMap(savedProject -> processAllSections(savedProject, dto, false).thenReturn(savedProject))
                         .flatMap(savedProject -> notifyTeamOnCreate(savedProject, userLogin).thenReturn(savedProject))
                         .map(projectMapper::toDto);
                 });
@@ -563,6 +531,10 @@ public class ProjectServiceImpl implements ProjectService {
 
     // Met à jour les champs du projet, les associations, les sections, et notifie l'équipe
     private Mono<Project> updateProjectFieldsAndNotify(Project existingProject, ProjectSubmissionDTO dto, String userLogin) {
+        // les déclinaisons suivent le showcase : conservées tant qu'il ne change pas
+        if (!Objects.equals(existingProject.getShowcase(), dto.getShowcase()) || dto.getShowcaseThumbnailUrl() != null) {
+            existingProject.showcaseThumbnailUrl(dto.getShowcaseThumbnailUrl()).showcaseCardUrl(dto.getShowcaseCardUrl());
+        }
         existingProject
             .title(dto.getTitle())
             .description(dto.getDescription())
@@ -604,38 +576,30 @@ public class ProjectServiceImpl implements ProjectService {
             .flatMap(projectRepository::save)
             .flatMap(savedProject -> enrichProjectWithAssociations(savedProject, dto))
             .flatMap(enrichedProject -> projectRepository.save(enrichedProject))
-            .flatMap(savedProject -> processAllSections(savedProject, dto).thenReturn(savedProject))
+            .flatMap(savedProject -> processAllSections(savedProject, dto, true).thenReturn(savedProject))
             .flatMap(savedProject -> notifyTeamOnUpdate(savedProject, userLogin).thenReturn(savedProject));
     }
 
     // Notifie toute l'équipe que le projet a été mis à jour par userLogin
     private Mono<Void> notifyTeamOnUpdate(Project project, String userLogin) {
-        return teamMembershipRepository
-            .findAll()
-            .filter(m -> m.getTeamId().equals(project.getTeamId()))
-            .filter(m -> "ACCEPTED".equals(m.getStatus()))
-            .flatMap(m ->
-                userProfileRepository
-                    .findById(m.getMembersId())
-                    .flatMap(user ->
-                        notificationService.createNotification(
-                            user.getId(),
-                            "Le projet '" + project.getTitle() + "' a été mis à jour par " + userLogin,
-                            NotificationType.PROJECT_UPDATED,
-                            project.getId().toString()
-                        )
-                    )
+        return notificationService
+            .createTeamNotifications(
+                project.getTeamId(),
+                "Le projet '" + project.getTitle() + "' a été mis à jour par " + userLogin,
+                NotificationType.PROJECT_UPDATED,
+                project.getId().toString(),
+                null
             )
             .then();
     }
 
     private Mono<TeamMembership> checkUserHasRole(Long teamId, String userLogin, Set<String> rolesAcceptes) {
-        return userProfileRepository
-            .findOneByLogin(userLogin)
+        return userProfileService
+            .getUserIdByLogin(userLogin)
             .switchIfEmpty(Mono.error(new ProjectBusinessException("Profil utilisateur non trouvé", "project", "usernotfound")))
-            .flatMap(userProfile ->
+            .flatMap(userId ->
                 teamMembershipRepository
-                    .findByTeamIdAndUserId(teamId, userProfile.getId())
+                    .findByTeamIdAndUserId(teamId, userId)
                     .switchIfEmpty(
                         Mono.error(new ProjectBusinessException("Vous n'êtes pas membre de l'équipe du projet", "project", "notmember"))
                     )
@@ -662,94 +626,53 @@ public class ProjectServiceImpl implements ProjectService {
     @Override
     @Transactional(readOnly = true)
     public Flux<ProjectDTO> getPaginatedProjects(Pageable pageable, List<String> categories) {
-        LOG.debug("Request to get paginated Projects - pageable: {}, categories: {}", pageable, categories);
-        int page = pageable.getPageNumber();
-        int size = pageable.getPageSize();
-        int offset = page * size;
-        Flux<Project> projectFlux;
-        // Always create criteria to filter by PUBLISHED status and isDeleted=false
-        ProjectCriteria criteria = new ProjectCriteria();
-        ProjectCriteria.ProjectStatusFilter statusFilter = new ProjectCriteria.ProjectStatusFilter();
-        statusFilter.setEquals(ProjectStatus.PUBLISHED);
-        criteria.setStatus(statusFilter);
+        return getPaginatedProjects(pageable, categories, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ProjectDTO> getPaginatedProjects(Pageable pageable, List<String> categories, Instant afterCreatedAt, Long afterId) {
+        LOG.debug(
+            "Request to get paginated Projects - pageable: {}, categories: {}, after: ({}, {})",
+            pageable,
+            categories,
+            afterCreatedAt,
+            afterId
+        );
         if (categories == null || categories.isEmpty()) {
-            return projectRepository.findByCriteria(criteria, pageable).map(projectMapper::toDto);
-        } else {
-            // Union des projets pour toutes les catégories, sans doublons
-            projectFlux = Flux.fromIterable(categories)
-                .flatMap(cat -> projectRepository.findByTagName(cat, Integer.MAX_VALUE, 0)) // Récupérer potentiellement plus pour paginer après filtre
-                .distinct(Project::getId);
+            // Always create criteria to filter by PUBLISHED status
+            ProjectCriteria criteria = new ProjectCriteria();
+            ProjectCriteria.ProjectStatusFilter statusFilter = new ProjectCriteria.ProjectStatusFilter();
+            statusFilter.setEquals(ProjectStatus.PUBLISHED);
+            criteria.setStatus(statusFilter);
+            return projectRepository
+                .findByCriteria(criteria, pageable)
+                .map(engagementCounterBuffer::mergePending)
+                .map(projectMapper::toDto);
         }
+        // Union des catégories, filtre de statut, tri et pagination sont faits par une seule requête SQL
+        Flux<Project> projectFlux = (afterCreatedAt != null && afterId != null)
+            ? projectRepository.findPublishedByTagNamesAfter(categories, afterCreatedAt, afterId, pageable.getPageSize())
+            : projectRepository.findPublishedByTagNames(categories, pageable.getPageSize(), pageable.getOffset());
 
-        return projectFlux
-            .filter(p -> p.getStatus() != null && p.getStatus().equals(ProjectStatus.PUBLISHED) && Boolean.FALSE.equals(p.getIsDeleted())) // <<< Ajouter ce filtre
-            .sort((p1, p2) -> p1.getCreatedAt().compareTo(p2.getCreatedAt())) // Optionnel: tri par date de création par défaut
-            .skip(offset)
-            .take(size)
-            .flatMap(project ->
-                projectRepository
-                    .findTagsByProjectId(project.getId())
-                    .collectList()
-                    .flatMap(tags -> {
-                        project.setTags(new java.util.HashSet<>(tags));
-                        if (project.getTeamId() != null) {
-                            return teamRepository
-                                .findById(project.getTeamId())
-                                .map(team -> {
-                                    project.setTeam(team);
-                                    return project;
-                                })
-                                .defaultIfEmpty(project);
-                        } else {
-                            return reactor.core.publisher.Mono.just(project);
-                        }
-                    })
-            )
-            .map(projectMapper::toDto);
+        return projectAssociationLoader.withTagsAndTeam(projectFlux).map(engagementCounterBuffer::mergePending).map(projectMapper::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Flux<ProjectDTO> getTopPopularProjects(Pageable pageable) {
-        LOG.debug("Request to get top popular projects - pageable: {}", pageable);
-        int page = pageable.getPageNumber();
-        int size = pageable.getPageSize();
-        int offset = page * size;
-        return projectRepository
-            .findAll()
-            .filter(p -> p.getStatus() != null && p.getStatus().name().equals("PUBLISHED") && Boolean.FALSE.equals(p.getIsDeleted()))
-            .sort((p1, p2) ->
-                Integer.compare(
-                    (safeInt(p2.getTotalViews()) + safeInt(p2.getTotalLikes()) + safeInt(p2.getTotalFavorites())),
-                    (safeInt(p1.getTotalViews()) + safeInt(p1.getTotalLikes()) + safeInt(p1.getTotalFavorites()))
-                )
-            )
-            .skip(offset)
-            .take(size)
-            .flatMap(project ->
-                projectRepository
-                    .findTagsByProjectId(project.getId())
-                    .collectList()
-                    .flatMap(tags -> {
-                        project.setTags(new java.util.HashSet<>(tags));
-                        if (project.getTeamId() != null) {
-                            return teamRepository
-                                .findById(project.getTeamId())
-                                .map(team -> {
-                                    project.setTeam(team);
-                                    return project;
-                                })
-                                .defaultIfEmpty(project);
-                        } else {
-                            return reactor.core.publisher.Mono.just(project);
-                        }
-                    })
-            )
-            .map(projectMapper::toDto);
+        return getTopPopularProjects(pageable, null, null);
     }
 
-    private int safeInt(Integer value) {
-        return value != null ? value : 0;
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<ProjectDTO> getTopPopularProjects(Pageable pageable, Integer afterScore, Long afterId) {
+        LOG.debug("Request to get top popular projects - pageable: {}, after: ({}, {})", pageable, afterScore, afterId);
+        // Le classement est calculé par la base (colonne popularity_score indexée) : seule la page demandée est lue
+        Flux<Project> page = (afterScore != null && afterId != null)
+            ? projectRepository.findPopularAfter(afterScore, afterId, pageable.getPageSize())
+            : projectRepository.findPopularPage(pageable.getPageSize(), pageable.getOffset());
+        return projectAssociationLoader.withTagsAndTeam(page).map(engagementCounterBuffer::mergePending).map(projectMapper::toDto);
     }
 
     private Mono<Project> enrichProjectWithAssociations(Project project, ProjectSubmissionDTO dto) {
@@ -758,18 +681,10 @@ public class ProjectServiceImpl implements ProjectService {
             projectMono = projectMono.flatMap(p -> teamRepository.findById(dto.getTeamId()).map(p::team).defaultIfEmpty(p));
         }
         if (dto.getTags() != null && !dto.getTags().isEmpty()) {
+            // tous les tags en un lot, sans casse : les manquants sont créés par un seul INSERT
             projectMono = projectMono.flatMap(p ->
-                Flux.fromIterable(dto.getTags())
-                    .flatMap(tagInput ->
-                        tagRepository
-                            .findAll()
-                            .filter(existing -> existing.getName().equalsIgnoreCase(tagInput.getName()))
-                            .next()
-                            .switchIfEmpty(
-                                tagRepository.save(new Tag().name(tagInput.getName()).color(tagInput.getColor()).isForbidden(false))
-                            )
-                    )
-                    .collectList()
+                tagDictionary
+                    .resolve(dto.getTags())
                     .map(tags -> {
                         tags.forEach(p::addTags);
                         return p;
@@ -779,56 +694,142 @@ public class ProjectServiceImpl implements ProjectService {
         return projectMono;
     }
 
-    private Mono<Void> processAllSections(Project project, ProjectSubmissionDTO dto) {
-        return projectSectionRepository
-            .deleteByProjectId(project.getId())
-            .thenMany(saveSections(project, dto.getSections()))
-            .then(projectGalleryRepository.deleteByProjectId(project.getId()))
-            .thenMany(saveGalleryImages(project, dto.getGalleryImages()))
-            .then(externalLinkRepository.deleteByProjectId(project.getId()))
-            .thenMany(saveExternalLinks(project, dto.getExternalLinks()))
-            .then();
+    // Synchronise les sections, la galerie et les liens avec la soumission : seuls les enfants ajoutés, modifiés ou retirés
+    // sont écrits, avec une requête par type d'écriture et par collection ; rien n'est relu pour un projet qui vient d'être créé
+    private Mono<Void> processAllSections(Project project, ProjectSubmissionDTO dto, boolean existing) {
+        return syncSections(project, dto.getSections(), existing)
+            .then(syncGalleryImages(project, dto.getGalleryImages(), existing))
+            .then(syncExternalLinks(project, dto.getExternalLinks(), existing));
+    }
+
+    private Mono<Void> syncSections(Project project, List<ProjectSubmissionDTO.SectionDTO> sections, boolean existing) {
+        List<ProjectSection> submitted = new ArrayList<>();
+        if (sections != null) {
+            for (int order = 0; order < sections.size(); order++) {
+                ProjectSubmissionDTO.SectionDTO sectionDTO = sections.get(order);
+                submitted.add(
+                    new ProjectSection()
+                        .title(sectionDTO.getTitle())
+                        .content(sectionDTO.getContent())
+                        .mediaUrl(sectionDTO.getMediaUrl())
+                        .order(order)
+                        .project(project)
+                );
+            }
+        }
+        Mono<List<ProjectSection>> stored = existing
+            ? projectSectionRepository.findByProjectIdOrdered(project.getId()).collectList()
+            : Mono.just(List.of());
+        return stored.flatMap(storedSections -> {
+            ChildCollectionDiff<ProjectSection> diff = ChildCollectionDiff.of(
+                storedSections,
+                submitted,
+                ProjectSection::getId,
+                ProjectSection::setId,
+                section -> Arrays.asList(section.getTitle(), section.getContent(), section.getMediaUrl()),
+                ProjectSection::getOrder
+            );
+            List<ProjectSection> updates = diff.updates();
+            Mono<Long> update = updates.isEmpty()
+                ? Mono.empty()
+                : projectSectionRepository.updateAll(
+                    updates.stream().map(ProjectSection::getId).toArray(Long[]::new),
+                    updates.stream().map(ProjectSection::getTitle).toArray(String[]::new),
+                    updates.stream().map(ProjectSection::getContent).toArray(String[]::new),
+                    updates.stream().map(ProjectSection::getMediaUrl).toArray(String[]::new),
+                    updates.stream().map(ProjectSection::getOrder).toArray(Integer[]::new)
+                );
+            return deleteChildren(diff, projectSectionRepository::deleteByIds)
+                .then(update)
+                .thenMany(projectSectionRepository.saveAll(diff.inserts()))
+                .then();
+        });
     }
 
-    private Flux<ProjectSection> saveSections(Project project, List<ProjectSubmissionDTO.SectionDTO> sections) {
-        if (sections == null || sections.isEmpty()) return Flux.empty();
-        return Flux.fromIterable(sections)
-            .index()
-            .flatMap(tuple -> {
-                int order = tuple.getT1().intValue();
-                ProjectSubmissionDTO.SectionDTO sectionDTO = tuple.getT2();
-                ProjectSection section = new ProjectSection()
-                    .title(sectionDTO.getTitle())
-                    .content(sectionDTO.getContent())
-                    .mediaUrl(sectionDTO.getMediaUrl())
-                    .order(order)
-                    .project(project);
-                return projectSectionRepository.save(section);
-            });
+    private Mono<Void> syncGalleryImages(Project project, List<ProjectSubmissionDTO.GalleryImageDTO> images, boolean existing) {
+        List<ProjectGallery> submitted = new ArrayList<>();
+        if (images != null) {
+            for (int order = 0; order < images.size(); order++) {
+                ProjectSubmissionDTO.GalleryImageDTO imageDTO = images.get(order);
+                submitted.add(
+                    new ProjectGallery()
+                        .imageUrl(imageDTO.getImageUrl())
+                        .thumbnailUrl(imageDTO.getThumbnailUrl())
+                        .cardUrl(imageDTO.getCardUrl())
+                        .description(imageDTO.getDescription())
+                        .order(order)
+                        .project(project)
+                );
+            }
+        }
+        Mono<List<ProjectGallery>> stored = existing
+            ? projectGalleryRepository.findByProjectIdOrdered(project.getId()).collectList()
+            : Mono.just(List.of());
+        return stored.flatMap(storedImages -> {
+            ChildCollectionDiff<ProjectGallery> diff = ChildCollectionDiff.of(
+                storedImages,
+                submitted,
+                ProjectGallery::getId,
+                ProjectGallery::setId,
+                image -> Arrays.asList(image.getImageUrl(), image.getThumbnailUrl(), image.getCardUrl(), image.getDescription()),
+                ProjectGallery::getOrder
+            );
+            List<ProjectGallery> updates = diff.updates();
+            Mono<Long> update = updates.isEmpty()
+                ? Mono.empty()
+                : projectGalleryRepository.updateAll(
+                    updates.stream().map(ProjectGallery::getId).toArray(Long[]::new),
+                    updates.stream().map(ProjectGallery::getImageUrl).toArray(String[]::new),
+                    updates.stream().map(ProjectGallery::getThumbnailUrl).toArray(String[]::new),
+                    updates.stream().map(ProjectGallery::getCardUrl).toArray(String[]::new),
+                    updates.stream().map(ProjectGallery::getDescription).toArray(String[]::new),
+                    updates.stream().map(ProjectGallery::getOrder).toArray(Integer[]::new)
+                );
+            return deleteChildren(diff, projectGalleryRepository::deleteByIds)
+                .then(update)
+                .thenMany(projectGalleryRepository.saveAll(diff.inserts()))
+                .then();
+        });
     }
 
-    private Flux<ProjectGallery> saveGalleryImages(Project project, List<ProjectSubmissionDTO.GalleryImageDTO> images) {
-        if (images == null || images.isEmpty()) return Flux.empty();
-        return Flux.fromIterable(images)
-            .index()
-            .flatMap(tuple -> {
-                int order = tuple.getT1().intValue();
-                ProjectSubmissionDTO.GalleryImageDTO imageDTO = tuple.getT2();
-                ProjectGallery galleryImage = new ProjectGallery()
-                    .imageUrl(imageDTO.getImageUrl())
-                    .description(imageDTO.getDescription())
-                    .order(order)
-                    .project(project);
-                return projectGalleryRepository.save(galleryImage);
-            });
+    private Mono<Void> syncExternalLinks(Project project, List<ProjectSubmissionDTO.ExternalLinkDTO> links, boolean existing) {
+        List<ExternalLink> submitted = new ArrayList<>();
+        if (links != null) {
+            links.forEach(linkDTO ->
+                submitted.add(new ExternalLink().title(linkDTO.getTitle()).url(linkDTO.getUrl()).type(linkDTO.getType()).project(project))
+            );
+        }
+        Mono<List<ExternalLink>> stored = existing
+            ? externalLinkRepository.findByProjectIdOrdered(project.getId()).collectList()
+            : Mono.just(List.of());
+        return stored.flatMap(storedLinks -> {
+            // les liens n'ont pas d'ordre : un lien inchangé n'est jamais réécrit
+            ChildCollectionDiff<ExternalLink> diff = ChildCollectionDiff.of(
+                storedLinks,
+                submitted,
+                ExternalLink::getId,
+                ExternalLink::setId,
+                link -> Arrays.asList(link.getTitle(), link.getUrl(), link.getType()),
+                link -> null
+            );
+            List<ExternalLink> updates = diff.updates();
+            Mono<Long> update = updates.isEmpty()
+                ? Mono.empty()
+                : externalLinkRepository.updateAll(
+                    updates.stream().map(ExternalLink::getId).toArray(Long[]::new),
+                    updates.stream().map(ExternalLink::getTitle).toArray(String[]::new),
+                    updates.stream().map(ExternalLink::getUrl).toArray(String[]::new),
+                    updates.stream().map(link -> link.getType() != null ? link.getType().name() : null).toArray(String[]::new)
+                );
+            return deleteChildren(diff, externalLinkRepository::deleteByIds)
+                .then(update)
+                .thenMany(externalLinkRepository.saveAll(diff.inserts()))
+                .then();
+        });
     }
 
-    private Flux<ExternalLink> saveExternalLinks(Project project, List<ProjectSubmissionDTO.ExternalLinkDTO> links) {
-        if (links == null || links.isEmpty()) return Flux.empty();
-        return Flux.fromIterable(links).flatMap(linkDTO -> {
-            ExternalLink link = new ExternalLink().title(linkDTO.getTitle()).url(linkDTO.getUrl()).type(linkDTO.getType()).project(project);
-            return externalLinkRepository.save(link);
-        });
+    private static Mono<Long> deleteChildren(ChildCollectionDiff<?> diff, Function<Long[], Mono<Long>> deleteByIds) {
+        return diff.deletedIds().isEmpty() ? Mono.empty() : deleteByIds.apply(diff.deletedIds().toArray(Long[]::new));
     }
 
     private Mono<Void> notifyTeamOnCreate(Project project, String userLogin) {
@@ -854,10 +855,12 @@ public class ProjectServiceImpl implements ProjectService {
                     if (rawData == null || rawData.isBlank() || rawData.startsWith("http")) {
                         return Mono.just(imageDTO); // Déjà une URL ou pas d'image
                     }
-                    return cloudinaryService
-                        .uploadBase64Image(rawData, "gallery")
-                        .map(url -> {
-                            imageDTO.setImageUrl(url);
+                    return mediaService
+                        .uploadBase64ImageWithDerivatives(rawData, "gallery")
+                        .map(derivatives -> {
+                            imageDTO.setImageUrl(derivatives.full());
+                            imageDTO.setThumbnailUrl(derivatives.thumbnail());
+                            imageDTO.setCardUrl(derivatives.card());
                             return imageDTO;
                         })
                         .onErrorResume(e -> {
@@ -867,7 +870,7 @@ public class ProjectServiceImpl implements ProjectService {
                 } catch (Exception e) {
                     return Mono.error(new ProjectBusinessException("Fichier image invalide", "project", "invalidimage"));
                 }
-            })
+            }, mediaService.getMaxConcurrentUploadsPerRequest())
             .collectList()
             .map(updatedGallery -> {
                 projectData.setGalleryImages(updatedGallery);
@@ -881,10 +884,12 @@ public class ProjectServiceImpl implements ProjectService {
         if (rawData == null || rawData.isBlank() || rawData.startsWith("http")) {
             return Mono.just(projectData); // Déjà une URL ou pas d'image
         }
-        return cloudinaryService
-            .uploadBase64Image(rawData, "showcase")
-            .map(showcaseUrl -> {
-                projectData.setShowcase(showcaseUrl);
+        return mediaService
+            .uploadBase64ImageWithDerivatives(rawData, "showcase")
+            .map(derivatives -> {
+                projectData.setShowcase(derivatives.full());
+                projectData.setShowcaseThumbnailUrl(derivatives.thumbnail());
+                projectData.setShowcaseCardUrl(derivatives.card());
                 return projectData;
             })
             .onErrorResume(e -> {
@@ -904,7 +909,7 @@ public class ProjectServiceImpl implements ProjectService {
                 if (mediaUrl == null || mediaUrl.isBlank() || mediaUrl.startsWith("http")) {
                     return Mono.just(section); // Déjà une URL ou pas d'image
                 }
-                return cloudinaryService
+                return mediaService
                     .uploadBase64Image(mediaUrl, "section")
                     .map(uploadedUrl -> {
                         section.setMediaUrl(uploadedUrl);
@@ -914,7 +919,7 @@ public class ProjectServiceImpl implements ProjectService {
                         section.setMediaUrl("");
                         return Mono.just(section);
                     });
-            })
+            }, mediaService.getMaxConcurrentUploadsPerRequest())
             .collectList()
             .map(updatedSections -> {
                 projectData.setSections(updatedSections);
@@ -924,25 +929,16 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public Mono<ProjectSubmissionDTO> processAllImages(ProjectSubmissionDTO projectData, String userLogin) {
-        return processGalleryImages(projectData, userLogin)
+        return mediaService
+            .resolveMediaIds(projectData, userLogin)
+            .flatMap(withMedia -> processGalleryImages(withMedia, userLogin))
             .flatMap(withGallery -> processShowcaseImage(withGallery, userLogin))
             .flatMap(withShowcase -> processSectionImages(withShowcase, userLogin));
     }
 
     // Utilitaire DRY pour notifier toute l'équipe d'un projet
     private Mono<Void> sendTeamNotification(Project project, NotificationType type, String message, String userLogin) {
-        return teamMembershipRepository
-            .findAll()
-            .filter(m -> m.getTeamId().equals(project.getTeamId()))
-            .filter(m -> "ACCEPTED".equals(m.getStatus()))
-            .flatMap(m ->
-                userProfileRepository
-                    .findById(m.getMembersId())
-                    .flatMap(user ->
-                        notificationService.createNotification(user.getId(), message, type, project.getId().toString(), userLogin)
-                    )
-            )
-            .then();
+        return notificationService.createTeamNotifications(project.getTeamId(), message, type, project.getId().toString(), userLogin).then();
     }
 
     @Override
@@ -955,20 +951,14 @@ public class ProjectServiceImpl implements ProjectService {
         if (categories == null || categories.isEmpty()) {
             return projectRepository.count();
         }
-        // Union : compter les projets distincts ayant au moins un des tags
-        return Flux.fromIterable(categories)
-            .flatMap(cat -> projectRepository.findByTagName(cat, Integer.MAX_VALUE, 0))
-            .distinct(Project::getId)
-            .count();
+        // Union : compter les projets publiés distincts ayant au moins un des tags (mêmes prédicats que la page)
+        return projectRepository.countPublishedByTagNames(categories);
     }
 
     @Override
     public Mono<Long> countPopularProjects() {
-        // Projets PUBLISHED et non supprimés
-        return projectRepository
-            .findAll()
-            .filter(p -> p.getStatus() != null && p.getStatus().name().equals("PUBLISHED") && Boolean.FALSE.equals(p.getIsDeleted()))
-            .count();
+        // Projets PUBLISHED et non supprimés (même index partiel que le classement)
+        return projectRepository.countPopular();
     }
 
     @Override
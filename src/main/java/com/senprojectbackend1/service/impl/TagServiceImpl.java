@@ -1,12 +1,16 @@
 package com.senprojectbackend1.service.impl;
 
+import com.senprojectbackend1.domain.Tag;
 import com.senprojectbackend1.domain.criteria.TagCriteria;
 import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.service.TagAutocompleteIndex;
+import com.senprojectbackend1.service.TagDictionary;
 import com.senprojectbackend1.service.TagService;
 import com.senprojectbackend1.service.dto.PageDTO;
 import com.senprojectbackend1.service.dto.TagDTO;
 import com.senprojectbackend1.service.dto.TagWithCountDTO;
 import com.senprojectbackend1.service.mapper.TagMapper;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -28,21 +32,36 @@ public class TagServiceImpl implements TagService {
 
     private final TagMapper tagMapper;
 
-    public TagServiceImpl(TagRepository tagRepository, TagMapper tagMapper) {
+    private final TagDictionary tagDictionary;
+
+    private final TagAutocompleteIndex tagAutocompleteIndex;
+
+    public TagServiceImpl(
+        TagRepository tagRepository,
+        TagMapper tagMapper,
+        TagDictionary tagDictionary,
+        TagAutocompleteIndex tagAutocompleteIndex
+    ) {
         this.tagRepository = tagRepository;
         this.tagMapper = tagMapper;
+        this.tagDictionary = tagDictionary;
+        this.tagAutocompleteIndex = tagAutocompleteIndex;
     }
 
     @Override
     public Mono<TagDTO> save(TagDTO tagDTO) {
         LOG.debug("Request to save Tag : {}", tagDTO);
-        return tagRepository.save(tagMapper.toEntity(tagDTO)).map(tagMapper::toDto);
+        return tagRepository
+            .save(tagMapper.toEntity(tagDTO))
+            .doOnNext(tagDictionary::put)
+            .doOnNext(tagAutocompleteIndex::upsert)
+            .map(tagMapper::toDto);
     }
 
     @Override
     public Mono<TagDTO> update(TagDTO tagDTO) {
         LOG.debug("Request to update Tag : {}", tagDTO);
-        return tagRepository.save(tagMapper.toEntity(tagDTO)).map(tagMapper::toDto);
+        return tagRepository.save(tagMapper.toEntity(tagDTO)).doOnNext(this::replaceInDictionary).map(tagMapper::toDto);
     }
 
     @Override
@@ -57,9 +76,17 @@ public class TagServiceImpl implements TagService {
                 return existingTag;
             })
             .flatMap(tagRepository::save)
+            .doOnNext(this::replaceInDictionary)
             .map(tagMapper::toDto);
     }
 
+    // le nom a pu changer : l'ancienne entrée du dictionnaire est retirée ; un tag interdit sort de l'autocomplétion
+    private void replaceInDictionary(Tag tag) {
+        tagDictionary.evict(tag.getId());
+        tagDictionary.put(tag);
+        tagAutocompleteIndex.upsert(tag);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Flux<TagDTO> findByCriteria(TagCriteria criteria, Pageable pageable) {
@@ -91,7 +118,12 @@ public class TagServiceImpl implements TagService {
     @Override
     public Mono<Void> delete(Long id) {
         LOG.debug("Request to delete Tag : {}", id);
-        return tagRepository.deleteById(id);
+        return tagRepository
+            .deleteById(id)
+            .doOnSuccess(deleted -> {
+                tagDictionary.evict(id);
+                tagAutocompleteIndex.remove(id);
+            });
     }
 
     @Transactional(readOnly = true)
@@ -103,48 +135,37 @@ public class TagServiceImpl implements TagService {
 
     @Override
     @Transactional(readOnly = true)
-    public Mono<PageDTO<TagWithCountDTO>> getPaginatedTags(int page, int size) {
-        LOG.debug("Request to get paginated Tags with count");
-        int offset = page * size;
-
-        return Mono.zip(
-            tagRepository
-                .findTagsWithCount(size, offset)
-                .flatMap(tag ->
-                    tagRepository
-                        .countProjectsForTag(tag.getId())
-                        .map(count -> {
-                            TagWithCountDTO dto = new TagWithCountDTO();
-                            dto.setId(tag.getId());
-                            dto.setName(tag.getName());
-                            dto.setCount(count);
-                            return dto;
-                        })
-                )
-                .collectList(),
-            tagRepository.countAllTags()
-        ).map(tuple -> {
-            var tags = tuple.getT1();
-            var total = tuple.getT2();
-
-            PageDTO<TagWithCountDTO> pageDTO = new PageDTO<>();
-            pageDTO.setContent(tags);
-            pageDTO.setTotalElements(total);
-            pageDTO.setTotalPages((int) Math.ceil((double) total / size));
-            pageDTO.setCurrentPage(page);
-            pageDTO.setPageSize(size);
-            return pageDTO;
-        });
+    public Mono<PageDTO<TagWithCountDTO>> getPaginatedTags(int page, int size, boolean publishedOnly) {
+        LOG.debug("Request to get paginated Tags with count, published projects only: {}", publishedOnly);
+        long offset = (long) page * size;
+
+        return tagRepository
+            .findPageWithProjectCount(publishedOnly, size, offset)
+            .collectList()
+            .flatMap(rows -> {
+                List<TagWithCountDTO> tags = rows
+                    .stream()
+                    .map(row -> new TagWithCountDTO(row.tag().id(), row.tag().name(), row.tag().projectCount()))
+                    .toList();
+                // au-delà de la dernière page, aucune ligne ne porte le total
+                Mono<Long> total = rows.isEmpty() ? tagRepository.countAllTags() : Mono.just(rows.get(0).total());
+                return total.map(count -> toPage(tags, count, page, size));
+            });
+    }
+
+    private static PageDTO<TagWithCountDTO> toPage(List<TagWithCountDTO> tags, long total, int page, int size) {
+        PageDTO<TagWithCountDTO> pageDTO = new PageDTO<>();
+        pageDTO.setContent(tags);
+        pageDTO.setTotalElements(total);
+        pageDTO.setTotalPages((int) Math.ceil((double) total / size));
+        pageDTO.setCurrentPage(page);
+        pageDTO.setPageSize(size);
+        return pageDTO;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Flux<TagDTO> searchByName(String name) {
         LOG.debug("Request to search Tags by name: {}", name);
-        return tagRepository
-            .findAll()
-            .filter(tag -> Boolean.FALSE.equals(tag.getIsForbidden()))
-            .filter(tag -> tag.getName() != null && tag.getName().toLowerCase().contains(name.toLowerCase()))
-            .map(tagMapper::toDto);
+        return Flux.fromIterable(tagAutocompleteIndex.search(name));
     }
 }
@@ -5,11 +5,12 @@ import com.senprojectbackend1.domain.criteria.TeamCriteria;
 import com.senprojectbackend1.domain.enumeration.MembershipStatus;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
 import com.senprojectbackend1.domain.enumeration.ProjectStatus;
+import com.senprojectbackend1.repository.ProjectAssociationLoader;
 import com.senprojectbackend1.repository.ProjectRepository;
 import com.senprojectbackend1.repository.TeamMembershipRepository;
 import com.senprojectbackend1.repository.TeamRepository;
 import com.senprojectbackend1.repository.UserProfileRepository;
-import com.senprojectbackend1.service.CloudinaryService;
+import com.senprojectbackend1.service.MediaService;
 import com.senprojectbackend1.service.NotificationService;
 import com.senprojectbackend1.service.TeamService;
 import com.senprojectbackend1.service.UserProfileService;
@@ -51,7 +52,8 @@ public class TeamServiceImpl implements TeamService {
     private final UserProfileService userProfileService;
     private final NotificationActionUtil notificationActionUtil;
     private final TeamMembershipRepository teamMembershipRepository;
-    private final CloudinaryService cloudinaryService;
+    private final MediaService mediaService;
+    private final ProjectAssociationLoader projectAssociationLoader;
 
     public TeamServiceImpl(
         TeamRepository teamRepository,
@@ -64,7 +66,8 @@ public class TeamServiceImpl implements TeamService {
         UserProfileService userProfileService,
         NotificationActionUtil notificationActionUtil,
         TeamMembershipRepository teamMembershipRepository,
-        CloudinaryService cloudinaryService
+        MediaService mediaService,
+        ProjectAssociationLoader projectAssociationLoader
     ) {
         this.teamRepository = teamRepository;
         this.projectRepository = projectRepository;
@@ -76,7 +79,8 @@ public class TeamServiceImpl implements TeamService {
         this.userProfileService = userProfileService;
         this.notificationActionUtil = notificationActionUtil;
         this.teamMembershipRepository = teamMembershipRepository;
-        this.cloudinaryService = cloudinaryService;
+        this.mediaService = mediaService;
+        this.projectAssociationLoader = projectAssociationLoader;
     }
 
     @Override
@@ -122,15 +126,15 @@ public class TeamServiceImpl implements TeamService {
     }
 
     private Mono<Void> validateUserIsTeamLead(Long teamId, String userLogin) {
-        return userProfileRepository
-            .findOneByLogin(userLogin)
+        return userProfileService
+            .getUserIdByLogin(userLogin)
             .switchIfEmpty(Mono.error(new RuntimeException("Profil utilisateur non trouvé")))
-            .flatMap(userProfile ->
-                isMember(teamId, userProfile.getId()).flatMap(isMember -> {
+            .flatMap(userId ->
+                isMember(teamId, userId).flatMap(isMember -> {
                     if (Boolean.FALSE.equals(isMember)) {
                         return Mono.error(new RuntimeException("Vous n'êtes pas membre de cette équipe"));
                     }
-                    return getMemberRole(teamId, userProfile.getId()).flatMap(role -> {
+                    return getMemberRole(teamId, userId).flatMap(role -> {
                         if (!"LEAD".equals(role)) {
                             return Mono.error(new RuntimeException("Seul un LEAD peut modifier les informations de l'équipe"));
                         }
@@ -220,17 +224,7 @@ public class TeamServiceImpl implements TeamService {
     @Override
     public Flux<ProjectSimple2DTO> getTeamProjects(Long teamId) {
         LOG.debug("Request to find all projects for team with id {}", teamId);
-        return projectRepository
-            .findProjectsByTeamId(teamId)
-            .flatMap(project ->
-                projectRepository
-                    .findTagsByProjectId(project.getId())
-                    .collectList()
-                    .map(tags -> {
-                        project.setTags(new HashSet<>(tags));
-                        return projectMapper.toSimpleDto(project);
-                    })
-            );
+        return projectAssociationLoader.withTagsAndTeam(projectRepository.findProjectsByTeamId(teamId)).map(projectMapper::toSimpleDto);
     }
 
     @Override
@@ -243,11 +237,11 @@ public class TeamServiceImpl implements TeamService {
     public Mono<Void> deleteTeamAndUpdateProjects(Long teamId, String userLogin) {
         LOG.debug("Request to delete Team and update its projects : {}, user: {}", teamId, userLogin);
         return userProfileService
-            .getUserProfileSimpleByLogin(userLogin)
+            .getUserIdByLogin(userLogin)
             .switchIfEmpty(Mono.error(new ProjectBusinessException("User profile not found")))
-            .flatMap(userProfile -> {
+            .flatMap(userId -> {
                 return teamRepository
-                    .findMemberStatus(teamId, userProfile.getId())
+                    .findMemberStatus(teamId, userId)
                     .switchIfEmpty(Mono.error(new ProjectBusinessException("User is not a member of the team")))
                     .flatMap(status -> {
                         if (!MembershipStatus.ACCEPTED.name().equals(status)) {
@@ -278,7 +272,7 @@ public class TeamServiceImpl implements TeamService {
     private Mono<TeamDTO> createTeamInternal(TeamDTO teamDTO, List<String> targetLogins) {
         Mono<TeamDTO> teamMono;
         if (teamDTO.getLogo() != null && !teamDTO.getLogo().isBlank() && !teamDTO.getLogo().startsWith("http")) {
-            teamMono = cloudinaryService
+            teamMono = mediaService
                 .uploadBase64Image(teamDTO.getLogo(), "team_logo")
                 .map(url -> {
                     teamDTO.setLogo(url);
@@ -540,7 +534,7 @@ public class TeamServiceImpl implements TeamService {
     public Mono<TeamDTO> updateTeamInfo(Long id, String name, String description, String logo) {
         Mono<String> logoMono;
         if (logo != null && !logo.isBlank() && !logo.startsWith("http")) {
-            logoMono = cloudinaryService.uploadBase64Image(logo, "team_logo");
+            logoMono = mediaService.uploadBase64Image(logo, "team_logo");
         } else {
             logoMono = Mono.just(logo);
         }
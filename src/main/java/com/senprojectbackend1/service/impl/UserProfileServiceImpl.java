@@ -1,5 +1,7 @@
 package com.senprojectbackend1.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.senprojectbackend1.config.Constants;
 import com.senprojectbackend1.domain.Project;
 import com.senprojectbackend1.domain.TeamMembership;
@@ -12,6 +14,7 @@ import com.senprojectbackend1.service.dto.*;
 import com.senprojectbackend1.service.mapper.ProjectMapper;
 import com.senprojectbackend1.service.mapper.TeamMapper;
 import com.senprojectbackend1.service.mapper.UserProfileMapper;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -38,6 +41,9 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     private static final Logger LOG = LoggerFactory.getLogger(UserProfileServiceImpl.class);
 
+    private static final int USER_ID_CACHE_MAX_SIZE = 10_000;
+    private static final Duration USER_ID_CACHE_TTL = Duration.ofMinutes(30);
+
     private final UserProfileRepository userProfileRepository;
     private final UserProfileMapper userProfileMapper;
 
@@ -50,10 +56,18 @@ public class UserProfileServiceImpl implements UserProfileService {
     private final TransactionalOperator transactionalOperator;
     private final TagRepository tagRepository;
 
-    private final com.senprojectbackend1.service.CloudinaryService cloudinaryService;
+    private final com.senprojectbackend1.service.MediaService mediaService;
 
     private final TeamMembershipRepository teamMembershipRepository;
 
+    private final ProjectAssociationLoader projectAssociationLoader;
+
+    // login -> user id, used by every interaction (view, like, share, favorite...)
+    private final Cache<String, String> userIdsByLogin = Caffeine.newBuilder()
+        .maximumSize(USER_ID_CACHE_MAX_SIZE)
+        .expireAfterWrite(USER_ID_CACHE_TTL)
+        .build();
+
     public UserProfileServiceImpl(
         UserProfileRepository userProfileRepository,
         UserProfileMapper userProfileMapper,
@@ -63,8 +77,9 @@ public class UserProfileServiceImpl implements UserProfileService {
         ProjectMapper projectMapper,
         TransactionalOperator transactionalOperator,
         TagRepository tagRepository,
-        com.senprojectbackend1.service.CloudinaryService cloudinaryService,
-        TeamMembershipRepository teamMembershipRepository
+        com.senprojectbackend1.service.MediaService mediaService,
+        TeamMembershipRepository teamMembershipRepository,
+        ProjectAssociationLoader projectAssociationLoader
     ) {
         this.userProfileRepository = userProfileRepository;
         this.userProfileMapper = userProfileMapper;
@@ -74,8 +89,9 @@ public class UserProfileServiceImpl implements UserProfileService {
         this.projectMapper = projectMapper;
         this.transactionalOperator = transactionalOperator;
         this.tagRepository = tagRepository;
-        this.cloudinaryService = cloudinaryService;
+        this.mediaService = mediaService;
         this.teamMembershipRepository = teamMembershipRepository;
+        this.projectAssociationLoader = projectAssociationLoader;
     }
 
     @Override
@@ -141,7 +157,7 @@ public class UserProfileServiceImpl implements UserProfileService {
     @Override
     public Mono<Void> delete(String id) {
         LOG.debug("Request to delete UserProfile : {}", id);
-        return userProfileRepository.deleteById(id);
+        return userProfileRepository.deleteById(id).doOnSuccess(v -> userIdsByLogin.asMap().values().removeIf(id::equals));
     }
 
     /**
@@ -175,6 +191,7 @@ public class UserProfileServiceImpl implements UserProfileService {
                     .findOneByLogin(login)
                     .switchIfEmpty(createNewUserProfile(tokenAttributes))
                     .flatMap(existingUser -> updateUserProfileIfNeeded(existingUser, tokenAttributes))
+                    .doOnSuccess(synced -> userIdsByLogin.invalidate(login))
                     .map(userProfileMapper::toDto)
                     .doOnSuccess(dto -> LOG.info("User profile synchronized successfully: {}", dto.getLogin()))
                     .doOnError(error -> LOG.error("Error synchronizing user profile: {}", error.getMessage()));
@@ -344,8 +361,25 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     @Override
     public Mono<UserProfileSimpleDTO> getUserProfileSimpleByLogin(String login) {
-        LOG.debug("Request to get complete profile for login: {}", login);
-        return userProfileRepository.findOneByLogin(login).flatMap(this::buildCompleteUserProfileSimpleDTO);
+        LOG.debug("Request to get simple profile for login: {}", login);
+        return userProfileRepository.findOneByLogin(login).map(userProfile -> {
+            UserProfileSimpleDTO dto = new UserProfileSimpleDTO();
+            userProfileMapper.userProfileToUserProfileSimpleDTO(userProfile, dto);
+            return dto;
+        });
+    }
+
+    @Override
+    public Mono<String> getUserIdByLogin(String login) {
+        if (login == null) {
+            return Mono.empty();
+        }
+        String cachedId = userIdsByLogin.getIfPresent(login);
+        if (cachedId != null) {
+            return Mono.just(cachedId);
+        }
+        LOG.debug("Request to resolve user id for login: {}", login);
+        return userProfileRepository.findIdByLogin(login).doOnNext(id -> userIdsByLogin.put(login, id));
     }
 
     /**
@@ -383,35 +417,6 @@ public class UserProfileServiceImpl implements UserProfileService {
         });
     }
 
-    private Mono<UserProfileSimpleDTO> buildCompleteUserProfileSimpleDTO(UserProfile userProfile) {
-        LOG.debug("Building complete profile DTO for login: {}", userProfile.getLogin());
-        UserProfileSimpleDTO dto = new UserProfileSimpleDTO();
-
-        // Mapper le profil utilisateur de base
-        userProfileMapper.userProfileToUserProfileSimpleDTO(userProfile, dto);
-
-        // Check if id is null
-        if (userProfile.getId() == null) {
-            LOG.error("User profile id is null for login: {}", userProfile.getLogin());
-            return Mono.error(new IllegalStateException("User profile id cannot be null"));
-        }
-
-        // 1. Récupérer les équipes de l'utilisateur
-        Mono<Set<TeamSimpleDTO>> teamsMono = getTeamsForUser(userProfile.getId());
-
-        // 2. Récupérer les projets de l'utilisateur
-        Mono<Set<ProjectDTO>> userProjectsMono = getProjectsForUser(userProfile.getId());
-
-        // 3. Récupérer les projets favoris avec leurs détails
-        Mono<Set<ProjectDTO>> favoriteProjectsMono = getFavoriteProjectsForUser(userProfile.getId());
-
-        // 4. Fusionner les résultats et construire le DTO final
-        return Mono.zip(userProjectsMono, favoriteProjectsMono, teamsMono).map(tuple -> {
-            LOG.debug("User profile complete DTO created for login: {}", userProfile.getLogin());
-            return dto;
-        });
-    }
-
     private Mono<Set<TeamSimpleDTO>> getTeamsForUser(String userId) {
         return teamRepository
             .findByMembers(userId)
@@ -426,22 +431,22 @@ public class UserProfileServiceImpl implements UserProfileService {
     }
 
     private Mono<Set<ProjectDTO>> getProjectsForUser(String userId) {
-        return projectRepository
-            .findByTeamMembersIdWithEagerRelationships(userId)
-            .flatMap(this::mapProjectWithTeamAndTags)
+        return projectAssociationLoader
+            .withTagsAndTeam(projectRepository.findByTeamMembersIdWithEagerRelationships(userId))
+            .map(this::mapProjectWithTeamAndTags)
             .collect(Collectors.toSet())
             .doOnNext(projects -> LOG.debug("User projects found: {}", projects.size()));
     }
 
     private Mono<Set<ProjectDTO>> getFavoriteProjectsForUser(String userId) {
-        return projectRepository
-            .findByFavoritedById(userId)
-            .flatMap(this::mapProjectWithTeamAndTags) // Même traitement que les projets normaux
+        return projectAssociationLoader
+            .withTagsAndTeam(projectRepository.findByFavoritedById(userId))
+            .map(this::mapProjectWithTeamAndTags) // Même traitement que les projets normaux
             .collect(Collectors.toSet())
             .doOnNext(favorites -> LOG.debug("Favorite projects found: {}", favorites.size()));
     }
 
-    private Mono<ProjectDTO> mapProjectWithTeamAndTags(Project project) {
+    private ProjectDTO mapProjectWithTeamAndTags(Project project) {
         ProjectDTO projectDTO = new ProjectDTO();
         projectDTO.setId(project.getId());
         projectDTO.setTitle(project.getTitle());
@@ -453,34 +458,28 @@ public class UserProfileServiceImpl implements UserProfileService {
         projectDTO.setType(project.getType());
         projectDTO.setDescription(project.getDescription());
         projectDTO.setShowcase(project.getShowcase());
+        projectDTO.setShowcaseThumbnailUrl(project.getShowcaseThumbnailUrl());
+        projectDTO.setShowcaseCardUrl(project.getShowcaseCardUrl());
         projectDTO.setOpenToCollaboration(project.getOpenToCollaboration());
         projectDTO.setOpenToFunding(project.getOpenToFunding());
 
-        // Récupérer l'équipe du projet
-        Mono<ProjectDTO> projectWithTeam = teamRepository
-            .findById(project.getTeamId())
-            .map(teamMapper::toDto)
-            .map(teamDTO -> {
-                projectDTO.setTeam(teamDTO);
-                return projectDTO;
-            });
-
-        // Ajouter les tags au projet
-        return projectWithTeam.flatMap(projectDTOWithTeam ->
-            tagRepository
-                .findByProjectId(project.getId())
+        // Équipe et tags déjà chargés par le ProjectAssociationLoader
+        if (project.getTeam() != null) {
+            projectDTO.setTeam(teamMapper.toDto(project.getTeam()));
+        }
+        projectDTO.setTags(
+            project
+                .getTags()
+                .stream()
                 .map(tag -> {
                     TagDTO tagDTO = new TagDTO();
                     tagDTO.setId(tag.getId());
                     tagDTO.setName(tag.getName());
                     return tagDTO;
                 })
-                .collectList()
-                .map(tags -> {
-                    projectDTOWithTeam.setTags(new HashSet<>(tags));
-                    return projectDTOWithTeam;
-                })
+                .collect(Collectors.toSet())
         );
+        return projectDTO;
     }
 
     @Override
@@ -537,7 +536,7 @@ public class UserProfileServiceImpl implements UserProfileService {
                 if (updateDTO.containsKey("imageUrl")) {
                     String imageUrl = (String) updateDTO.get("imageUrl");
                     if (imageUrl != null && !imageUrl.isBlank() && !imageUrl.startsWith("http")) {
-                        imageMono = cloudinaryService
+                        imageMono = mediaService
                             .uploadBase64Image(imageUrl, "profile")
                             .map(url -> {
                                 userProfile.setImageUrl(url);
@@ -562,6 +561,7 @@ public class UserProfileServiceImpl implements UserProfileService {
                         up.setLastModifiedBy("self");
                         return userProfileRepository.save(up);
                     })
+                    .doOnNext(saved -> userIdsByLogin.invalidate(saved.getLogin()))
                     .map(userProfileMapper::toDto);
             });
     }
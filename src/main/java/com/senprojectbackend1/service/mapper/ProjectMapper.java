@@ -27,6 +27,8 @@ public interface ProjectMapper extends EntityMapper<ProjectDTO, Project> {
     @Mapping(target = "title", source = "title")
     @Mapping(target = "description", source = "description")
     @Mapping(target = "showcase", source = "showcase")
+    @Mapping(target = "showcaseThumbnailUrl", source = "showcaseThumbnailUrl")
+    @Mapping(target = "showcaseCardUrl", source = "showcaseCardUrl")
     @Mapping(target = "status", source = "status")
     @Mapping(target = "openToCollaboration", source = "openToCollaboration")
     @Mapping(target = "openToFunding", source = "openToFunding")
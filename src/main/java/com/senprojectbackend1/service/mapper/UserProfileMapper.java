@@ -40,6 +40,8 @@ public interface UserProfileMapper extends EntityMapper<UserProfileDTO, UserProf
     @Mapping(target = "totalShares", source = "totalShares")
     @Mapping(target = "totalViews", source = "totalViews")
     @Mapping(target = "showcase", source = "showcase")
+    @Mapping(target = "showcaseThumbnailUrl", source = "showcaseThumbnailUrl")
+    @Mapping(target = "showcaseCardUrl", source = "showcaseCardUrl")
     @Mapping(target = "openToCollaboration", source = "openToCollaboration")
     @Mapping(target = "openToFunding", source = "openToFunding")
     ProjectDTO toDtoProjectId(Project project);
@@ -0,0 +1,44 @@
+package com.senprojectbackend1.service.storage;
+
+import com.senprojectbackend1.service.CloudinaryService;
+import java.nio.file.Files;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps media on Cloudinary: the content is spooled to a temporary file, which the Cloudinary client uploads.
+ * Derivatives are uploaded as separate images; a missing one cannot be regenerated, the original is used instead.
+ */
+@Service
+@ConditionalOnProperty(name = "application.media.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private final CloudinaryService cloudinaryService;
+
+    public CloudinaryMediaStorage(CloudinaryService cloudinaryService) {
+        this.cloudinaryService = cloudinaryService;
+    }
+
+    @Override
+    public Mono<StoredMedia> store(Flux<DataBuffer> content, MediaType contentType) {
+        return Mono.usingWhen(
+            Mono.fromCallable(() -> Files.createTempFile("media-", null)).subscribeOn(Schedulers.boundedElastic()),
+            file ->
+                DataBufferUtils.write(content, file)
+                    .then(Mono.fromCallable(() -> Files.size(file)).subscribeOn(Schedulers.boundedElastic()))
+                    .flatMap(size -> cloudinaryService.uploadFile(file).map(url -> new StoredMedia(url, url, size))),
+            file -> Mono.fromCallable(() -> Files.deleteIfExists(file)).subscribeOn(Schedulers.boundedElastic())
+        );
+    }
+
+    @Override
+    public Mono<String> storeDerivative(String key, ImageVariant variant, byte[] content, MediaType contentType) {
+        return cloudinaryService.uploadBytes(content);
+    }
+}
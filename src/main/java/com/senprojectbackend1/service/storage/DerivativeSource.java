@@ -0,0 +1,14 @@
+package com.senprojectbackend1.service.storage;
+
+import java.nio.file.Path;
+import org.springframework.http.MediaType;
+
+/**
+ * What a missing derivative of a locally stored image is regenerated from.
+ *
+ * @param originalKey the key of the original image.
+ * @param original the file of the original image.
+ * @param variant the size of the derivative.
+ * @param contentType the format of the derivative, given by the extension of its key.
+ */
+public record DerivativeSource(String originalKey, Path original, ImageVariant variant, MediaType contentType) {}
@@ -0,0 +1,149 @@
+package com.senprojectbackend1.service.storage;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Node;
+
+/**
+ * The EXIF orientation of a JPEG, read from the metadata of the ImageIO reader, which does not apply it.
+ * <p>
+ * Orientations 1 to 8 as defined by the EXIF specification: 1 is upright, 6 is rotated 90° clockwise for display, and so on.
+ */
+final class ExifOrientation {
+
+    static final int UPRIGHT = 1;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExifOrientation.class);
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1 = 0xE1;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private ExifOrientation() {}
+
+    /**
+     * @param reader a reader whose input is set without ignoring the metadata.
+     * @return the orientation of the first image, {@link #UPRIGHT} if it has none, is not a JPEG, or its metadata are invalid.
+     */
+    static int of(ImageReader reader) {
+        try {
+            return of(reader.getImageMetadata(0));
+        } catch (IOException e) {
+            // des métadonnées que ImageIO refuse (ex. APP1 avant APP0) n'empêchent pas de lire l'image
+            LOG.debug("Orientation not read: {}", e.getMessage());
+            return UPRIGHT;
+        }
+    }
+
+    private static int of(IIOMetadata metadata) {
+        if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+            return UPRIGHT;
+        }
+        Node markers = child(metadata.getAsTree(JPEG_METADATA_FORMAT), "markerSequence");
+        for (Node marker = markers != null ? markers.getFirstChild() : null; marker != null; marker = marker.getNextSibling()) {
+            Node tag = marker.getAttributes() != null ? marker.getAttributes().getNamedItem("MarkerTag") : null;
+            if (
+                "unknown".equals(marker.getNodeName()) &&
+                tag != null &&
+                Integer.parseInt(tag.getNodeValue()) == APP1 &&
+                marker instanceof IIOMetadataNode node &&
+                node.getUserObject() instanceof byte[] data
+            ) {
+                int orientation = parse(data);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            }
+        }
+        return UPRIGHT;
+    }
+
+    /**
+     * @return the image as it is meant to be displayed, the same instance if upright.
+     */
+    static BufferedImage apply(BufferedImage image, int orientation) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // (x, y) de l'image lue vers sa position affichée ; de 5 à 8, largeur et hauteur sont échangées
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(
+            swap ? height : width,
+            swap ? width : height,
+            image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB
+        );
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // segment APP1 : en-tête Exif, puis une structure TIFF dont le premier IFD porte l'orientation
+    private static int parse(byte[] data) {
+        if (data.length < EXIF_HEADER.length + 8) {
+            return 0;
+        }
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (data[i] != EXIF_HEADER[i]) {
+                return 0;
+            }
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, EXIF_HEADER.length, data.length - EXIF_HEADER.length).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + 12 * i;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                int orientation = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return orientation >= 1 && orientation <= 8 ? orientation : 0;
+            }
+        }
+        return 0;
+    }
+
+    private static Node child(Node node, String name) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (name.equals(child.getNodeName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,240 @@
+package com.senprojectbackend1.service.storage;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Produces the {@link ImageVariant derivatives} of the uploaded images with ImageIO, and stores them next to the original.
+ * <p>
+ * Decoding and scaling are CPU and memory bound: they run on a dedicated pool of {@code application.images.worker-threads}
+ * threads with at most {@code max-queued} waiting images, never on the event loop. An image that cannot be decoded,
+ * is too large, or finds the pool full is kept without derivatives. Large images are subsampled while decoded, so that
+ * the decoded image stays close to the size of the largest derivative whatever the size of the upload.
+ * The EXIF orientation of photos is applied before scaling, the derivatives having no metadata. Animated GIFs are kept
+ * without derivatives: they would only keep their first frame.
+ * <p>
+ * A derivative of the local storage whose file is missing is regenerated from the original when requested,
+ * once whatever the number of concurrent requests.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    private final MediaStorage mediaStorage;
+    private final ApplicationProperties.Images properties;
+    private final Scheduler scheduler;
+
+    private final ConcurrentMap<String, Mono<Path>> regenerating = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(MediaStorage mediaStorage, ApplicationProperties applicationProperties) {
+        this.mediaStorage = mediaStorage;
+        this.properties = applicationProperties.getImages();
+        this.scheduler = Schedulers.newBoundedElastic(properties.getWorkerThreads(), properties.getMaxQueued(), "image-derivatives");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Produces and stores all the derivatives of an image.
+     *
+     * @param key the key of the stored original.
+     * @param source opens the content of the original; called on the derivative pool.
+     * @return the URLs of the derivatives, or empty if the image cannot be decoded or the pool is full.
+     */
+    public Mono<ImageDerivatives> createDerivatives(String key, Callable<InputStream> source) {
+        return Mono.fromCallable(() -> render(source, EnumSet.allOf(ImageVariant.class), null))
+            .subscribeOn(scheduler)
+            .flatMap(rendered -> store(key, rendered))
+            .map(urls -> new ImageDerivatives(urls.get(ImageVariant.THUMBNAIL), urls.get(ImageVariant.CARD), urls.get(ImageVariant.FULL)))
+            .onErrorResume(e -> {
+                LOG.warn("Derivatives of media {} not created: {}", key, e.toString());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Finds the file of a locally stored media, regenerating it if it is a missing derivative.
+     *
+     * @param key the key of the media or of the derivative.
+     * @return the file, or empty if unknown.
+     */
+    public Mono<Path> resolve(String key) {
+        return mediaStorage.resolve(key).switchIfEmpty(Mono.defer(() -> regenerate(key)));
+    }
+
+    private Mono<Path> regenerate(String key) {
+        return mediaStorage
+            .findDerivativeSource(key)
+            .flatMap(source ->
+                regenerating.computeIfAbsent(key, k ->
+                    Mono.fromCallable(() ->
+                        render(() -> Files.newInputStream(source.original()), EnumSet.of(source.variant()), source.contentType())
+                    )
+                        .subscribeOn(scheduler)
+                        .doOnNext(rendered -> LOG.debug("Regenerating derivative {}", key))
+                        .flatMap(rendered -> store(source.originalKey(), rendered))
+                        .then(mediaStorage.resolve(key))
+                        .doFinally(signal -> regenerating.remove(k))
+                        .cache()
+                )
+            );
+    }
+
+    private Mono<Map<ImageVariant, String>> store(String key, Map<ImageVariant, Rendered> rendered) {
+        return Flux.fromIterable(rendered.entrySet())
+            .flatMap(entry ->
+                mediaStorage
+                    .storeDerivative(key, entry.getKey(), entry.getValue().content(), entry.getValue().contentType())
+                    .map(url -> Map.entry(entry.getKey(), url))
+            )
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Decodes the image and encodes the requested variants, from the largest to the smallest, each scaled from the previous one.
+     * @param format the format of the derivatives, or null for PNG if the image is transparent and JPEG otherwise.
+     * @return the encoded variants, or null if the image cannot be decoded.
+     */
+    private Map<ImageVariant, Rendered> render(Callable<InputStream> source, Set<ImageVariant> variants, MediaType format)
+        throws Exception {
+        BufferedImage image = decode(source, variants.stream().mapToInt(variant -> variant.size(properties)).max().orElseThrow());
+        if (image == null) {
+            return null;
+        }
+        MediaType contentType = format != null ? format : image.getColorModel().hasAlpha() ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG;
+        boolean alpha = MediaType.IMAGE_PNG.equals(contentType);
+        Map<ImageVariant, Rendered> rendered = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : variants.stream().sorted(Comparator.comparingInt(v -> -v.size(properties))).toList()) {
+            image = scale(image, variant.size(properties), alpha);
+            rendered.put(variant, new Rendered(encode(image, contentType), contentType));
+        }
+        return rendered;
+    }
+
+    private BufferedImage decode(Callable<InputStream> source, int largestSize) throws Exception {
+        try (InputStream in = source.call(); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // un GIF n'est lu qu'en avant que s'il n'a qu'une image, à savoir avant de le décoder
+                boolean gif = "gif".equalsIgnoreCase(reader.getFormatName());
+                reader.setInput(input, !gif, false);
+                if (gif && reader.getNumImages(true) > 1) {
+                    LOG.debug("Animated GIF kept without derivatives");
+                    return null;
+                }
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxPixels()) {
+                    LOG.debug("Image of {}x{} pixels not decoded", width, height);
+                    return null;
+                }
+                int orientation = ExifOrientation.of(reader);
+                // sous-échantillonnage jusqu'à deux fois la plus grande déclinaison, assez pour une réduction de bonne qualité
+                int subsampling = Math.max(1, Math.max(width, height) / (2 * largestSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return ExifOrientation.apply(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image so that its larger side is at most {@code size}, by halving steps: a single bilinear pass
+     * of a factor above two skips pixels.
+     */
+    private static BufferedImage scale(BufferedImage image, int size, boolean alpha) {
+        double ratio = Math.min(1d, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            current = draw(current, width, height, alpha);
+        } while (current.getWidth() > targetWidth || current.getHeight() > targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height, boolean alpha) {
+        BufferedImage scaled = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                // fond blanc plutôt que noir pour les images transparentes converties en JPEG
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] encode(BufferedImage image, MediaType contentType) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (MediaType.IMAGE_PNG.equals(contentType)) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private record Rendered(byte[] content, MediaType contentType) {}
+}
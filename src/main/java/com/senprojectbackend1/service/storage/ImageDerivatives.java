@@ -0,0 +1,18 @@
+package com.senprojectbackend1.service.storage;
+
+/**
+ * URLs of the derivatives of an image.
+ *
+ * @param thumbnail the thumbnail, or null if the image could not be decoded.
+ * @param card the image of the project cards, or null if the image could not be decoded.
+ * @param full the full-size image, or the original image if it could not be decoded.
+ */
+public record ImageDerivatives(String thumbnail, String card, String full) {
+    /**
+     * @param url the URL of an image without derivatives.
+     * @return the original image standing for all sizes, with no thumbnail nor card.
+     */
+    public static ImageDerivatives original(String url) {
+        return new ImageDerivatives(null, null, url);
+    }
+}
@@ -0,0 +1,68 @@
+package com.senprojectbackend1.service.storage;
+
+import java.util.Optional;
+import org.springframework.http.MediaType;
+
+/**
+ * The image types accepted for upload, each stored and served with a fixed extension and content type:
+ * a media never gets an extension, hence a type, chosen by the client.
+ */
+public enum ImageType {
+    JPEG(MediaType.IMAGE_JPEG, "jpg"),
+    PNG(MediaType.IMAGE_PNG, "png"),
+    GIF(MediaType.IMAGE_GIF, "gif"),
+    WEBP(new MediaType("image", "webp"), "webp");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ImageType(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return the extension of the stored files, without the dot.
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * @param mediaType a content type, its parameters ignored.
+     * @return the accepted type, or empty if the content type is not one of them.
+     */
+    public static Optional<ImageType> fromMediaType(MediaType mediaType) {
+        if (mediaType == null) {
+            return Optional.empty();
+        }
+        for (ImageType type : values()) {
+            if (type.mediaType.equalsTypeAndSubtype(mediaType)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param key the key of a stored media, e.g. {@code <hash>.png}.
+     * @return the type given by its extension, or empty if it has none of the accepted ones.
+     */
+    public static Optional<ImageType> fromKey(String key) {
+        int dot = key.lastIndexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        String extension = key.substring(dot + 1);
+        for (ImageType type : values()) {
+            if (type.extension.equals(extension)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.senprojectbackend1.service.storage;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import java.util.Optional;
+
+/**
+ * The derivatives produced for every uploaded image, their sizes set in {@code application.images}.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumbnail"),
+    CARD("card"),
+    FULL("full");
+
+    private final String suffix;
+
+    ImageVariant(String suffix) {
+        this.suffix = suffix;
+    }
+
+    /**
+     * @return the name of the variant in the keys of the derivatives.
+     */
+    public String suffix() {
+        return suffix;
+    }
+
+    /**
+     * @param properties the image properties.
+     * @return the larger side of this variant, in pixels.
+     */
+    public int size(ApplicationProperties.Images properties) {
+        return switch (this) {
+            case THUMBNAIL -> properties.getThumbnailSize();
+            case CARD -> properties.getCardSize();
+            case FULL -> properties.getFullSize();
+        };
+    }
+
+    public static Optional<ImageVariant> fromSuffix(String suffix) {
+        for (ImageVariant variant : values()) {
+            if (variant.suffix.equals(suffix)) {
+                return Optional.of(variant);
+            }
+        }
+        return Optional.empty();
+    }
+}
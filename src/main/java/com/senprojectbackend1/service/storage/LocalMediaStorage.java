@@ -0,0 +1,215 @@
+package com.senprojectbackend1.service.storage;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps media in a local directory, named after the SHA-256 of their content: the same image uploaded twice is stored once,
+ * and a file never changes once written, so it can be cached forever and validated by its hash.
+ * <p>
+ * Content is written with an {@link AsynchronousFileChannel} as it arrives, to a temporary file moved into place once hashed.
+ * Derivatives are named after their original, e.g. {@code <hash>-thumbnail.jpg}, so a missing one can be found again and regenerated;
+ * only the derivatives of the images whose derivatives were created, in the format they were created in, are regenerated.
+ */
+@Service
+@ConditionalOnProperty(name = "application.media.storage", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalMediaStorage.class);
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}(-[a-z]{1,10})?(\\.[a-z0-9]{1,10})?");
+    private static final Pattern DERIVATIVE_KEY = Pattern.compile("([0-9a-f]{64})-([a-z]{1,10})\\.(jpg|png)");
+    private static final int HASH_LENGTH = 64;
+
+    private final Path root;
+    private final String publicUrl;
+
+    public LocalMediaStorage(ApplicationProperties applicationProperties) throws IOException {
+        ApplicationProperties.Media properties = applicationProperties.getMedia();
+        // sans défaut : une URL localhost enregistrée en production serait servie à tous les clients
+        if (properties.getPublicUrl() == null || properties.getPublicUrl().isBlank()) {
+            throw new IllegalStateException("application.media.public-url is required with the local media storage");
+        }
+        this.root = Files.createDirectories(Path.of(properties.getLocalDirectory()).toAbsolutePath().normalize());
+        this.publicUrl = properties.getPublicUrl();
+        LOG.info("Media are stored in {}", root);
+    }
+
+    @Override
+    public Mono<StoredMedia> store(Flux<DataBuffer> content, MediaType contentType) {
+        return Mono.usingWhen(
+            Mono.fromCallable(() -> Files.createTempFile(root, ".upload-", null)).subscribeOn(Schedulers.boundedElastic()),
+            temp -> {
+                MessageDigest digest = sha256();
+                AtomicLong size = new AtomicLong();
+                Flux<DataBuffer> hashed = content.doOnNext(buffer -> {
+                    size.addAndGet(buffer.readableByteCount());
+                    try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                        buffers.forEachRemaining(digest::update);
+                    }
+                });
+                return write(hashed, temp).then(
+                    Mono.fromCallable(() -> commit(temp, HexFormat.of().formatHex(digest.digest()) + extension(contentType), size.get()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                );
+            },
+            temp -> Mono.fromCallable(() -> Files.deleteIfExists(temp)).subscribeOn(Schedulers.boundedElastic())
+        );
+    }
+
+    @Override
+    public Mono<String> storeDerivative(String key, ImageVariant variant, byte[] content, MediaType contentType) {
+        String derivativeKey = key.substring(0, HASH_LENGTH) + "-" + variant.suffix() + extension(contentType);
+        return Mono.fromCallable(() -> {
+            Path temp = Files.createTempFile(root, ".derivative-", null);
+            try {
+                Files.write(temp, content);
+                Path target = path(derivativeKey);
+                Files.createDirectories(target.getParent());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            recordDerivatives(key.substring(0, HASH_LENGTH), contentType);
+            return publicUrl + derivativeKey;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<DerivativeSource> findDerivativeSource(String key) {
+        Matcher matcher = key != null ? DERIVATIVE_KEY.matcher(key) : null;
+        if (matcher == null || !matcher.matches()) {
+            return Mono.empty();
+        }
+        String hash = matcher.group(1);
+        String extension = matcher.group(3);
+        MediaType contentType = "png".equals(extension) ? MediaType.IMAGE_PNG : MediaType.IMAGE_JPEG;
+        return Mono.justOrEmpty(ImageVariant.fromSuffix(matcher.group(2))).flatMap(variant ->
+            Mono.fromCallable(() -> hasDerivatives(hash, extension) ? findOriginal(hash) : null)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(original -> new DerivativeSource(original.getFileName().toString(), original, variant, contentType))
+        );
+    }
+
+    @Override
+    public Mono<Path> resolve(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            return Mono.empty();
+        }
+        Path file = path(key);
+        return Mono.fromCallable(() -> Files.isRegularFile(file))
+            .subscribeOn(Schedulers.boundedElastic())
+            .filter(exists -> exists)
+            .map(exists -> file);
+    }
+
+    private static Mono<Void> write(Flux<DataBuffer> content, Path file) {
+        return Mono.using(
+            () -> AsynchronousFileChannel.open(file, StandardOpenOption.WRITE),
+            channel -> DataBufferUtils.write(content, channel).map(DataBufferUtils::release).then(),
+            channel -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+    }
+
+    private StoredMedia commit(Path temp, String key, long size) throws IOException {
+        Path target = path(key);
+        if (Files.exists(target)) {
+            LOG.debug("Media {} already stored", key);
+        } else {
+            Files.createDirectories(target.getParent());
+            // même nom, même contenu : si un envoi concurrent a gagné, le remplacer est sans effet
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return new StoredMedia(key, publicUrl + key, size);
+    }
+
+    // marque les images dont les déclinaisons ont été créées, et leur format : seules celles-ci sont régénérées,
+    // une URL forgée ne fait pas décoder un original sans déclinaisons (illisible, trop grand, GIF animé) ni changer de format
+    private void recordDerivatives(String hash, MediaType contentType) throws IOException {
+        Path marker = derivativesMarker(hash);
+        if (Files.exists(marker)) {
+            return;
+        }
+        Path temp = Files.createTempFile(root, ".derivatives-", null);
+        try {
+            Files.writeString(temp, extension(contentType).substring(1));
+            Files.move(temp, marker, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private boolean hasDerivatives(String hash, String extension) throws IOException {
+        Path marker = derivativesMarker(hash);
+        return Files.isRegularFile(marker) && Files.readString(marker).equals(extension);
+    }
+
+    // nom caché : il ne correspond à aucune clé servie et n'est pas pris pour l'original
+    private Path derivativesMarker(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve("." + hash + ".derivatives");
+    }
+
+    // l'extension de l'original n'est pas dans la clé de la déclinaison : on cherche parmi les fichiers du même hash
+    private Path findOriginal(String hash) throws IOException {
+        Path directory = root.resolve(hash.substring(0, 2));
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, hash + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.equals(hash) || name.startsWith(hash + ".")) {
+                    return file;
+                }
+            }
+        }
+        return null;
+    }
+
+    // un sous-répertoire par préfixe de hash, pour ne pas avoir tous les fichiers dans un seul répertoire
+    private Path path(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    // extension fixée par type accepté : le type envoyé par le client ne choisit jamais celui sous lequel le fichier est servi
+    private static String extension(MediaType contentType) {
+        return ImageType.fromMediaType(contentType).map(type -> "." + type.extension()).orElse("");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
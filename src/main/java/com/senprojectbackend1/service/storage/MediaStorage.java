@@ -0,0 +1,52 @@
+package com.senprojectbackend1.service.storage;
+
+import java.nio.file.Path;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Where uploaded media are kept, selected by {@code application.media.storage}.
+ */
+public interface MediaStorage {
+    /**
+     * Stores a media as it is read, without holding it in memory.
+     *
+     * @param content the bytes of the media; the buffers are released by the storage.
+     * @param contentType the type of the media.
+     * @return the stored media.
+     */
+    Mono<StoredMedia> store(Flux<DataBuffer> content, MediaType contentType);
+
+    /**
+     * Stores a derivative of an image, e.g. its thumbnail.
+     *
+     * @param key the key of the original image.
+     * @param variant the size of the derivative.
+     * @param content the encoded derivative.
+     * @param contentType the format of the derivative.
+     * @return the URL of the derivative.
+     */
+    Mono<String> storeDerivative(String key, ImageVariant variant, byte[] content, MediaType contentType);
+
+    /**
+     * Finds the file of a media served by this application.
+     *
+     * @param key the key of the media.
+     * @return the file, or empty if unknown or if the media are served by a remote service.
+     */
+    default Mono<Path> resolve(String key) {
+        return Mono.empty();
+    }
+
+    /**
+     * Finds the original of a derivative served by this application, to regenerate the derivative when its file is missing.
+     *
+     * @param key the key of the derivative.
+     * @return the original and the expected derivative, or empty if the key is not the one of a derivative of a stored image.
+     */
+    default Mono<DerivativeSource> findDerivativeSource(String key) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,10 @@
+package com.senprojectbackend1.service.storage;
+
+/**
+ * A media kept by a {@link MediaStorage}.
+ *
+ * @param key the identifier of the media in the storage.
+ * @param url the absolute URL the media is served at.
+ * @param size the size in bytes.
+ */
+public record StoredMedia(String key, String url, long size) {}
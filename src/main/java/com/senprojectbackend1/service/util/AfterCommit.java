@@ -0,0 +1,50 @@
+package com.senprojectbackend1.service.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Defers a side effect of a reactive transaction, such as a push to the live streams or a cached counter,
+ * until the transaction is committed: a rolled back write is never seen outside of the database.
+ */
+public final class AfterCommit {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AfterCommit.class);
+
+    private AfterCommit() {}
+
+    /**
+     * @param action the side effect; run after the commit of the current transaction, or at once if there is none.
+     * @return completes once the action is registered, or run if there is no transaction.
+     */
+    public static Mono<Void> run(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .flatMap(manager -> {
+                if (!manager.isSynchronizationActive()) {
+                    return runNow(action);
+                }
+                manager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return runNow(action);
+                        }
+                    }
+                );
+                return Mono.<Void>empty();
+            })
+            .onErrorResume(NoTransactionException.class, e -> runNow(action));
+    }
+
+    // l'effet est secondaire : son échec ne doit ni annuler la transaction ni faire échouer l'appelant
+    private static Mono<Void> runNow(Runnable action) {
+        return Mono.<Void>fromRunnable(action).onErrorResume(e -> {
+            LOG.error("Action after commit failed: {}", e.getMessage());
+            return Mono.empty();
+        });
+    }
+}
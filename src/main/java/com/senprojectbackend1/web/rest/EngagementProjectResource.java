@@ -5,6 +5,7 @@ import com.senprojectbackend1.repository.EngagementProjectRepository;
 import com.senprojectbackend1.security.AuthoritiesConstants;
 import com.senprojectbackend1.service.EngagementProjectService;
 import com.senprojectbackend1.service.dto.EngagementProjectDTO;
+import com.senprojectbackend1.service.dto.ProjectEngagementStatusDTO;
 import com.senprojectbackend1.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -42,6 +43,8 @@ public class EngagementProjectResource {
 
     private static final String ENTITY_NAME = "senProjectBackend1EngagementProject";
 
+    private static final int MAX_STATUS_PROJECT_IDS = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -291,4 +294,25 @@ public class EngagementProjectResource {
             .map(securityContext -> securityContext.getAuthentication().getName())
             .flatMap(login -> engagementProjectService.getUserEngagementStatus(id, login).map(status -> ResponseEntity.ok().body(status)));
     }
+
+    /**
+     * {@code GET  /engagement-projects/projects/status?ids=1,2,3} : Récupère le statut d'engagement (like/share/favori)
+     * de l'utilisateur courant pour plusieurs projets, par exemple toutes les cartes d'une page du fil.
+     *
+     * @param ids les ids des projets (au plus 100)
+     * @return un statut {projectId, like, share, favorite} par projet demandé
+     */
+    @GetMapping("/projects/status")
+    public Mono<ResponseEntity<List<ProjectEngagementStatusDTO>>> getUserEngagementStatuses(@RequestParam("ids") List<Long> ids) {
+        LOG.debug("REST request to get engagement statuses for projects : {}", ids);
+        if (ids.size() > MAX_STATUS_PROJECT_IDS) {
+            return Mono.error(
+                new BadRequestAlertException("At most " + MAX_STATUS_PROJECT_IDS + " project ids are allowed", ENTITY_NAME, "toomanyids")
+            );
+        }
+        return ReactiveSecurityContextHolder.getContext()
+            .map(securityContext -> securityContext.getAuthentication().getName())
+            .flatMap(login -> engagementProjectService.getUserEngagementStatuses(ids, login).collectList())
+            .map(statuses -> ResponseEntity.ok().body(statuses));
+    }
 }
@@ -0,0 +1,95 @@
+package com.senprojectbackend1.web.rest;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.security.SecurityUtils;
+import com.senprojectbackend1.service.MediaService;
+import com.senprojectbackend1.service.dto.MediaDTO;
+import com.senprojectbackend1.service.storage.ImageType;
+import com.senprojectbackend1.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for uploading project media before submitting the project, and serving the locally stored ones.
+ */
+@RestController
+@RequestMapping("/api/media")
+public class MediaResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MediaResource.class);
+
+    private static final String ENTITY_NAME = "media";
+
+    private final MediaService mediaService;
+
+    private final CacheControl cacheControl;
+
+    public MediaResource(MediaService mediaService, ApplicationProperties applicationProperties) {
+        this.mediaService = mediaService;
+        this.cacheControl = CacheControl.maxAge(applicationProperties.getMedia().getCacheMaxAge()).cachePublic().immutable();
+    }
+
+    /**
+     * {@code POST  /media} : upload images as multipart files.
+     * Their ids are then given in the {@code mediaId} fields of {@code POST /api/projects/submit}.
+     *
+     * @param files the images, in the {@code files} parts.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the media handles, in the order of the parts.
+     */
+    @PostMapping(value = "", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<List<MediaDTO>>> uploadMedia(@RequestPart("files") Flux<FilePart> files) {
+        LOG.debug("REST request to upload media");
+        return SecurityUtils.getCurrentUserLogin()
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Utilisateur courant non trouvé", ENTITY_NAME, "usernotfound")))
+            .flatMap(login ->
+                files
+                    .flatMapSequential(part -> mediaService.upload(part, login), mediaService.getMaxConcurrentUploadsPerRequest())
+                    .collectList()
+            )
+            .map(media -> ResponseEntity.status(HttpStatus.CREATED).body(media));
+    }
+
+    /**
+     * {@code GET  /media/files/:key} : serve a media of the local storage.
+     * The file is sent with zero-copy when the server supports it, honours {@code Range} requests, and is cached
+     * as immutable: its key is the hash of its content, which is also its ETag. A missing derivative, e.g. a thumbnail,
+     * is regenerated from the original before being sent. Its content type is the one fixed for its extension, never
+     * sniffed by the browser, so that a stored file can only ever be rendered as one of the accepted images.
+     *
+     * @param key the key of the media.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}, {@code 206 (Partial Content)} or {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/files/{key}")
+    public Mono<ResponseEntity<Resource>> getMediaFile(@PathVariable("key") String key) {
+        String etag = "\"" + StringUtils.stripFilenameExtension(key) + "\"";
+        return mediaService
+            .resolveFile(key)
+            .map(file ->
+                ResponseEntity.ok()
+                    .contentType(ImageType.fromKey(key).map(ImageType::mediaType).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                    .header("X-Content-Type-Options", "nosniff")
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .<Resource>body(new FileSystemResource(file))
+            )
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1,5 +1,7 @@
 package com.senprojectbackend1.web.rest;
 
+import com.senprojectbackend1.broker.dto.NotificationMessage;
+import com.senprojectbackend1.config.ApplicationProperties;
 import com.senprojectbackend1.domain.Notification;
 import com.senprojectbackend1.domain.criteria.NotificationCriteria;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
@@ -8,12 +10,15 @@ import com.senprojectbackend1.repository.UserProfileRepository;
 import com.senprojectbackend1.security.AuthoritiesConstants;
 import com.senprojectbackend1.security.SecurityUtils;
 import com.senprojectbackend1.service.NotificationService;
+import com.senprojectbackend1.service.UserProfileService;
+import com.senprojectbackend1.service.dto.NotificationBroadcastDTO;
 import com.senprojectbackend1.service.dto.NotificationDTO;
 import com.senprojectbackend1.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -21,13 +26,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -47,6 +55,8 @@ public class NotificationResource {
 
     private static final String ENTITY_NAME = "senProjectBackend1Notification";
 
+    private static final int INBOX_MAX_PAGE_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -56,14 +66,25 @@ public class NotificationResource {
 
     private final UserProfileRepository userProfileRepository;
 
+    private final UserProfileService userProfileService;
+
+    // un seul minuteur pour toutes les connexions ouvertes au flux de notifications
+    private final Flux<ServerSentEvent<NotificationMessage>> heartbeat;
+
     public NotificationResource(
         NotificationService notificationService,
         NotificationRepository notificationRepository,
-        UserProfileRepository userProfileRepository
+        UserProfileRepository userProfileRepository,
+        UserProfileService userProfileService,
+        ApplicationProperties applicationProperties
     ) {
         this.notificationService = notificationService;
         this.notificationRepository = notificationRepository;
         this.userProfileRepository = userProfileRepository;
+        this.userProfileService = userProfileService;
+        this.heartbeat = Flux.interval(applicationProperties.getNotificationStream().getHeartbeatInterval())
+            .map(tick -> ServerSentEvent.<NotificationMessage>builder().comment("heartbeat").build())
+            .share();
     }
 
     /**
@@ -260,15 +281,81 @@ public class NotificationResource {
     }
 
     /**
-     * {@code GET /notifications/user/{userId}} : Get all notifications for a user
+     * {@code GET /notifications/user/{userId}} : Get a page of the notifications of a user, from the newest to the oldest.
+     * <p>
+     * To get the next page, pass the creation date and the id of the last notification received in {@code afterCreatedAt}
+     * and {@code afterId}.
      *
      * @param userId The ID of the user
+     * @param size the number of notifications of the page, at most {@value #INBOX_MAX_PAGE_SIZE}
+     * @param afterCreatedAt the creation date of the last notification of the previous page (optional)
+     * @param afterId the id of the last notification of the previous page (optional)
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the notifications
      */
     @GetMapping("/user/{userId}")
-    public Flux<Notification> getAllNotificationsForUser(@PathVariable String userId) {
-        LOG.debug("REST request to get all notifications for user: {}", userId);
-        return notificationService.getAllNotificationsForUser(userId);
+    public Flux<Notification> getAllNotificationsForUser(
+        @PathVariable String userId,
+        @RequestParam(value = "size", defaultValue = "20") int size,
+        @RequestParam(value = "afterCreatedAt", required = false) Instant afterCreatedAt,
+        @RequestParam(value = "afterId", required = false) Long afterId
+    ) {
+        LOG.debug("REST request to get notifications for user: {}, size: {}, after: ({}, {})", userId, size, afterCreatedAt, afterId);
+        int pageSize = Math.max(1, Math.min(size, INBOX_MAX_PAGE_SIZE));
+        return notificationService.getNotificationsForUser(userId, pageSize, afterCreatedAt, afterId);
+    }
+
+    /**
+     * {@code GET /notifications/unread-count} : Get the number of unread notifications of the current user, for the badge.
+     * <p>
+     * The count is served from memory; its {@code ETag} lets a client polling it get {@code 304 (Not Modified)} while it does
+     * not change.
+     *
+     * @param exchange the current exchange, for the {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of unread notifications,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)} if the user has no profile.
+     */
+    @GetMapping("/unread-count")
+    public Mono<ResponseEntity<Long>> getCurrentUserUnreadCount(ServerWebExchange exchange) {
+        LOG.debug("REST request to get the unread notification count of the current user");
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(userProfileService::getUserIdByLogin)
+            .flatMap(notificationService::countUnreadForUser)
+            .map(count -> {
+                String etag = "\"" + count + "\"";
+                if (exchange.checkNotModified(etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Long>build();
+                }
+                return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache().cachePrivate()).body(count);
+            })
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code GET /notifications/stream} : Stream the notifications of the current user as Server-Sent Events.
+     * <p>
+     * Each event carries the id of its notification: a client reconnecting with the {@code Last-Event-ID} header first
+     * receives the notifications it missed. A comment is sent every heartbeat interval to keep idle connections open.
+     *
+     * @param lastEventId the id of the last notification received (optional).
+     * @return the stream of notifications, or status {@code 404 (Not Found)} if the user has no profile.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<NotificationMessage>> streamCurrentUserNotifications(
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        LOG.debug("REST request to stream notifications for current user, after: {}", lastEventId);
+        return SecurityUtils.getCurrentUserLogin()
+            .flatMap(userProfileRepository::findOneByLogin)
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User profile not found")))
+            .flatMapMany(user ->
+                Flux.merge(notificationService.streamNotifications(user.getId(), lastEventId).map(NotificationResource::toEvent), heartbeat)
+            );
+    }
+
+    private static ServerSentEvent<NotificationMessage> toEvent(NotificationMessage message) {
+        ServerSentEvent.Builder<NotificationMessage> event = ServerSentEvent.builder(message).event("notification");
+        // les messages diffusés à tous n'ont pas d'id : chaque destinataire a sa propre notification en base
+        return message.getId() != null ? event.id(message.getId().toString()).build() : event.build();
     }
 
     /**
@@ -363,11 +450,12 @@ public class NotificationResource {
      * @param entityId the logins of the related entities (optional)
      * @param action the action to perform (optional)
      * @param targetLogins array of user IDs or "all" for all users
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the created notifications
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the created notifications,
+     * or with status {@code 202 (Accepted)} and with body the broadcast job when sent to all users.
      */
     @Secured({ AuthoritiesConstants.ADMIN, AuthoritiesConstants.SUPPORT })
     @PostMapping("/notify")
-    public Mono<ResponseEntity<List<Notification>>> createNotifications(
+    public Mono<ResponseEntity<Object>> createNotifications(
         @RequestParam String content,
         @RequestParam NotificationType type,
         @RequestParam(required = false) String entityId,
@@ -376,18 +464,34 @@ public class NotificationResource {
     ) {
         LOG.debug("REST request to create notifications for targets: {}", targetLogins);
 
-        // Si targetIds contient "all", envoyer à tous les utilisateurs
+        // Si targetIds contient "all", lancer une diffusion à tous les utilisateurs
         if (targetLogins != null && targetLogins.length == 1 && "all".equalsIgnoreCase(targetLogins[0])) {
-            return notificationService
-                .createNotifications(content, type, entityId, action, new String[0])
-                .collectList()
-                .map(notifications -> ResponseEntity.status(HttpStatus.CREATED).body(notifications));
+            return SecurityUtils.getCurrentUserLogin()
+                .flatMap(userProfileRepository::findOneByLogin)
+                .flatMap(emitter -> notificationService.broadcastNotification(content, type, emitter.getId(), action))
+                .map(job ->
+                    ResponseEntity.accepted().location(URI.create("/api/notifications/broadcasts/" + job.getId())).<Object>body(job)
+                )
+                .defaultIfEmpty(ResponseEntity.notFound().build());
         }
 
         // Sinon, envoyer aux utilisateurs spécifiés
         return notificationService
             .createNotifications(content, type, entityId, action, targetLogins)
             .collectList()
-            .map(notifications -> ResponseEntity.status(HttpStatus.CREATED).body(notifications));
+            .map(notifications -> ResponseEntity.status(HttpStatus.CREATED).<Object>body(notifications));
+    }
+
+    /**
+     * {@code GET  /broadcasts/:id} : get the progress of a notification broadcast.
+     *
+     * @param id the id of the broadcast job.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the job, or with status {@code 404 (Not Found)}.
+     */
+    @Secured({ AuthoritiesConstants.ADMIN, AuthoritiesConstants.SUPPORT })
+    @GetMapping("/broadcasts/{id}")
+    public Mono<ResponseEntity<NotificationBroadcastDTO>> getBroadcast(@PathVariable("id") String id) {
+        LOG.debug("REST request to get notification broadcast : {}", id);
+        return ResponseUtil.wrapOrNotFound(notificationService.findBroadcast(id));
     }
 }
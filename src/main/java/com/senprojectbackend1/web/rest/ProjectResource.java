@@ -15,6 +15,7 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -480,12 +481,16 @@ public class ProjectResource {
      *
      * @param pageable the pagination information.
      * @param categories liste des catégories (tags) à filtrer (optionnel, union)
+     * @param afterCreatedAt date de création du dernier projet reçu, pour paginer par curseur avec des catégories (optionnel)
+     * @param afterId id du dernier projet reçu, pour paginer par curseur avec des catégories (optionnel)
      * @return the response with status {@code 200 (OK)} and the list of projects in body
      */
     @GetMapping("/paginated")
     public Mono<ResponseEntity<Flux<ProjectDTO>>> getPaginatedProjects(
         @ParameterObject Pageable pageable,
-        @RequestParam(value = "category", required = false) List<String> categories
+        @RequestParam(value = "category", required = false) List<String> categories,
+        @RequestParam(value = "afterCreatedAt", required = false) Instant afterCreatedAt,
+        @RequestParam(value = "afterId", required = false) Long afterId
     ) {
         LOG.debug("REST request to get paginated Projects - pageable: {}, categories: {}", pageable, categories);
         Mono<Long> totalMono;
@@ -501,7 +506,7 @@ public class ProjectResource {
             flux = projectService.findByCriteria(criteria, pageable);
         } else {
             totalMono = projectService.countProjectsByCategories(categories);
-            flux = projectService.getPaginatedProjects(pageable, categories); // This service method still needs the filtering logic inside for the category case
+            flux = projectService.getPaginatedProjects(pageable, categories, afterCreatedAt, afterId);
         }
 
         return totalMono.map(total -> {
@@ -514,14 +519,24 @@ public class ProjectResource {
     /**
      * {@code GET /projects/popular} : Récupère les projets les plus populaires (paginé).
      *
+     * Le score de popularité d'un projet vaut {@code totalViews + totalLikes + totalFavorites} ; pour paginer par curseur,
+     * passer le score et l'id du dernier projet reçu dans {@code afterScore} et {@code afterId}.
+     *
      * @param pageable the pagination information.
+     * @param afterScore popularity score of the last project of the previous page (optional).
+     * @param afterId id of the last project of the previous page (optional).
      * @return the response with status {@code 200 (OK)} and the list of popular projects in body
      */
     @GetMapping("/popular")
-    public Mono<ResponseEntity<Flux<ProjectDTO>>> getTopPopularProjects(@ParameterObject Pageable pageable, ServerHttpRequest request) {
-        LOG.debug("REST request to get top popular projects - pageable: {}", pageable);
+    public Mono<ResponseEntity<Flux<ProjectDTO>>> getTopPopularProjects(
+        @ParameterObject Pageable pageable,
+        @RequestParam(value = "afterScore", required = false) Integer afterScore,
+        @RequestParam(value = "afterId", required = false) Long afterId,
+        ServerHttpRequest request
+    ) {
+        LOG.debug("REST request to get top popular projects - pageable: {}, after: ({}, {})", pageable, afterScore, afterId);
         Mono<Long> totalMono = projectService.countPopularProjects();
-        Flux<ProjectDTO> flux = projectService.getTopPopularProjects(pageable);
+        Flux<ProjectDTO> flux = projectService.getTopPopularProjects(pageable, afterScore, afterId);
         return totalMono.map(total -> {
             HttpHeaders headers = new HttpHeaders();
             headers.add("X-Total-Count", String.valueOf(total));
@@ -271,19 +271,21 @@ public class TagResource {
      *
      * @param page the page number (0-based)
      * @param size the page size
+     * @param publishedOnly whether to count only the published, non-deleted projects
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body.
      */
     @GetMapping("/tags/paginated")
     public Mono<ResponseEntity<PageDTO<TagWithCountDTO>>> getPaginatedTags(
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean publishedOnly
     ) {
         LOG.debug("REST request to get paginated Tags with count");
-        return tagService.getPaginatedTags(page, size).map(ResponseEntity::ok);
+        return tagService.getPaginatedTags(page, size, publishedOnly).map(ResponseEntity::ok);
     }
 
     /**
-     * {@code GET  /tags/search} : search tags by name (only non-forbidden tags).
+     * {@code GET  /tags/search} : search tags by name (only non-forbidden tags), served from memory for autocompletion.
      *
      * @param name the name to search for
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of tags in body
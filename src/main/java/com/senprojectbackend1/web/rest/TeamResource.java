@@ -421,10 +421,10 @@ public class TeamResource {
             .map(securityContext -> securityContext.getAuthentication().getName())
             .flatMap(login ->
                 userProfileService
-                    .getUserProfileSimpleByLogin(login)
-                    .flatMap(user ->
+                    .getUserIdByLogin(login)
+                    .flatMap(userId ->
                         teamService
-                            .getMemberRole(id, user.getId())
+                            .getMemberRole(id, userId)
                             .flatMap(role -> {
                                 if (!"LEAD".equals(role)) {
                                     return Mono.error(
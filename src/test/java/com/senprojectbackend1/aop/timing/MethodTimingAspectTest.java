@@ -0,0 +1,127 @@
+package com.senprojectbackend1.aop.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MethodTimingAspectTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        applicationProperties.getMethodTiming().setSampleRate(1);
+    }
+
+    @Test
+    void timesTheExecutionOfTheReturnedMonoNotItsAssembly() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(observationRegistry, applicationProperties);
+        Mono<?> result = (Mono<?>) aspect.timeAroundServicesAndRepositories(joinPoint("findOne", Mono.delay(Duration.ofMillis(50))));
+
+        assertThat(meterRegistry.find(MethodTimingAspect.OBSERVATION_NAME).timer()).isNull();
+        result.block(TIMEOUT);
+
+        Timer timer = timer("method", "findOne", "outcome", "success");
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void tagsErrorsAndCancellations() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(observationRegistry, applicationProperties);
+        Flux<?> failing = (Flux<?>) aspect.timeAroundServicesAndRepositories(joinPoint("findAll", Flux.error(new IllegalStateException())));
+        Flux<?> endless = (Flux<?>) aspect.timeAroundServicesAndRepositories(joinPoint("findAll", Flux.interval(Duration.ofMillis(1))));
+
+        failing.onErrorResume(e -> Flux.empty()).blockLast(TIMEOUT);
+        endless.take(2).blockLast(TIMEOUT);
+
+        assertThat(timer("outcome", "error", "error", "IllegalStateException").count()).isEqualTo(1);
+        assertThat(timer("outcome", "cancelled").count()).isEqualTo(1);
+    }
+
+    @Test
+    void boundsTheTaggedMethodsAndSkipsTheCallsOutOfTheSample() throws Throwable {
+        applicationProperties.getMethodTiming().setMaxTaggedMethods(1);
+        MethodTimingAspect aspect = new MethodTimingAspect(observationRegistry, applicationProperties);
+
+        ((Mono<?>) aspect.timeAroundServicesAndRepositories(joinPoint("findOne", Mono.just(1)))).block(TIMEOUT);
+        ((Flux<?>) aspect.timeAroundServicesAndRepositories(joinPoint("findAll", Flux.just(1)))).blockLast(TIMEOUT);
+
+        assertThat(timer("method", "findOne").count()).isEqualTo(1);
+        assertThat(timer("method", MethodTimingAspect.OTHER).count()).isEqualTo(1);
+
+        applicationProperties.getMethodTiming().setSampleRate(0);
+        MethodTimingAspect unsampled = new MethodTimingAspect(ObservationRegistry.create(), applicationProperties);
+        Mono<Integer> source = Mono.just(1);
+        assertThat(unsampled.timeAroundServicesAndRepositories(joinPoint("findOne", source))).isSameAs(source);
+    }
+
+    @Test
+    void tagsAnInheritedMethodWithTheRepositoryCalled() throws Throwable {
+        MethodTimingAspect aspect = new MethodTimingAspect(observationRegistry, applicationProperties);
+        Method findAll = TimedRepository.class.getMethod("findAll");
+
+        for (Class<?> repository : List.of(FirstRepository.class, SecondRepository.class, FirstRepository.class)) {
+            ProceedingJoinPoint joinPoint = joinPoint("findAll", Flux.just(1));
+            when(joinPoint.getThis()).thenReturn(proxy(repository));
+            ((Flux<?>) aspect.timeAroundServicesAndRepositories(joinPoint)).blockLast(TIMEOUT);
+        }
+
+        assertThat(findAll.getDeclaringClass()).isEqualTo(TimedRepository.class);
+        assertThat(timer("class", "FirstRepository", "method", "findAll").count()).isEqualTo(2);
+        assertThat(timer("class", "SecondRepository", "method", "findAll").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String... tags) {
+        return meterRegistry.get(MethodTimingAspect.OBSERVATION_NAME).tags(tags).timer();
+    }
+
+    private static ProceedingJoinPoint joinPoint(String methodName, Object result) throws Throwable {
+        Method method = TimedRepository.class.getMethod(methodName);
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(method);
+        when(signature.getName()).thenReturn(methodName);
+        when(signature.getDeclaringType()).thenReturn(TimedRepository.class);
+        when(signature.getReturnType()).thenReturn(method.getReturnType());
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(result);
+        return joinPoint;
+    }
+
+    private static Object proxy(Class<?> repository) {
+        return Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[] { repository }, (proxy, method, args) -> null);
+    }
+
+    interface TimedRepository {
+        Mono<Object> findOne();
+
+        Flux<Object> findAll();
+    }
+
+    interface FirstRepository extends TimedRepository {}
+
+    interface SecondRepository extends TimedRepository {}
+}
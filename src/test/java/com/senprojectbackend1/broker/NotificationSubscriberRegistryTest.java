@@ -0,0 +1,95 @@
+package com.senprojectbackend1.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.senprojectbackend1.broker.dto.NotificationMessage;
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+class NotificationSubscriberRegistryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NotificationSubscriberRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getNotificationStream().setBufferSize(2);
+        registry = new NotificationSubscriberRegistry(applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void deliversToTheConnectionsOfTheRecipientOnly() throws Exception {
+        CompletableFuture<List<NotificationMessage>> alice = registry.subscribe("alice", Flux.empty()).take(2).collectList().toFuture();
+        CompletableFuture<List<NotificationMessage>> bob = registry.subscribe("bob", Flux.empty()).take(1).collectList().toFuture();
+
+        assertThat(registry.publish(message(1L, "alice"))).isEqualTo(1);
+        assertThat(registry.publish(message(null, null))).isEqualTo(2);
+        assertThat(registry.publish(message(2L, "carol"))).isZero();
+
+        assertThat(alice.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).extracting(NotificationMessage::getId).containsExactly(1L, null);
+        assertThat(bob.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).extracting(NotificationMessage::getUserId).containsOnlyNulls();
+        assertThat(registry.getConnectionCount()).isZero();
+    }
+
+    @Test
+    void replaysMissedNotificationsOnceBeforeTheLiveOnes() {
+        // publiées pendant la lecture des notifications manquées : 6 est dans la relecture, 7 non
+        Flux<NotificationMessage> missed = Flux.defer(() -> {
+            registry.publish(message(6L, "alice"));
+            registry.publish(message(7L, "alice"));
+            return Flux.just(message(5L, "alice"), message(6L, "alice"));
+        });
+
+        List<NotificationMessage> received = registry.subscribe("alice", missed).take(3).collectList().block(TIMEOUT);
+
+        assertThat(received).extracting(NotificationMessage::getId).containsExactly(5L, 6L, 7L);
+    }
+
+    @Test
+    void dropsTheOldestNotificationsOfASlowConnection() {
+        List<Long> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<NotificationMessage> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // ne lit rien tant qu'on ne le demande pas
+            }
+
+            @Override
+            protected void hookOnNext(NotificationMessage message) {
+                received.add(message.getId());
+            }
+        };
+        registry.subscribe("alice", Flux.empty()).subscribe(slow);
+
+        for (long id = 1; id <= 5; id++) {
+            registry.publish(message(id, "alice"));
+        }
+        slow.request(10);
+
+        assertThat(received).containsExactly(4L, 5L);
+        assertThat(meterRegistry.get("notifications.stream.dropped").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("notifications.stream.pending").gauge().value()).isZero();
+        slow.dispose();
+        assertThat(registry.getConnectionCount()).isZero();
+    }
+
+    private static NotificationMessage message(Long id, String userId) {
+        NotificationMessage message = new NotificationMessage();
+        message.setId(id);
+        message.setUserId(userId);
+        return message;
+    }
+}
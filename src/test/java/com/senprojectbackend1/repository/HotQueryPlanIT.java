@@ -0,0 +1,97 @@
+package com.senprojectbackend1.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.senprojectbackend1.IntegrationTest;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+
+/**
+ * Fails the build when a query run on every request cannot use an index.
+ * <p>
+ * Every {@code @Query} of the repositories is explained; the plans of the other queries are only logged.
+ * Sequential scans expected to return fewer rows than {@code -Dquery-plan.seq-scan-row-threshold} (0 by default) are tolerated.
+ */
+@IntegrationTest
+class HotQueryPlanIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HotQueryPlanIT.class);
+
+    private static final long SEQ_SCAN_ROW_THRESHOLD = Long.getLong("query-plan.seq-scan-row-threshold", 0L);
+
+    private static final Set<String> HOT_QUERIES = Set.of(
+        "NotificationRepository.findByUserIdAndReadAtIsNull",
+        "NotificationRepository.findInboxPage",
+        "NotificationRepository.findInboxPageAfter",
+        "NotificationRepository.findByUserId",
+        "NotificationRepository.countUnreadByUserId",
+        "TeamMembershipRepository.findByTeamIdAndUserId",
+        "EngagementProjectRepository.findEngagementByUserIdAndProjectIdAndType",
+        "ProjectRepository.findByTagName",
+        "ProjectRepository.existsByTitle",
+        "UserProfileRepository.findIdByLogin",
+        "UserProfileRepository.findOneByLogin"
+    );
+
+    // requêtes dérivées du nom de la méthode, sans @Query
+    private static final Map<String, String> DERIVED_QUERIES = Map.of(
+        "UserProfileRepository.findOneByLogin",
+        "SELECT * FROM user_profile WHERE login = :login"
+    );
+
+    // le bean du conteneur n'est enregistré que dans le premier contexte qui le démarre : on passe par les propriétés
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void hotQueriesDoNotScanWholeTables() throws Exception {
+        Map<String, String> queries = QueryPlanInspector.repositoryQueries(getClass().getPackageName());
+        queries.putAll(DERIVED_QUERIES);
+        assertThat(queries).containsKeys(HOT_QUERIES.toArray(String[]::new));
+
+        String url = environment.getProperty(
+            "spring.liquibase.url",
+            environment.getRequiredProperty("spring.r2dbc.url").replace("r2dbc", "jdbc")
+        );
+        String user = environment.getProperty("spring.liquibase.user", environment.getProperty("spring.r2dbc.username"));
+        String password = environment.getProperty("spring.liquibase.password", environment.getProperty("spring.r2dbc.password"));
+        List<String> failures = new ArrayList<>();
+        try (
+            QueryPlanInspector inspector = new QueryPlanInspector(
+                DriverManager.getConnection(url, user, password)
+            )
+        ) {
+            queries.forEach((name, sql) -> {
+                boolean hot = HOT_QUERIES.contains(name);
+                try {
+                    List<QueryPlanInspector.SeqScan> seqScans = inspector.seqScans(sql);
+                    if (seqScans.isEmpty()) {
+                        return;
+                    }
+                    boolean aboveThreshold = seqScans.stream().anyMatch(scan -> scan.estimatedRows() >= SEQ_SCAN_ROW_THRESHOLD);
+                    if (hot && aboveThreshold) {
+                        failures.add(name + " scans " + seqScans);
+                    } else {
+                        LOG.info("{} scans {}", name, seqScans);
+                    }
+                } catch (SQLException e) {
+                    if (hot) {
+                        failures.add(name + " cannot be explained: " + e.getMessage());
+                    } else {
+                        LOG.warn("{} cannot be explained: {}", name, e.getMessage());
+                    }
+                }
+            });
+        }
+        assertThat(failures).isEmpty();
+    }
+}
@@ -0,0 +1,134 @@
+package com.senprojectbackend1.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Explains the SQL of the repositories against a real PostgreSQL and reports the sequential scans of each plan.
+ * <p>
+ * Plans are generic plans ({@code EXPLAIN (GENERIC_PLAN)}, PostgreSQL 16+), so parameters need no value, and are
+ * computed with {@code enable_seqscan} off: a sequential scan left in such a plan means that no index can serve the query,
+ * whatever the size of the test tables.
+ */
+public class QueryPlanInspector implements AutoCloseable {
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<![:\\w]):([a-zA-Z_]\\w*)");
+
+    private final Connection connection;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public QueryPlanInspector(Connection connection) throws SQLException {
+        this.connection = connection;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    /**
+     * Collects the {@link Query} of every {@link Repository} interface of a package.
+     *
+     * @param basePackage the package to scan.
+     * @return the SQL keyed by {@code Repository.method}, suffixed with {@code #n} for overloads.
+     */
+    public static Map<String, String> repositoryQueries(String basePackage) throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AnnotationTypeFilter(Repository.class));
+        Map<String, String> queries = new TreeMap<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+            Class<?> repository = Class.forName(candidate.getBeanClassName());
+            for (Method method : repository.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null) {
+                    continue;
+                }
+                String key = repository.getSimpleName() + "." + method.getName();
+                int overload = 1;
+                while (queries.containsKey(overload == 1 ? key : key + "#" + overload)) {
+                    overload++;
+                }
+                queries.put(overload == 1 ? key : key + "#" + overload, query.value());
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Explains one query.
+     *
+     * @param sql the SQL, with Spring Data {@code :name} parameters.
+     * @return the sequential scans of its plan, empty if all tables are read through an index.
+     */
+    public List<SeqScan> seqScans(String sql) throws SQLException {
+        List<SeqScan> seqScans = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + toPositional(sql))) {
+                resultSet.next();
+                JsonNode plan = objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+                collectSeqScans(plan, seqScans);
+            } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+                throw new SQLException("Unreadable plan for: " + sql, e);
+            }
+        }
+        return seqScans;
+    }
+
+    /**
+     * Replaces Spring Data named parameters with PostgreSQL positional ones, the same name keeping the same position.
+     */
+    static String toPositional(String sql) {
+        Map<String, Integer> positions = new HashMap<>();
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder positional = new StringBuilder();
+        while (matcher.find()) {
+            int position = positions.computeIfAbsent(matcher.group(1), name -> positions.size() + 1);
+            matcher.appendReplacement(positional, "\\$" + position);
+        }
+        matcher.appendTail(positional);
+        return positional.toString();
+    }
+
+    private static void collectSeqScans(JsonNode node, List<SeqScan> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            seqScans.add(new SeqScan(node.path("Relation Name").asText(), node.path("Plan Rows").asLong()));
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, seqScans);
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * A sequential scan of a plan.
+     *
+     * @param relation the scanned table.
+     * @param estimatedRows the rows the planner expects the scan to return.
+     */
+    public record SeqScan(String relation, long estimatedRows) {}
+}
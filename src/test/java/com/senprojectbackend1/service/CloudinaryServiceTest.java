@@ -0,0 +1,142 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.senprojectbackend1.config.ApplicationProperties;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs with BlockHound installed (blockhound-junit-platform): subscribing from a parallel thread, like the event loop,
+ * fails on any blocking call made on that thread.
+ */
+class CloudinaryServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static final byte[] IMAGE = { 1, 2, 3 };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+    private final CountDownLatch releaseUploads = new CountDownLatch(1);
+    private volatile boolean holdUploads;
+    private CloudinaryService cloudinaryService;
+
+    @AfterEach
+    void tearDown() {
+        releaseUploads.countDown();
+        if (cloudinaryService != null) {
+            cloudinaryService.shutdown();
+        }
+    }
+
+    @Test
+    void blockingOnParallelThreadIsDetected() {
+        assertThat(errorOf(Mono.fromCallable(this::blockingUpload).subscribeOn(Schedulers.parallel()))).isInstanceOf(
+            BlockingOperationError.class
+        );
+    }
+
+    @Test
+    void uploadDoesNotBlockTheSubscribingThread() throws Exception {
+        cloudinaryService = new CloudinaryService(cloudinary(), applicationProperties, meterRegistry);
+
+        String url = Mono.defer(() -> cloudinaryService.uploadBytes(IMAGE))
+            .subscribeOn(Schedulers.parallel())
+            .block(TIMEOUT);
+
+        assertThat(url).isEqualTo("https://res.cloudinary.com/test.png");
+        assertThat(meterRegistry.get("upload.cloudinary").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void uploadsBeyondMaxPendingAreRejected() throws Exception {
+        applicationProperties.getUploads().setMaxPending(1);
+        holdUploads = true;
+        cloudinaryService = new CloudinaryService(cloudinary(), applicationProperties, meterRegistry);
+
+        cloudinaryService.uploadBytes(IMAGE).subscribe(url -> {}, error -> {});
+
+        assertThat(errorOf(cloudinaryService.uploadBytes(IMAGE))).isInstanceOf(BulkheadFullException.class);
+        assertThat(meterRegistry.get("upload.cloudinary").tag("outcome", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void uploadTimesOut() throws Exception {
+        applicationProperties.getUploads().setTimeout(Duration.ofMillis(100));
+        holdUploads = true;
+        cloudinaryService = new CloudinaryService(cloudinary(), applicationProperties, meterRegistry);
+
+        assertThat(errorOf(cloudinaryService.uploadBytes(IMAGE))).isInstanceOf(TimeoutException.class);
+        assertThat(meterRegistry.get("upload.cloudinary").tag("outcome", "timeout").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void timedOutUploadKeepsItsPlaceUntilTheBlockingCallEnds() throws Exception {
+        applicationProperties.getUploads().setMaxPending(1);
+        applicationProperties.getUploads().setTimeout(Duration.ofMillis(100));
+        holdUploads = true;
+        cloudinaryService = new CloudinaryService(cloudinary(), applicationProperties, meterRegistry);
+
+        assertThat(errorOf(cloudinaryService.uploadBytes(IMAGE))).isInstanceOf(TimeoutException.class);
+        // l'appel bloquant expiré tourne encore
+        assertThat(errorOf(cloudinaryService.uploadBytes(IMAGE))).isInstanceOf(BulkheadFullException.class);
+
+        releaseUploads.countDown();
+        Mono.fromCallable(() -> meterRegistry.get("upload.cloudinary.pending").gauge().value())
+            .filter(pending -> pending == 0)
+            .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(10)))
+            .block(TIMEOUT);
+        assertThat(cloudinaryService.uploadBytes(IMAGE).block(TIMEOUT)).isEqualTo("https://res.cloudinary.com/test.png");
+    }
+
+    private static Throwable errorOf(Mono<?> mono) {
+        return mono.then(Mono.<Throwable>empty()).onErrorResume(Mono::just).block(TIMEOUT);
+    }
+
+    private Cloudinary cloudinary() throws Exception {
+        Cloudinary cloudinary = mock(Cloudinary.class);
+        Uploader uploader = mock(Uploader.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> Map.of("secure_url", blockingUpload()));
+        return cloudinary;
+    }
+
+    // stands for the HTTP call of the Cloudinary client; held until the end of the test when holdUploads is set and,
+    // like a socket read, not ended by the interrupt sent on timeout
+    private String blockingUpload() throws InterruptedException {
+        if (holdUploads) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    releaseUploads.await(10, TimeUnit.SECONDS);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            Thread.sleep(10);
+        }
+        return "https://res.cloudinary.com/test.png";
+    }
+}
@@ -0,0 +1,133 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.repository.ProjectRepository;
+import com.senprojectbackend1.service.EngagementCounterBuffer.Counter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class EngagementCounterBufferTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+    // vues écrites en base, par projet
+    private final Map<Long, LongAdder> written = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(6);
+    private EngagementCounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties.getEngagementCounters().setMaxPendingEvents(Long.MAX_VALUE);
+        when(projectRepository.applyCounterDeltas(any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Long[] ids = invocation.getArgument(0);
+            Integer[] views = invocation.getArgument(1);
+            return Mono.fromSupplier(() -> {
+                for (int i = 0; i < ids.length; i++) {
+                    written.computeIfAbsent(ids[i], id -> new LongAdder()).add(views[i]);
+                }
+                return (long) ids.length;
+            });
+        });
+        buffer = new EngagementCounterBuffer(projectRepository, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void writesEveryIncrementAddedDuringConcurrentFlushes() throws Exception {
+        int writers = 4;
+        int incrementsPerWriter = 20_000;
+        AtomicBoolean adding = new AtomicBoolean(true);
+        // des flushs continus retirent les entrées vides pendant que les écrivains y ajoutent
+        Future<?> flusher = executor.submit(() -> {
+            while (adding.get()) {
+                buffer.flush().block(TIMEOUT);
+            }
+        });
+        List<Future<?>> adders = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            adders.add(
+                executor.submit(() -> {
+                    for (int i = 0; i < incrementsPerWriter; i++) {
+                        buffer.increment((long) (i % 3), Counter.VIEWS).block(TIMEOUT);
+                    }
+                })
+            );
+        }
+        for (Future<?> adder : adders) {
+            adder.get(30, TimeUnit.SECONDS);
+        }
+        adding.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+
+        buffer.flushOnShutdown();
+
+        long total = written.values().stream().mapToLong(LongAdder::sum).sum();
+        assertThat(total).isEqualTo((long) writers * incrementsPerWriter);
+    }
+
+    @Test
+    void shutdownWaitsForTheRunningFlushThenWritesWhatWasAddedMeanwhile() throws Exception {
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch releaseWrite = new CountDownLatch(1);
+        when(projectRepository.applyCounterDeltas(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                Long[] ids = invocation.getArgument(0);
+                Integer[] views = invocation.getArgument(1);
+                return Mono.fromSupplier(() -> {
+                    writeStarted.countDown();
+                    try {
+                        releaseWrite.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    written.computeIfAbsent(ids[0], id -> new LongAdder()).add(views[0]);
+                    return 1L;
+                });
+            })
+            .thenAnswer(invocation -> {
+                Long[] ids = invocation.getArgument(0);
+                Integer[] views = invocation.getArgument(1);
+                written.computeIfAbsent(ids[0], id -> new LongAdder()).add(views[0]);
+                return Mono.just(1L);
+            });
+        buffer.increment(1L, Counter.VIEWS).block(TIMEOUT);
+        Future<?> runningFlush = executor.submit(() -> buffer.flush().block(TIMEOUT));
+        assertThat(writeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // ajouté après que le flush en cours a vidé le tampon
+        buffer.increment(1L, Counter.VIEWS).block(TIMEOUT);
+
+        Future<?> shutdown = executor.submit(buffer::flushOnShutdown);
+        Thread.sleep(50);
+        assertThat(shutdown.isDone()).isFalse();
+        releaseWrite.countDown();
+        shutdown.get(5, TimeUnit.SECONDS);
+        runningFlush.get(5, TimeUnit.SECONDS);
+
+        assertThat(written.get(1L).sum()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,179 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Notification;
+import com.senprojectbackend1.repository.NotificationPartitionRepository;
+import com.senprojectbackend1.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class NotificationRetentionServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path archiveDirectory;
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final NotificationPartitionRepository notificationPartitionRepository = mock(NotificationPartitionRepository.class);
+    private final TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ApplicationProperties applicationProperties = new ApplicationProperties();
+    private NotificationRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties.NotificationRetention retention = applicationProperties.getNotificationRetention();
+        retention.setBatchSize(2);
+        retention.setArchiveEnabled(true);
+        retention.setArchiveDirectory(archiveDirectory.toString());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationPartitionRepository.createMonthlyPartition(any(YearMonth.class))).thenReturn(Mono.empty());
+        when(notificationPartitionRepository.countInDefaultPartition(any(YearMonth.class))).thenReturn(Mono.just(0L));
+        when(notificationPartitionRepository.findMonthlyPartitions()).thenReturn(Flux.empty());
+        when(notificationRepository.findOldestReadCreatedBefore(any(Instant.class))).thenReturn(Mono.empty());
+        service = new NotificationRetentionService(
+            notificationRepository,
+            notificationPartitionRepository,
+            transactionalOperator,
+            new ObjectMapper().findAndRegisterModules(),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void deletesAndArchivesInBatchesUntilAShortOne() throws IOException {
+        when(notificationRepository.deleteReadCreatedBefore(any(Instant.class), anyInt())).thenReturn(
+            Flux.just(notification(1L), notification(2L)),
+            Flux.just(notification(3L))
+        );
+
+        assertThat(service.run().block(TIMEOUT)).isEqualTo(3);
+
+        verify(notificationRepository, times(2)).deleteReadCreatedBefore(any(Instant.class), anyInt());
+        verify(notificationPartitionRepository, times(4)).createMonthlyPartition(any(YearMonth.class));
+        assertThat(archivedLines()).hasSize(3).allMatch(line -> line.contains("\"content\":\"read\""));
+        assertThat(meterRegistry.get("notifications.retention.pruned").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("notifications.retention.lag").gauge().value()).isZero();
+    }
+
+    @Test
+    void doesNotCountTheBatchWhoseArchiveFailed() throws IOException {
+        // un fichier à la place du répertoire : l'archive ne peut pas être écrite, la suppression est annulée
+        Path notADirectory = Files.createFile(archiveDirectory.resolve("archive"));
+        applicationProperties.getNotificationRetention().setArchiveDirectory(notADirectory.toString());
+        when(notificationRepository.deleteReadCreatedBefore(any(Instant.class), anyInt())).thenReturn(Flux.just(notification(1L)));
+
+        assertThat(service.run().block(TIMEOUT)).isZero();
+
+        assertThat(meterRegistry.get("notifications.retention.pruned").counter().count()).isZero();
+        assertThat(meterRegistry.get("notifications.retention.archived").counter().count()).isZero();
+    }
+
+    @Test
+    void publishesTheArchiveOnlyOnceTheDeletionIsCommitted() throws IOException {
+        List<String> filesAtCommit = new ArrayList<>();
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation ->
+            invocation.<Mono<?>>getArgument(0).doOnSuccess(value -> filesAtCommit.addAll(fileNames()))
+        );
+        when(notificationRepository.deleteReadCreatedBefore(any(Instant.class), anyInt())).thenReturn(Flux.just(notification(1L)));
+
+        assertThat(service.run().block(TIMEOUT)).isEqualTo(1);
+
+        assertThat(filesAtCommit).singleElement().asString().endsWith(".jsonl.gz.part");
+        assertThat(fileNames()).singleElement().asString().endsWith(".jsonl.gz");
+        assertThat(meterRegistry.get("notifications.retention.archived").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void deletesTheArchiveOfABatchRolledBack() throws IOException {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation ->
+            invocation.<Mono<?>>getArgument(0).then(Mono.error(new IllegalStateException("commit failed")))
+        );
+        when(notificationRepository.deleteReadCreatedBefore(any(Instant.class), anyInt())).thenReturn(Flux.just(notification(1L)));
+
+        assertThat(service.run().block(TIMEOUT)).isZero();
+
+        assertThat(fileNames()).isEmpty();
+        assertThat(meterRegistry.get("notifications.retention.archived").counter().count()).isZero();
+    }
+
+    @Test
+    void movesTheNotificationsOfTheDefaultPartitionIntoTheNewOne() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        when(notificationPartitionRepository.countInDefaultPartition(current.plusMonths(1))).thenReturn(Mono.just(2L));
+        when(notificationPartitionRepository.createMonthlyPartitionFromDefault(current.plusMonths(1))).thenReturn(Mono.just(2L));
+        when(notificationRepository.deleteReadCreatedBefore(any(Instant.class), anyInt())).thenReturn(Flux.empty());
+
+        service.run().block(TIMEOUT);
+
+        verify(notificationPartitionRepository, never()).createMonthlyPartition(current.plusMonths(1));
+        verify(notificationPartitionRepository).createMonthlyPartition(current.plusMonths(2));
+        assertThat(meterRegistry.get("notifications.retention.moved-from-default").counter().count()).isEqualTo(2);
+    }
+
+    private List<String> fileNames() {
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> archivedLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (Stream<Path> files = Files.list(archiveDirectory)) {
+            for (Path file : files.toList()) {
+                assertThat(file.getFileName().toString()).endsWith(".jsonl.gz");
+                try (
+                    BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)
+                    )
+                ) {
+                    reader.lines().forEach(lines::add);
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static Notification notification(Long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setContent("read");
+        notification.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        notification.setReadAt(Instant.parse("2026-01-02T00:00:00Z"));
+        return notification;
+    }
+}
@@ -0,0 +1,101 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Tag;
+import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.repository.TagUsageProjection;
+import com.senprojectbackend1.service.dto.TagDTO;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class TagAutocompleteIndexTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private TagAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(tagRepository.findAllowedWithProjectCount()).thenReturn(
+            Flux.just(
+                usage(1L, "Spring", 10),
+                usage(2L, "Spring Boot", 25),
+                usage(3L, "Java", 40),
+                usage(4L, "JavaScript", 30),
+                usage(5L, "Springfield", 1)
+            )
+        );
+        index = new TagAutocompleteIndex(tagRepository, new ApplicationProperties());
+        index.reload().block(TIMEOUT);
+    }
+
+    @Test
+    void ranksPrefixMatchesByProjectCount() {
+        assertThat(index.search("spr")).extracting(TagDTO::getName).containsExactly("Spring Boot", "Spring", "Springfield");
+    }
+
+    @Test
+    void listsContainingMatchesAfterPrefixMatches() {
+        assertThat(index.search("Java")).extracting(TagDTO::getName).containsExactly("Java", "JavaScript");
+        assertThat(index.search("script")).extracting(TagDTO::getName).containsExactly("JavaScript");
+        assertThat(index.search("boot")).extracting(TagDTO::getName).containsExactly("Spring Boot");
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(index.search("sprimg")).extracting(TagDTO::getName).containsExactly("Spring");
+    }
+
+    @Test
+    void followsCreatedAndForbiddenTags() {
+        index.upsert(new Tag().id(6L).name("Kotlin").isForbidden(false));
+        assertThat(index.search("kot")).extracting(TagDTO::getId).containsExactly(6L);
+
+        index.upsert(new Tag().id(3L).name("Java").isForbidden(true));
+        assertThat(index.search("java")).extracting(TagDTO::getName).containsExactly("JavaScript");
+
+        index.remove(6L);
+        assertThat(index.search("kot")).isEmpty();
+    }
+
+    @Test
+    void forgetsTheTrigramsOfRenamedTags() {
+        index.upsert(new Tag().id(4L).name("TypeScript").isForbidden(false));
+
+        assertThat(index.search("javasc")).extracting(TagDTO::getName).doesNotContain("JavaScript", "TypeScript");
+        assertThat(index.search("typesc")).extracting(TagDTO::getId).containsExactly(4L);
+        assertThat(index.search("script")).extracting(TagDTO::getName).containsExactly("TypeScript");
+    }
+
+    @Test
+    void replaysChangesMadeWhileReloading() {
+        Sinks.Many<TagUsageProjection> rows = Sinks.many().unicast().onBackpressureBuffer();
+        when(tagRepository.findAllowedWithProjectCount()).thenReturn(rows.asFlux());
+        Mono<Integer> reloaded = index.reload().cache();
+        reloaded.subscribe();
+
+        // créé et interdit pendant la lecture : absents du résultat, ou dans leur état précédent
+        index.upsert(new Tag().id(6L).name("Kotlin").isForbidden(false));
+        index.upsert(new Tag().id(3L).name("Java").isForbidden(true));
+        rows.tryEmitNext(usage(3L, "Java", 40));
+        rows.tryEmitNext(usage(4L, "JavaScript", 30));
+        rows.tryEmitComplete();
+
+        assertThat(reloaded.block(TIMEOUT)).isEqualTo(2);
+        assertThat(index.search("kot")).extracting(TagDTO::getId).containsExactly(6L);
+        assertThat(index.search("java")).extracting(TagDTO::getName).containsExactly("JavaScript");
+    }
+
+    private static TagUsageProjection usage(Long id, String name, long projectCount) {
+        return new TagUsageProjection(id, name, null, projectCount);
+    }
+}
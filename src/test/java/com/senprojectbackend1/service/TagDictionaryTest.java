@@ -0,0 +1,87 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import com.senprojectbackend1.domain.Tag;
+import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.service.dto.ProjectSubmissionDTO;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class TagDictionaryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final TagRepository tagRepository = mock(TagRepository.class);
+    private TagDictionary tagDictionary;
+
+    @BeforeEach
+    void setUp() {
+        tagDictionary = new TagDictionary(tagRepository, new TagAutocompleteIndex(tagRepository, new ApplicationProperties()));
+    }
+
+    @Test
+    void resolvesAllTagsWithOneLookupAndOneInsert() {
+        when(tagRepository.findAllByLowerNames(any())).thenReturn(Flux.just(tag(1L, "Java")));
+        when(tagRepository.insertMissing(any(), any())).thenReturn(Flux.just(tag(2L, "Spring")));
+
+        List<Tag> tags = tagDictionary.resolve(List.of(input("java"), input("Spring"), input("JAVA"))).block(TIMEOUT);
+
+        assertThat(tags).extracting(Tag::getId).containsExactly(1L, 2L);
+        verify(tagRepository, times(1)).findAllByLowerNames(new String[] { "java", "spring" });
+        verify(tagRepository, times(1)).insertMissing(new String[] { "Spring" }, new String[] { null });
+    }
+
+    @Test
+    void servesKnownTagsFromMemory() {
+        tagDictionary.put(tag(1L, "Java"));
+
+        List<Tag> tags = tagDictionary.resolve(List.of(input(" java "))).block(TIMEOUT);
+
+        assertThat(tags).extracting(Tag::getId).containsExactly(1L);
+        verify(tagRepository, never()).findAllByLowerNames(any());
+    }
+
+    @Test
+    void findsTagsCreatedByConcurrentSubmission() {
+        when(tagRepository.findAllByLowerNames(any())).thenReturn(Flux.empty(), Flux.just(tag(3L, "Kotlin")));
+        // conflit : le tag vient d'être créé par une autre soumission, l'INSERT ne renvoie rien
+        when(tagRepository.insertMissing(any(), any())).thenReturn(Flux.empty());
+
+        List<Tag> tags = tagDictionary.resolve(List.of(input("Kotlin"))).block(TIMEOUT);
+
+        assertThat(tags).extracting(Tag::getId).containsExactly(3L);
+        verify(tagRepository, times(2)).findAllByLowerNames(any());
+    }
+
+    @Test
+    void forgetsEvictedTag() {
+        tagDictionary.put(tag(1L, "Java"));
+        tagDictionary.evict(1L);
+        when(tagRepository.findAllByLowerNames(any())).thenReturn(Flux.just(tag(1L, "Java")));
+
+        tagDictionary.resolve(List.of(input("java"))).block(TIMEOUT);
+
+        verify(tagRepository, times(1)).findAllByLowerNames(any());
+    }
+
+    private static Tag tag(Long id, String name) {
+        return new Tag().id(id).name(name).isForbidden(false);
+    }
+
+    private static ProjectSubmissionDTO.TagInputDTO input(String name) {
+        ProjectSubmissionDTO.TagInputDTO input = new ProjectSubmissionDTO.TagInputDTO();
+        input.setName(name);
+        return input;
+    }
+}
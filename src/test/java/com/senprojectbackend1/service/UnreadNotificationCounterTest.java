@@ -0,0 +1,66 @@
+package com.senprojectbackend1.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.senprojectbackend1.repository.NotificationRepository;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class UnreadNotificationCounterTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationRepository);
+
+    @Test
+    void countsOnceThenFollowsTheWrites() {
+        when(notificationRepository.countUnreadByUserId("alice")).thenReturn(Mono.just(3L));
+
+        assertThat(counter.get("alice").block(TIMEOUT)).isEqualTo(3);
+        counter.add("alice", 2);
+        counter.add("alice", -1);
+        assertThat(counter.get("alice").block(TIMEOUT)).isEqualTo(4);
+        counter.reset("alice");
+        counter.add("alice", -1);
+        assertThat(counter.get("alice").block(TIMEOUT)).isZero();
+
+        verify(notificationRepository, times(1)).countUnreadByUserId("alice");
+    }
+
+    @Test
+    void countsAgainAfterEviction() {
+        when(notificationRepository.countUnreadByUserId("alice")).thenReturn(Mono.just(1L), Mono.just(5L));
+        counter.get("alice").block(TIMEOUT);
+
+        counter.evictAll();
+        // un compteur inconnu n'est pas modifié : il sera lu en base
+        counter.add("alice", 1);
+
+        assertThat(counter.get("alice").block(TIMEOUT)).isEqualTo(5);
+    }
+
+    @Test
+    void doesNotKeepACountReadWhileAWriteIsCommitted() {
+        Sinks.One<Long> firstCount = Sinks.one();
+        when(notificationRepository.countUnreadByUserId("alice")).thenReturn(firstCount.asMono(), Mono.just(3L));
+
+        Mono<Long> first = counter.get("alice").cache();
+        first.subscribe();
+        // la requête a pu lire l'état d'avant l'ajout
+        counter.add("alice", 1);
+        firstCount.tryEmitValue(2L);
+
+        assertThat(first.block(TIMEOUT)).isEqualTo(2);
+        assertThat(counter.get("alice").block(TIMEOUT)).isEqualTo(3);
+        counter.add("alice", 1);
+        assertThat(counter.get("alice").block(TIMEOUT)).isEqualTo(4);
+        verify(notificationRepository, times(2)).countUnreadByUserId("alice");
+    }
+}
@@ -0,0 +1,52 @@
+package com.senprojectbackend1.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ProjectSubmissionDTOTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void galleryImageRequiresImageUrlOrMediaId() {
+        ProjectSubmissionDTO.GalleryImageDTO image = new ProjectSubmissionDTO.GalleryImageDTO();
+        ProjectSubmissionDTO submission = submission(image);
+        assertThat(validator.validate(submission)).extracting(violation -> violation.getPropertyPath().toString()).containsExactly(
+            "galleryImages[0].imageUrlOrMediaIdPresent"
+        );
+
+        image.setMediaId("media-id");
+        assertThat(validator.validate(submission)).isEmpty();
+
+        image.setMediaId(null);
+        image.setImageUrl("https://example.com/image.png");
+        assertThat(validator.validate(submission)).isEmpty();
+    }
+
+    private static ProjectSubmissionDTO submission(ProjectSubmissionDTO.GalleryImageDTO image) {
+        ProjectSubmissionDTO submission = new ProjectSubmissionDTO();
+        submission.setTitle("A project");
+        submission.setDescription("A project description");
+        submission.setGalleryImages(List.of(image));
+        return submission;
+    }
+}
@@ -0,0 +1,68 @@
+package com.senprojectbackend1.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.senprojectbackend1.domain.ProjectSection;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ChildCollectionDiffTest {
+
+    @Test
+    void writesNothingForUnchangedChildren() {
+        ChildCollectionDiff<ProjectSection> diff = diff(
+            List.of(stored(1L, "Intro", 0), stored(2L, "Demo", 1)),
+            List.of(submitted("Intro", 0), submitted("Demo", 1))
+        );
+
+        assertThat(diff.isEmpty()).isTrue();
+    }
+
+    @Test
+    void keepsTheRowsOfMovedChildrenAndDeletesTheRemovedOne() {
+        ChildCollectionDiff<ProjectSection> diff = diff(
+            List.of(stored(1L, "Intro", 0), stored(2L, "Demo", 1), stored(3L, "Team", 2)),
+            List.of(submitted("Demo", 0), submitted("Team", 1))
+        );
+
+        assertThat(diff.updates()).extracting(ProjectSection::getId).containsExactly(2L, 3L);
+        assertThat(diff.inserts()).isEmpty();
+        assertThat(diff.deletedIds()).containsExactly(1L);
+    }
+
+    @Test
+    void rewritesChangedChildrenInPlaceAndInsertsTheNewOnes() {
+        ChildCollectionDiff<ProjectSection> diff = diff(
+            List.of(stored(1L, "Intro", 0), stored(2L, "Demo", 1)),
+            List.of(submitted("Intro", 0), submitted("Live demo", 1), submitted("Roadmap", 2))
+        );
+
+        assertThat(diff.updates()).extracting(ProjectSection::getId, ProjectSection::getTitle).containsExactly(
+            tuple(2L, "Live demo")
+        );
+        assertThat(diff.inserts()).extracting(ProjectSection::getTitle).containsExactly("Roadmap");
+        assertThat(diff.inserts()).extracting(ProjectSection::getId).containsOnlyNulls();
+        assertThat(diff.deletedIds()).isEmpty();
+    }
+
+    private static ChildCollectionDiff<ProjectSection> diff(List<ProjectSection> stored, List<ProjectSection> submitted) {
+        return ChildCollectionDiff.of(
+            stored,
+            new ArrayList<>(submitted),
+            ProjectSection::getId,
+            ProjectSection::setId,
+            ProjectSection::getTitle,
+            ProjectSection::getOrder
+        );
+    }
+
+    private static ProjectSection stored(Long id, String title, int order) {
+        return submitted(title, order).id(id);
+    }
+
+    private static ProjectSection submitted(String title, int order) {
+        return new ProjectSection().title(title).order(order);
+    }
+}
@@ -0,0 +1,209 @@
+package com.senprojectbackend1.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+class ImageDerivativeServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String PUBLIC_URL = "http://localhost/api/media/files/";
+
+    @TempDir
+    Path directory;
+
+    private LocalMediaStorage storage;
+    private ImageDerivativeService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedia().setLocalDirectory(directory.toString());
+        applicationProperties.getMedia().setPublicUrl(PUBLIC_URL);
+        storage = new LocalMediaStorage(applicationProperties);
+        service = new ImageDerivativeService(storage, applicationProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void createsAllSizesKeepingTheAspectRatio() throws Exception {
+        byte[] image = png(4000, 2000);
+        StoredMedia original = store(image);
+
+        ImageDerivatives derivatives = service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT);
+
+        assertThat(derivatives).isNotNull();
+        assertThat(dimensions(derivatives.thumbnail())).containsExactly(320, 160);
+        assertThat(dimensions(derivatives.card())).containsExactly(800, 400);
+        assertThat(dimensions(derivatives.full())).containsExactly(1920, 960);
+        assertThat(derivatives.thumbnail()).isEqualTo(PUBLIC_URL + original.key().substring(0, 64) + "-thumbnail.jpg");
+    }
+
+    @Test
+    void skipsContentThatIsNotAnImage() throws Exception {
+        byte[] content = "not an image".getBytes(StandardCharsets.UTF_8);
+        StoredMedia original = store(content);
+
+        assertThat(service.createDerivatives(original.key(), () -> new ByteArrayInputStream(content)).block(TIMEOUT)).isNull();
+    }
+
+    @Test
+    void regeneratesMissingDerivative() throws Exception {
+        byte[] image = png(1000, 500);
+        StoredMedia original = store(image);
+        ImageDerivatives derivatives = service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT);
+        String cardKey = key(derivatives.card());
+        Files.delete(storage.resolve(cardKey).block(TIMEOUT));
+        assertThat(storage.resolve(cardKey).block(TIMEOUT)).isNull();
+
+        Path regenerated = service.resolve(cardKey).block(TIMEOUT);
+
+        assertThat(regenerated).isNotNull();
+        BufferedImage card = ImageIO.read(regenerated.toFile());
+        assertThat(card.getWidth()).isEqualTo(800);
+        assertThat(card.getHeight()).isEqualTo(400);
+    }
+
+    @Test
+    void doesNotRegenerateDerivativeInAnotherFormat() throws Exception {
+        byte[] image = png(1000, 500);
+        StoredMedia original = store(image);
+        ImageDerivatives derivatives = service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT);
+        assertThat(derivatives.card()).endsWith(".jpg");
+
+        assertThat(service.resolve(original.key().substring(0, 64) + "-card.png").block(TIMEOUT)).isNull();
+    }
+
+    @Test
+    void doesNotRegenerateDerivativesOfImageStoredWithout() throws Exception {
+        byte[] content = "not an image".getBytes(StandardCharsets.UTF_8);
+        StoredMedia original = store(content);
+        assertThat(service.createDerivatives(original.key(), () -> new ByteArrayInputStream(content)).block(TIMEOUT)).isNull();
+
+        assertThat(service.resolve(original.key().substring(0, 64) + "-card.jpg").block(TIMEOUT)).isNull();
+    }
+
+    @Test
+    void appliesExifOrientation() throws Exception {
+        // photo prise téléphone tourné : 400x200 lus, orientation 6, soit 200x400 à l'affichage, haut en rouge
+        BufferedImage sensor = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 400; x++) {
+            for (int y = 0; y < 200; y++) {
+                sensor.setRGB(x, y, x < 200 ? Color.RED.getRGB() : Color.BLUE.getRGB());
+            }
+        }
+        byte[] image = withExifOrientation(jpeg(sensor), 6);
+        StoredMedia original = store(image);
+
+        ImageDerivatives derivatives = service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT);
+
+        BufferedImage full = ImageIO.read(storage.resolve(key(derivatives.full())).block(TIMEOUT).toFile());
+        assertThat(full.getWidth()).isEqualTo(200);
+        assertThat(full.getHeight()).isEqualTo(400);
+        assertThat(new Color(full.getRGB(100, 50)).getRed()).isGreaterThan(200);
+        assertThat(new Color(full.getRGB(100, 350)).getBlue()).isGreaterThan(200);
+    }
+
+    @Test
+    void keepsAnimatedGifWithoutDerivatives() throws Exception {
+        byte[] image = animatedGif(400, 200, 2);
+        StoredMedia original = store(image);
+
+        assertThat(service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT)).isNull();
+        assertThat(service.resolve(original.key().substring(0, 64) + "-card.jpg").block(TIMEOUT)).isNull();
+    }
+
+    @Test
+    void createsDerivativesOfStillGif() throws Exception {
+        byte[] image = animatedGif(400, 200, 1);
+        StoredMedia original = store(image);
+
+        ImageDerivatives derivatives = service.createDerivatives(original.key(), () -> new ByteArrayInputStream(image)).block(TIMEOUT);
+
+        assertThat(derivatives).isNotNull();
+        assertThat(dimensions(derivatives.thumbnail())).containsExactly(320, 160);
+    }
+
+    private StoredMedia store(byte[] content) {
+        return storage.store(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content)), MediaType.IMAGE_PNG).block(TIMEOUT);
+    }
+
+    private int[] dimensions(String url) throws Exception {
+        BufferedImage image = ImageIO.read(storage.resolve(key(url)).block(TIMEOUT).toFile());
+        return new int[] { image.getWidth(), image.getHeight() };
+    }
+
+    private static String key(String url) {
+        return url.substring(PUBLIC_URL.length());
+    }
+
+    private static byte[] jpeg(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // comme un appareil photo : le segment JFIF APP0 remplacé par un APP1 Exif, TIFF big-endian dont le premier IFD n'a que l'orientation
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        int app0Length = 2 + (((jpeg[4] & 0xFF) << 8) | (jpeg[5] & 0xFF));
+        ByteBuffer app1 = ByteBuffer.allocate(2 + 2 + 6 + 8 + 2 + 12 + 4);
+        app1.put((byte) 0xFF).put((byte) 0xE1).putShort((short) (app1.capacity() - 2));
+        app1.put("Exif\0\0".getBytes(StandardCharsets.US_ASCII));
+        app1.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        app1.putShort((short) 1);
+        app1.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        app1.putInt(0);
+        ByteBuffer result = ByteBuffer.allocate(jpeg.length - app0Length + app1.capacity());
+        result.put(jpeg, 0, 2).put(app1.array()).put(jpeg, 2 + app0Length, jpeg.length - 2 - app0Length);
+        return result.array();
+    }
+
+    private static byte[] animatedGif(int width, int height, int frames) throws Exception {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < frames; i++) {
+                BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                frame.setRGB(i, i, Color.WHITE.getRGB());
+                writer.writeToSequence(new IIOImage(frame, null, null), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,90 @@
+package com.senprojectbackend1.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.senprojectbackend1.config.ApplicationProperties;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+class LocalMediaStorageTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @TempDir
+    Path directory;
+
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedia().setLocalDirectory(directory.toString());
+        applicationProperties.getMedia().setPublicUrl("http://localhost/api/media/files/");
+        storage = new LocalMediaStorage(applicationProperties);
+    }
+
+    @Test
+    void requiresPublicUrl() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getMedia().setLocalDirectory(directory.toString());
+
+        assertThatThrownBy(() -> new LocalMediaStorage(applicationProperties))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("public-url");
+    }
+
+    @Test
+    void storesContentUnderItsHash() throws Exception {
+        StoredMedia stored = storage.store(content("hello ", "world"), MediaType.IMAGE_JPEG).block(TIMEOUT);
+
+        // SHA-256 de "hello world"
+        assertThat(stored.key()).isEqualTo("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9.jpg");
+        assertThat(stored.url()).isEqualTo("http://localhost/api/media/files/" + stored.key());
+        assertThat(stored.size()).isEqualTo(11);
+        Path file = storage.resolve(stored.key()).block(TIMEOUT);
+        assertThat(file).isNotNull();
+        assertThat(Files.readString(file)).isEqualTo("hello world");
+    }
+
+    @Test
+    void storesSameContentOnce() throws Exception {
+        StoredMedia first = storage.store(content("same image"), MediaType.IMAGE_PNG).block(TIMEOUT);
+        StoredMedia second = storage.store(content("same ", "image"), MediaType.IMAGE_PNG).block(TIMEOUT);
+
+        assertThat(second.key()).isEqualTo(first.key());
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void namesFilesWithTheExtensionFixedForTheirType() {
+        String hash = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+
+        assertThat(storage.store(content("hello world"), MediaType.parseMediaType("image/webp;q=1")).block(TIMEOUT).key()).isEqualTo(
+            hash + ".webp"
+        );
+        assertThat(storage.store(content("hello world"), MediaType.TEXT_HTML).block(TIMEOUT).key()).isEqualTo(hash);
+    }
+
+    @Test
+    void resolvesOnlyWellFormedKeys() {
+        assertThat(storage.resolve("../../etc/passwd").block(TIMEOUT)).isNull();
+        assertThat(storage.resolve("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9.png").block(TIMEOUT)).isNull();
+    }
+
+    private static Flux<DataBuffer> content(String... chunks) {
+        return Flux.fromArray(chunks).map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+    }
+}
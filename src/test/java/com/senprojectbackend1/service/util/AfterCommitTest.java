@@ -0,0 +1,83 @@
+package com.senprojectbackend1.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+class AfterCommitTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final TransactionalOperator transactionalOperator = TransactionalOperator.create(new StubTransactionManager());
+
+    @Test
+    void runsAtOnceWithoutTransaction() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        AfterCommit.run(() -> ran.set(true)).block(TIMEOUT);
+
+        assertThat(ran).isTrue();
+    }
+
+    @Test
+    void runsAfterCommit() {
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicBoolean ranBeforeCommit = new AtomicBoolean();
+
+        AfterCommit.run(() -> ran.set(true))
+            .then(Mono.fromRunnable(() -> ranBeforeCommit.set(ran.get())))
+            .as(transactionalOperator::transactional)
+            .block(TIMEOUT);
+
+        assertThat(ranBeforeCommit).isFalse();
+        assertThat(ran).isTrue();
+    }
+
+    @Test
+    void doesNotRunAfterRollback() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        AfterCommit.run(() -> ran.set(true))
+            .then(Mono.error(new IllegalStateException("rollback")))
+            .as(transactionalOperator::transactional)
+            .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+            .block(TIMEOUT);
+
+        assertThat(ran).isFalse();
+    }
+
+    private static final class StubTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
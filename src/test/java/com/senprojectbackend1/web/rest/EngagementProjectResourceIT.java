@@ -22,6 +22,7 @@ import com.senprojectbackend1.service.mapper.EngagementProjectMapper;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -687,6 +688,93 @@ class EngagementProjectResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    @WithMockUser(username = "engagement-status-user")
+    void getUserEngagementStatusAfterLikeAndShare() {
+        UserProfile user = UserProfileResourceIT.createEntity(em).login("engagement-status-user");
+        user.setId(UUID.randomUUID().toString());
+        userProfileRepository.save(user).block();
+        Project project = projectRepository.save(ProjectResourceIT.createEntity()).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/project/{id}/status", project.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.like")
+            .isEqualTo(false)
+            .jsonPath("$.share")
+            .isEqualTo(false);
+
+        for (String type : new String[] { "LIKE", "SHARE" }) {
+            webTestClient
+                .post()
+                .uri(ENTITY_API_URL + "/project/{id}?type={type}", project.getId(), type)
+                .exchange()
+                .expectStatus()
+                .isOk();
+        }
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/project/{id}/status", project.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.like")
+            .isEqualTo(true)
+            .jsonPath("$.share")
+            .isEqualTo(true);
+    }
+
+    @Test
+    @WithMockUser(username = "engagement-statuses-user")
+    void getUserEngagementStatusesOfSeveralProjects() {
+        UserProfile user = UserProfileResourceIT.createEntity(em).login("engagement-statuses-user");
+        user.setId(UUID.randomUUID().toString());
+        userProfileRepository.save(user).block();
+        Project liked = projectRepository.save(ProjectResourceIT.createEntity()).block();
+        Project sharedAndFavorited = projectRepository.save(ProjectResourceIT.createEntity()).block();
+        Project untouched = projectRepository.save(ProjectResourceIT.createEntity()).block();
+        saveEngagement(EngagementType.LIKE, user.getId(), liked.getId());
+        saveEngagement(EngagementType.SHARE, user.getId(), sharedAndFavorited.getId());
+        projectRepository.addToFavorites(sharedAndFavorited.getId(), user.getId()).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "/projects/status?ids={ids}", liked.getId() + "," + sharedAndFavorited.getId() + "," + untouched.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.length()")
+            .isEqualTo(3)
+            .jsonPath("$[?(@.projectId == " + liked.getId() + ")].like")
+            .isEqualTo(true)
+            .jsonPath("$[?(@.projectId == " + liked.getId() + ")].share")
+            .isEqualTo(false)
+            .jsonPath("$[?(@.projectId == " + sharedAndFavorited.getId() + ")].share")
+            .isEqualTo(true)
+            .jsonPath("$[?(@.projectId == " + sharedAndFavorited.getId() + ")].favorite")
+            .isEqualTo(true)
+            .jsonPath("$[?(@.projectId == " + untouched.getId() + ")].like")
+            .isEqualTo(false)
+            .jsonPath("$[?(@.projectId == " + untouched.getId() + ")].favorite")
+            .isEqualTo(false);
+
+        projectRepository.removeFromFavorites(sharedAndFavorited.getId(), user.getId()).block();
+    }
+
+    private void saveEngagement(EngagementType type, String userId, Long projectId) {
+        EngagementProject engagement = createEntity().type(type);
+        engagement.setUserId(userId);
+        engagement.setProjectId(projectId);
+        engagementProjectRepository.save(engagement).block();
+    }
+
     protected long getRepositoryCount() {
         return engagementProjectRepository.count().block();
     }
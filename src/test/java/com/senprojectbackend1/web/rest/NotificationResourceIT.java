@@ -9,17 +9,26 @@ import static org.springframework.security.test.web.reactive.server.SecurityMock
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.senprojectbackend1.IntegrationTest;
+import com.senprojectbackend1.broker.dto.NotificationMessage;
+import com.senprojectbackend1.config.ApplicationProperties;
 import com.senprojectbackend1.domain.Notification;
 import com.senprojectbackend1.domain.UserProfile;
 import com.senprojectbackend1.domain.enumeration.NotificationType;
 import com.senprojectbackend1.repository.EntityManager;
 import com.senprojectbackend1.repository.NotificationRepository;
 import com.senprojectbackend1.repository.UserProfileRepository;
+import com.senprojectbackend1.service.NotificationService;
+import com.senprojectbackend1.service.dto.NotificationBroadcastDTO;
 import com.senprojectbackend1.service.dto.NotificationDTO;
 import com.senprojectbackend1.service.mapper.NotificationMapper;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +38,8 @@ import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWeb
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
 
 /**
  * Integration tests for the {@link NotificationResource} REST controller.
@@ -81,6 +92,12 @@ class NotificationResourceIT {
     @Autowired
     private UserProfileRepository userProfileRepository;
 
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     /**
      * Create an entity for this test.
      *
@@ -847,6 +864,132 @@ class NotificationResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    void broadcastNotificationInsertsOneNotificationPerUserAcrossChunks() {
+        ApplicationProperties.NotificationBroadcast broadcastProperties = applicationProperties.getNotificationBroadcast();
+        int chunkSize = broadcastProperties.getChunkSize();
+        List<String> userIds = new ArrayList<>();
+        Disposable subscription = null;
+        try {
+            for (int i = 0; i < 5; i++) {
+                UserProfile user = UserProfileResourceIT.createEntity(em)
+                    .login("broadcast-user-" + i)
+                    .email("broadcast-" + i + "@example.com");
+                user.setId(UUID.randomUUID().toString());
+                userIds.add(userProfileRepository.save(user).block().getId());
+            }
+            // plusieurs lots, le dernier incomplet
+            broadcastProperties.setChunkSize(2);
+            List<NotificationMessage> received = new CopyOnWriteArrayList<>();
+            subscription = notificationService.streamNotifications(userIds.get(0), null).subscribe(received::add);
+
+            NotificationBroadcastDTO started = notificationService.createSystemNotification("broadcast", NotificationType.SYSTEM).block();
+            NotificationBroadcastDTO finished = Mono.defer(() -> notificationService.findBroadcast(started.getId()))
+                .filter(job -> job.getStatus() != NotificationBroadcastDTO.Status.RUNNING)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+                .block(Duration.ofSeconds(10));
+
+            assertThat(finished.getStatus()).isEqualTo(NotificationBroadcastDTO.Status.COMPLETED);
+            assertThat(finished.getTotal()).isGreaterThan(2);
+            assertThat(finished.getInserted()).isEqualTo(finished.getTotal());
+            for (String userId : userIds) {
+                assertThat(notificationRepository.countUnreadByUserId(userId).block()).isEqualTo(1);
+            }
+            // remise avec l'identifiant de la ligne de l'utilisateur, pour que Last-Event-ID ne la rejoue pas
+            Long persistedId = notificationRepository.findByUserIdAndReadAtIsNull(userIds.get(0)).blockFirst().getId();
+            List<NotificationMessage> delivered = Mono.fromSupplier(() -> received)
+                .filter(messages -> !messages.isEmpty())
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(50)))
+                .block(Duration.ofSeconds(10));
+            assertThat(delivered).extracting(NotificationMessage::getId).containsExactly(persistedId);
+        } finally {
+            if (subscription != null) {
+                subscription.dispose();
+            }
+            broadcastProperties.setChunkSize(chunkSize);
+            deleteEntities(em);
+            userIds.forEach(userId -> userProfileRepository.deleteById(userId).block());
+        }
+    }
+
+    @Test
+    void saveAllInsertsNewNotificationsAndUpdatesExistingOnes() {
+        UserProfile user = UserProfileResourceIT.createEntity(em).login("save-all-user").email("save-all@example.com");
+        user.setId(UUID.randomUUID().toString());
+        String userId = userProfileRepository.save(user).block().getId();
+        try {
+            Notification existing = notificationRepository.save(createEntity().user(user)).block();
+            long databaseSizeBefore = getRepositoryCount();
+            existing.setContent(UPDATED_CONTENT);
+            // colonnes nulles au milieu du lot : chaque ligne doit garder les siennes
+            Notification first = new Notification().content("first").createdAt(UPDATED_CREATED_AT).type(UPDATED_TYPE).user(user);
+            Notification second = createEntity().content("second").action("JOINED").user(user);
+
+            List<Notification> saved = notificationRepository.saveAll(List.of(first, existing, second)).collectList().block();
+
+            assertThat(getRepositoryCount()).isEqualTo(databaseSizeBefore + 2);
+            assertThat(saved).extracting(Notification::getId).doesNotContainNull().doesNotHaveDuplicates().contains(existing.getId());
+            Notification persistedFirst = notificationRepository.findById(first.getId()).block();
+            assertThat(persistedFirst.getContent()).isEqualTo("first");
+            assertThat(persistedFirst.getType()).isEqualTo(UPDATED_TYPE);
+            assertThat(persistedFirst.getReadAt()).isNull();
+            assertThat(persistedFirst.getEntityId()).isNull();
+            assertThat(persistedFirst.getAction()).isNull();
+            assertThat(persistedFirst.getUserId()).isEqualTo(userId);
+            Notification persistedSecond = notificationRepository.findById(second.getId()).block();
+            assertThat(persistedSecond.getContent()).isEqualTo("second");
+            assertThat(persistedSecond.getReadAt()).isEqualTo(DEFAULT_READ_AT);
+            assertThat(persistedSecond.getEntityId()).isEqualTo(DEFAULT_ENTITY_ID);
+            assertThat(persistedSecond.getAction()).isEqualTo("JOINED");
+            assertThat(notificationRepository.findById(existing.getId()).block().getContent()).isEqualTo(UPDATED_CONTENT);
+        } finally {
+            deleteEntities(em);
+            userProfileRepository.deleteById(userId).block();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "batch-notification-emitter")
+    void createNotificationsInsertsOneRowPerTargetWithItsOwnId() {
+        List<String> userIds = new ArrayList<>();
+        List<String> targetLogins = List.of("batch-notification-target-0", "batch-notification-target-1", "batch-notification-target-2");
+        try {
+            for (String login : concat("batch-notification-emitter", targetLogins)) {
+                UserProfile user = UserProfileResourceIT.createEntity(em).login(login).email(login + "@example.com");
+                user.setId(UUID.randomUUID().toString());
+                userIds.add(userProfileRepository.save(user).block().getId());
+            }
+            String emitterId = userIds.get(0);
+            long databaseSizeBefore = getRepositoryCount();
+
+            List<Notification> created = notificationService
+                .createNotifications("batch", NotificationType.TEAM_JOINED, null, null, targetLogins.toArray(String[]::new))
+                .collectList()
+                .block();
+
+            assertThat(getRepositoryCount()).isEqualTo(databaseSizeBefore + targetLogins.size());
+            assertThat(created).extracting(Notification::getId).doesNotContainNull().doesNotHaveDuplicates();
+            for (int i = 0; i < created.size(); i++) {
+                Notification persisted = notificationRepository.findById(created.get(i).getId()).block();
+                assertThat(persisted.getUserId()).isEqualTo(userIds.get(i + 1));
+                assertThat(persisted.getEntityId()).isEqualTo(emitterId);
+                assertThat(persisted.getAction()).isNull();
+                assertThat(persisted.getReadAt()).isNull();
+                assertThat(notificationRepository.countUnreadByUserId(userIds.get(i + 1)).block()).isEqualTo(1);
+            }
+        } finally {
+            deleteEntities(em);
+            userIds.forEach(userId -> userProfileRepository.deleteById(userId).block());
+        }
+    }
+
+    private static List<String> concat(String first, List<String> others) {
+        List<String> all = new ArrayList<>(others.size() + 1);
+        all.add(first);
+        all.addAll(others);
+        return all;
+    }
+
     protected long getRepositoryCount() {
         return notificationRepository.count().block();
     }
@@ -11,9 +11,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.senprojectbackend1.IntegrationTest;
 import com.senprojectbackend1.domain.Tag;
 import com.senprojectbackend1.repository.EntityManager;
+import com.senprojectbackend1.repository.ProjectRepository;
 import com.senprojectbackend1.repository.TagRepository;
+import com.senprojectbackend1.repository.TagUsageProjection;
+import com.senprojectbackend1.service.TagAutocompleteIndex;
+import com.senprojectbackend1.service.dto.PageDTO;
 import com.senprojectbackend1.service.dto.TagDTO;
+import com.senprojectbackend1.service.dto.TagWithCountDTO;
 import com.senprojectbackend1.service.mapper.TagMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -21,6 +30,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -66,6 +76,12 @@ class TagResourceIT {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TagAutocompleteIndex tagAutocompleteIndex;
+
     private Tag tag;
 
     private Tag insertedTag;
@@ -745,6 +761,83 @@ class TagResourceIT {
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);
     }
 
+    @Test
+    void searchTagsRanksByProjectCountLoadedFromTheDatabase() {
+        Tag once = tagRepository.save(createEntity().name("itcomplete-once")).block();
+        Tag twice = tagRepository.save(createEntity().name("itcomplete-twice")).block();
+        Tag forbidden = tagRepository.save(createEntity().name("itcomplete-forbidden").isForbidden(true)).block();
+        List<Long> projectIds = new ArrayList<>();
+        try {
+            projectIds.add(projectRepository.save(ProjectResourceIT.createEntity().addTags(twice).addTags(forbidden)).block().getId());
+            projectIds.add(projectRepository.save(ProjectResourceIT.createEntity().addTags(twice).addTags(once)).block().getId());
+
+            Map<String, Long> projectCounts = tagRepository
+                .findAllowedWithProjectCount()
+                .collectMap(TagUsageProjection::name, TagUsageProjection::projectCount)
+                .block();
+            assertThat(projectCounts).containsEntry("itcomplete-twice", 2L).containsEntry("itcomplete-once", 1L);
+            assertThat(projectCounts).doesNotContainKey("itcomplete-forbidden");
+
+            tagAutocompleteIndex.reload().block();
+            webTestClient
+                .get()
+                .uri(ENTITY_API_URL + "/search?name=itcomplete")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.length()")
+                .isEqualTo(2)
+                .jsonPath("$[0].name")
+                .isEqualTo("itcomplete-twice")
+                .jsonPath("$[1].name")
+                .isEqualTo("itcomplete-once");
+        } finally {
+            projectIds.forEach(id -> projectRepository.deleteById(id).block());
+            tagAutocompleteIndex.reload().block();
+        }
+    }
+
+    @Test
+    void getPaginatedTagsPagesThroughAllTagsWithTheirProjectCount() {
+        Tag once = tagRepository.save(createEntity().name("itpage-once")).block();
+        Tag twice = tagRepository.save(createEntity().name("itpage-twice")).block();
+        tagRepository.save(createEntity().name("itpage-none")).block();
+        List<Long> projectIds = new ArrayList<>();
+        try {
+            projectIds.add(projectRepository.save(ProjectResourceIT.createEntity().addTags(twice)).block().getId());
+            projectIds.add(projectRepository.save(ProjectResourceIT.createEntity().addTags(twice).addTags(once)).block().getId());
+            long tagCount = getRepositoryCount();
+
+            Map<String, Long> projectCounts = new HashMap<>();
+            int page = 0;
+            PageDTO<TagWithCountDTO> tags;
+            do {
+                tags = webTestClient
+                    .get()
+                    .uri(ENTITY_API_URL + "/paginated?page={page}&size=2", page)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(new ParameterizedTypeReference<PageDTO<TagWithCountDTO>>() {})
+                    .returnResult()
+                    .getResponseBody();
+                assertThat(tags.getTotalElements()).isEqualTo(tagCount);
+                assertThat(tags.getContent()).hasSizeLessThanOrEqualTo(2);
+                tags.getContent().forEach(tag -> projectCounts.put(tag.getName(), tag.getCount()));
+                page++;
+            } while (page < tags.getTotalPages());
+
+            assertThat(projectCounts).hasSize((int) tagCount);
+            assertThat(projectCounts)
+                .containsEntry("itpage-twice", 2L)
+                .containsEntry("itpage-once", 1L)
+                .containsEntry("itpage-none", 0L);
+        } finally {
+            projectIds.forEach(id -> projectRepository.deleteById(id).block());
+        }
+    }
+
     protected long getRepositoryCount() {
         return tagRepository.count().block();
     }